@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+# Smoke test and startup/RSS comparison for the native and JVM builds.
+#
+#   mvn -Pnative native:compile     # produces target/auth-service
+#   mvn clean package               # produces target/Authentication-Service-1.0.0.jar
+#   scripts/native-smoke.sh
+#
+# Both builds need the configured Postgres and MongoDB. Each is started,
+# logged in as the seeded admin, the token validated, then stopped.
+set -euo pipefail
+
+PORT="${PORT:-8080}"
+BASE="http://localhost:${PORT}"
+NATIVE="${NATIVE:-target/auth-service}"
+JAR="${JAR:-target/Authentication-Service-1.0.0.jar}"
+
+run() {
+    local name="$1"; shift
+    local log; log="$(mktemp)"
+    "$@" --server.port="${PORT}" >"${log}" 2>&1 &
+    local pid=$!
+    trap 'kill ${pid} 2>/dev/null || true' RETURN
+
+    for _ in $(seq 1 120); do
+        grep -q "Started AuthenticationSystemApplication" "${log}" && break
+        kill -0 "${pid}" 2>/dev/null || { cat "${log}"; echo "${name}: exited during startup"; return 1; }
+        sleep 0.5
+    done
+
+    local token
+    token="$(curl -sf -X POST "${BASE}/auth/login" -H 'Content-Type: application/json' \
+        -d '{"username":"admin","password":"admin123"}' | sed -n 's/.*"token":"\([^"]*\)".*/\1/p')"
+    [ -n "${token}" ] || { echo "${name}: login failed"; return 1; }
+    curl -sf "${BASE}/auth/validate" -H "Authorization: Bearer ${token}" | grep -q '"valid":true' \
+        || { echo "${name}: token validation failed"; return 1; }
+
+    local started rss
+    started="$(grep -o "Started AuthenticationSystemApplication in [0-9.]* seconds" "${log}" | grep -o "[0-9.]*")"
+    rss="$(ps -o rss= -p "${pid}" | tr -d ' ')"
+    printf '%-7s startup %6ss   rss %6d MiB\n' "${name}" "${started}" "$((rss / 1024))"
+}
+
+[ -x "${NATIVE}" ] && run native "${NATIVE}"
+[ -f "${JAR}" ] && run jvm java -jar "${JAR}"
@@ -0,0 +1,24 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.service.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+public class AuditConfig {
+
+    @Bean(destroyMethod = "close")
+    public AuditLog auditLog(
+            @Value("${auth.audit.directory:data/audit}") String directory,
+            @Value("${auth.audit.segment-size-mb:64}") int segmentSizeMb,
+            @Value("${auth.audit.rollover-minutes:60}") long rolloverMinutes,
+            @Value("${auth.audit.retention-days:365}") long retentionDays,
+            @Value("${auth.audit.flush-interval-ms:10}") long flushIntervalMillis) {
+        return new AuditLog(Path.of(directory), segmentSizeMb * 1024 * 1024, Duration.ofMinutes(rolloverMinutes),
+                Duration.ofDays(retentionDays), Duration.ofMillis(flushIntervalMillis));
+    }
+}
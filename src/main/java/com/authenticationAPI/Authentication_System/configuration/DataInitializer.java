@@ -1,119 +1,124 @@
 package com.authenticationAPI.Authentication_System.configuration;
 
-import com.authenticationAPI.Authentication_System.model.Permission;
-import com.authenticationAPI.Authentication_System.model.Role;
-import com.authenticationAPI.Authentication_System.model.User;
-import com.authenticationAPI.Authentication_System.repo.PermissionRepository;
-import com.authenticationAPI.Authentication_System.repo.RoleRepository;
-import com.authenticationAPI.Authentication_System.repo.UserRepository;
-import jakarta.transaction.Transactional;
+import com.authenticationAPI.Authentication_System.service.RoleHierarchyService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.metrics.ApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
-//import org.springframework.transaction.annotation.Transactional;
-
-import java.util.HashSet;
-import java.util.Set;
-
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds permissions, roles and the default admin. The seed is written with
+ * insert-if-absent statements and stamped with {@link #SEED_VERSION}; once the
+ * stored version matches, startup costs a single lookup. Each run is recorded
+ * as an {@code auth.seed} startup step tagged with whether it seeded.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
 
-    private final PermissionRepository permissionRepository;
-    private final RoleRepository roleRepository;
-    private final UserRepository userRepository;
+    // Bump whenever the reference data below changes
+    static final int SEED_VERSION = 4;
+
+    private static final String ADMIN_ROLE = "ADMIN";
+
+    private static final List<String> PERMISSIONS = List.of(
+            "READ_USER", "CREATE_USER", "UPDATE_USER", "DELETE_USER",
+            "MANAGE_ROLES", "MANAGE_PERMISSIONS", "MANAGE_API_KEYS", "INTROSPECT_TOKENS",
+            "READ_ADMIN", "WRITE_ADMIN", "DELETE_ADMIN"
+    );
+
+    private final JdbcTemplate jdbcTemplate;
     private final PasswordEncoder passwordEncoder;
+    private final RoleHierarchyService roleHierarchyService;
+    private final ApplicationStartup applicationStartup;
 
     @Override
     @Transactional
     public void run(String... args) {
-        initializePermissions();
-        initializeRoles();
-        initializeAdminUser();
-    }
-
-    private void initializePermissions() {
-        String[] permissionNames = {
-                "READ_USER", "CREATE_USER", "UPDATE_USER", "DELETE_USER",
-                "MANAGE_ROLES", "MANAGE_PERMISSIONS",
-                "READ_ADMIN", "WRITE_ADMIN", "DELETE_ADMIN"
-        };
-
-        for (String permissionName : permissionNames) {
-            if (!permissionRepository.existsByName(permissionName)) {
-                Permission permission = new Permission(permissionName);
-                permissionRepository.save(permission);
-                log.info("Created permission: {}", permissionName);
-            }
+        StartupStep step = applicationStartup.start("auth.seed");
+        try {
+            boolean seeded = seedIfOutdated();
+            step.tag("seeded", String.valueOf(seeded));
+        } finally {
+            step.end();
         }
     }
 
-    private void initializeRoles() {
-        // Create ADMIN role with all permissions
-        if (!roleRepository.existsByName("ADMIN")) {
-            Role adminRole = new Role("ADMIN");
-
-            // Fetch permissions from database to ensure they're managed entities
-            Set<Permission> adminPermissions = new HashSet<>();
-            permissionRepository.findAll().forEach(adminPermissions::add);
-
-            adminRole.setPermissions(adminPermissions);
-            roleRepository.save(adminRole);
-            log.info("Created ADMIN role with all permissions");
+    private boolean seedIfOutdated() {
+        long start = System.nanoTime();
+        if (currentSeedVersion() >= SEED_VERSION) {
+            log.debug("Reference data at seed version {}, skipping", SEED_VERSION);
+            return false;
         }
 
-        // Create USER role with basic permissions
-        if (!roleRepository.existsByName("USER")) {
-            Role userRole = new Role("USER");
-            Set<Permission> userPermissions = new HashSet<>();
+        jdbcTemplate.batchUpdate(
+                "insert into permissions (name) values " + values(PERMISSIONS) + " on conflict do nothing",
+                // Global roles (no tenant); a unique constraint does not stop duplicate nulls
+                "insert into roles (name) select v.name from (values ('ADMIN'), ('USER'), ('MODERATOR')) v (name) "
+                        + "where not exists (select 1 from roles r where r.name = v.name and r.tenant_id is null)",
+                // ADMIN inherits from MODERATOR, which inherits from USER
+                "insert into role_parents (role_id, parent_id) "
+                        + "select r.id, p.id from roles r join roles p on "
+                        + "((r.name = 'ADMIN' and p.name = 'MODERATOR') "
+                        + "or (r.name = 'MODERATOR' and p.name = 'USER')) "
+                        + "and r.tenant_id is null and p.tenant_id is null "
+                        + "on conflict do nothing",
+                "insert into role_permissions (role_id, permission_id) "
+                        + "select r.id, p.id from roles r join permissions p on "
+                        + "((r.name = 'ADMIN' and p.name not in ('READ_USER', 'UPDATE_USER')) "
+                        + "or (r.name = 'USER' and p.name = 'READ_USER') "
+                        + "or (r.name = 'MODERATOR' and p.name = 'UPDATE_USER')) "
+                        + "and r.tenant_id is null "
+                        + "on conflict do nothing"
+        );
+        roleHierarchyService.rebuildAll();
+        initializeAdminUser();
+        storeSeedVersion();
 
-            // Fetch permission from database
-            permissionRepository.findByName("READ_USER")
-                    .ifPresent(userPermissions::add);
+        log.info("Reference data seeded to version {} in {} ms",
+                SEED_VERSION, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
 
-            userRole.setPermissions(userPermissions);
-            roleRepository.save(userRole);
-            log.info("Created USER role with basic permissions");
+    private void initializeAdminUser() {
+        int created = jdbcTemplate.update(
+                "insert into users (id, tenant_id, username, email, password, enabled, authorities_version, created_at) "
+                        + "values (?, 'default', 'admin', 'admin@example.com', ?, true, 0, ?) on conflict do nothing",
+                UUID.randomUUID(), passwordEncoder.encode("admin123"), Timestamp.valueOf(LocalDateTime.now()));
+        jdbcTemplate.update(
+                "insert into user_roles (user_id, role_id) "
+                        + "select u.id, r.id from users u, roles r "
+                        + "where u.tenant_id = 'default' and u.username = 'admin' and r.name = ? and r.tenant_id is null "
+                        + "on conflict do nothing",
+                ADMIN_ROLE);
+        if (created > 0) {
+            log.info("Created default admin user - username: admin, password: admin123");
         }
+    }
 
-        // Create MODERATOR role
-        if (!roleRepository.existsByName("MODERATOR")) {
-            Role moderatorRole = new Role("MODERATOR");
-            Set<Permission> moderatorPermissions = new HashSet<>();
-
-            // Fetch permissions from database
-            permissionRepository.findByName("READ_USER")
-                    .ifPresent(moderatorPermissions::add);
-            permissionRepository.findByName("UPDATE_USER")
-                    .ifPresent(moderatorPermissions::add);
+    private int currentSeedVersion() {
+        List<Integer> versions = jdbcTemplate.queryForList("select version from app_seed_version where id = 1", Integer.class);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
 
-            moderatorRole.setPermissions(moderatorPermissions);
-            roleRepository.save(moderatorRole);
-            log.info("Created MODERATOR role");
+    private void storeSeedVersion() {
+        if (jdbcTemplate.update("update app_seed_version set version = ? where id = 1", SEED_VERSION) == 0) {
+            jdbcTemplate.update("insert into app_seed_version (id, version) values (1, ?)", SEED_VERSION);
         }
     }
 
-    private void initializeAdminUser() {
-        if (!userRepository.existsByUsername("admin")) {
-            User admin = new User();
-            admin.setUsername("admin");
-            admin.setEmail("admin@example.com");
-            admin.setPassword(passwordEncoder.encode("admin123"));
-            admin.setEnabled(true);
-
-            // Fetch role from database to ensure it's a managed entity
-            Role adminRole = roleRepository.findByName("ADMIN")
-                    .orElseThrow(() -> new RuntimeException("ADMIN role not found"));
-
-            Set<Role> roles = new HashSet<>();
-            roles.add(adminRole);
-            admin.setRoles(roles);
-
-            userRepository.save(admin);
-            log.info("Created default admin user - username: admin, password: admin123");
-        }
+    private static String values(List<String> names) {
+        return String.join(", ", names.stream().map(name -> "('" + name + "')").toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,73 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.dto.TokenPair;
+import com.authenticationAPI.Authentication_System.dto.TokenValidation;
+import com.authenticationAPI.Authentication_System.dto.UserResponse;
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import com.authenticationAPI.Authentication_System.model.KnownDeviceDocument;
+import com.authenticationAPI.Authentication_System.model.RateLimitCounterDocument;
+import com.authenticationAPI.Authentication_System.model.RefreshTokenDocument;
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument;
+import com.authenticationAPI.Authentication_System.model.TokenDocument;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import java.util.List;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer.
+ * Only consulted by the native build; on the JVM it is inert.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.AuthRuntimeHints.class)
+public class NativeHintsConfig {
+
+    // jjwt-api instantiates its implementation by class name
+    static final List<String> JJWT_REFLECTIVE_TYPES = List.of(
+            "io.jsonwebtoken.impl.DefaultClaimsBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtHeaderBuilder",
+            "io.jsonwebtoken.impl.DefaultJwtParserBuilder",
+            "io.jsonwebtoken.impl.io.StandardCompressionAlgorithms",
+            "io.jsonwebtoken.impl.security.KeysBridge",
+            "io.jsonwebtoken.impl.security.StandardEncryptionAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardHashAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardKeyOperations",
+            "io.jsonwebtoken.impl.security.StandardSecureDigestAlgorithms",
+            "io.jsonwebtoken.impl.security.StandardCurves",
+            "io.jsonwebtoken.jackson.io.JacksonSerializer",
+            "io.jsonwebtoken.jackson.io.JacksonDeserializer"
+    );
+
+    static class AuthRuntimeHints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            for (String type : JJWT_REFLECTIVE_TYPES) {
+                hints.reflection().registerType(TypeReference.of(type),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+                        MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
+            hints.resources().registerPattern("META-INF/services/io.jsonwebtoken.*");
+            hints.resources().registerPattern("policies/*.policy");
+
+            // Written with MongoTemplate directly, so not discovered through a repository
+            for (Class<?> document : List.of(TokenDocument.class, RefreshTokenDocument.class,
+                    SessionIndexDocument.class, SessionIndexDocument.SessionEntry.class,
+                    RateLimitCounterDocument.class, KnownDeviceDocument.class, KnownDeviceDocument.DeviceEntry.class)) {
+                hints.reflection().registerType(document, MemberCategory.values());
+            }
+
+            // Returned through ResponseEntity<?>, and UserResponse is also built by a JPQL constructor expression
+            for (Class<?> dto : List.of(TokenPair.class, TokenValidation.class, UserResponse.class,
+                    AuditRecord.class)) {
+                hints.reflection().registerType(dto, MemberCategory.values());
+            }
+        }
+    }
+}
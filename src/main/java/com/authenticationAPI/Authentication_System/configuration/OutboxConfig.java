@@ -0,0 +1,50 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.repo.OutboxEventRepository;
+import com.authenticationAPI.Authentication_System.service.FileSecurityEventSink;
+import com.authenticationAPI.Authentication_System.service.InMemorySecurityEventSink;
+import com.authenticationAPI.Authentication_System.service.OutboxRelay;
+import com.authenticationAPI.Authentication_System.service.SecurityEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.outbox.sink", havingValue = "file", matchIfMissing = true)
+    public SecurityEventSink fileSecurityEventSink(
+            @Value("${auth.outbox.file.path:data/security-events.jsonl}") String path,
+            JsonMapper jsonMapper) {
+        return new FileSecurityEventSink(Path.of(path), jsonMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.outbox.sink", havingValue = "memory")
+    public SecurityEventSink inMemorySecurityEventSink(
+            @Value("${auth.outbox.memory.capacity:10000}") int capacity) {
+        return new InMemorySecurityEventSink(capacity);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            SecurityEventSink securityEventSink,
+            TransactionTemplate transactionTemplate,
+            @Value("${auth.outbox.batch-size:100}") int batchSize,
+            @Value("${auth.outbox.max-batches-per-run:50}") int maxBatchesPerRun,
+            @Value("${auth.outbox.retention-days:7}") long retentionDays) {
+        return new OutboxRelay(outboxEventRepository, securityEventSink, transactionTemplate,
+                batchSize, maxBatchesPerRun, Duration.ofDays(retentionDays));
+    }
+}
@@ -1,15 +1,40 @@
 package com.authenticationAPI.Authentication_System.configuration;
 
+import com.authenticationAPI.Authentication_System.securityComponent.BoundedPasswordEncoder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+
 @Configuration
 public class PasswordEncoderConfig {
 
+    // Hashing on a dedicated pool only pays off with virtual threads, see the highconcurrency profile
+    @Value("${auth.bcrypt.bounded:false}")
+    private boolean bounded;
+
+    // Defaults to one hashing thread less than the core count, but at least two
+    @Value("${auth.bcrypt.max-concurrency:0}")
+    private int maxConcurrency;
+
+    @Value("${auth.bcrypt.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${auth.bcrypt.wait-timeout-ms:5000}")
+    private long waitTimeoutMillis;
+
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        if (!bounded) {
+            return new BCryptPasswordEncoder();
+        }
+        int threads = maxConcurrency > 0
+                ? maxConcurrency
+                : Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), threads, queueCapacity,
+                Duration.ofMillis(waitTimeoutMillis));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+
+@Slf4j
+@Configuration
+public class PersistenceTuningConfig {
+
+    // Hibernate 6+ moved parameter binding logs here; BasicBinder is the Hibernate 5 name
+    private static final String[] BIND_LOGGERS = {
+            "org.hibernate.orm.jdbc.bind",
+            "org.hibernate.type.descriptor.sql.BasicBinder"
+    };
+
+    private final Environment environment;
+
+    public PersistenceTuningConfig(Environment environment) {
+        this.environment = environment;
+    }
+
+    /**
+     * Sizes the Hikari pool from the core count when auth.datasource.auto-pool-size
+     * is on and no explicit maximum-pool-size was configured. Runs after property
+     * binding but before the pool opens its first connection.
+     */
+    @Bean
+    public static BeanPostProcessor hikariPoolSizer(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && environment.getProperty("auth.datasource.auto-pool-size", Boolean.class, false)
+                        && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+                    int size = poolSizeFor(Runtime.getRuntime().availableProcessors());
+                    dataSource.setMaximumPoolSize(size);
+                    dataSource.setMinimumIdle(size);
+                    log.info("Hikari pool sized to {} connections", size);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // (cores * 2) + 1: one connection busy on CPU while another waits on I/O
+    static int poolSizeFor(int cores) {
+        return cores * 2 + 1;
+    }
+
+    @Bean
+    @ConditionalOnExpression("${auth.sql.sample-rate:0} > 0")
+    public HibernatePropertiesCustomizer sampledSqlInspector(@Value("${auth.sql.sample-rate}") double sampleRate) {
+        return properties -> properties.put("hibernate.session_factory.statement_inspector",
+                new SampledSqlInspector(sampleRate));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warnOnDebugSqlLogging() {
+        if (environment.getProperty("spring.jpa.show-sql", Boolean.class, false)) {
+            log.warn("spring.jpa.show-sql is enabled; every statement is written to stdout");
+        }
+        if (LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled()) {
+            log.warn("org.hibernate.SQL is at DEBUG; every statement is logged");
+        }
+        for (String name : BIND_LOGGERS) {
+            Logger binder = LoggerFactory.getLogger(name);
+            if (binder.isTraceEnabled()) {
+                log.warn("{} is at TRACE; every bound parameter is logged", name);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.securityComponent.ClusterRateLimiter;
+import com.authenticationAPI.Authentication_System.securityComponent.InMemoryRateLimitStore;
+import com.authenticationAPI.Authentication_System.securityComponent.MongoRateLimitStore;
+import com.authenticationAPI.Authentication_System.securityComponent.RateLimitStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.Duration;
+
+@Configuration
+public class RateLimitConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.rate-limit.cluster.backend", havingValue = "mongo")
+    public RateLimitStore mongoRateLimitStore(MongoTemplate mongoTemplate) {
+        return new MongoRateLimitStore(mongoTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "auth.rate-limit.cluster.backend", havingValue = "memory")
+    public RateLimitStore inMemoryRateLimitStore() {
+        return new InMemoryRateLimitStore();
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnExpression("'${auth.rate-limit.cluster.backend:none}' != 'none'")
+    public ClusterRateLimiter clusterRateLimiter(
+            RateLimitStore rateLimitStore,
+            @Value("${auth.rate-limit.cluster.flush-threshold:5}") int flushThreshold,
+            @Value("${auth.rate-limit.cluster.flush-interval-ms:1000}") long flushIntervalMillis,
+            @Value("${auth.rate-limit.cluster.synchronous:false}") boolean synchronous,
+            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys) {
+        return new ClusterRateLimiter(rateLimitStore, Duration.ofMinutes(1), flushThreshold,
+                Duration.ofMillis(flushIntervalMillis), synchronous, maxKeys);
+    }
+}
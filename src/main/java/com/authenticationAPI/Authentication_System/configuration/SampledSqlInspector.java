@@ -0,0 +1,28 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs a random fraction of the SQL Hibernate sends, instead of every statement
+ * the way hibernate.SQL=DEBUG does. The statement is passed through unchanged.
+ */
+@Slf4j
+public class SampledSqlInspector implements StatementInspector {
+
+    private final double sampleRate;
+
+    public SampledSqlInspector(double sampleRate) {
+        this.sampleRate = Math.min(1.0, Math.max(0.0, sampleRate));
+    }
+
+    @Override
+    public String inspect(String sql) {
+        if (ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("Sampled SQL: {}", sql);
+        }
+        return sql;
+    }
+}
@@ -1,7 +1,14 @@
 package com.authenticationAPI.Authentication_System.configuration;
 
+import com.authenticationAPI.Authentication_System.securityComponent.ApiKeyAuthenticationFilter;
+import com.authenticationAPI.Authentication_System.securityComponent.AuditingAuthorizationManager;
+import com.authenticationAPI.Authentication_System.securityComponent.CompiledAuthorizationManager;
 import com.authenticationAPI.Authentication_System.securityComponent.JwtAuthenticationFilter;
+import com.authenticationAPI.Authentication_System.securityComponent.LoginRateLimitFilter;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantFilter;
+import com.authenticationAPI.Authentication_System.service.AuditLog;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -19,14 +26,22 @@ import org.springframework.web.cors.CorsConfigurationSource;
 
 @Configuration
 @EnableWebSecurity
-@EnableMethodSecurity
+// @Secured only: the method checks are plain authority lookups, no SpEL is evaluated per call
+@EnableMethodSecurity(prePostEnabled = false, securedEnabled = true)
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    private final TenantFilter tenantFilter;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final ApiKeyAuthenticationFilter apiKeyAuthenticationFilter;
+    private final LoginRateLimitFilter loginRateLimitFilter;
     private final UserDetailsService userDetailsService;
     private final PasswordEncoder passwordEncoder;
     private final CorsConfigurationSource corsConfigurationSource;
+    private final AuditLog auditLog;
+
+    @Value("${auth.audit.anonymous-denials-per-second:20}")
+    private int anonymousDenialsPerSecond;
 
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
@@ -42,6 +57,43 @@ public class SecurityConfig {
         return config.getAuthenticationManager();
     }
 
+    /**
+     * All URL and endpoint authorization rules. Anything not listed requires an
+     * authenticated caller; see {@link CompiledAuthorizationManager} for how
+     * overlapping patterns are resolved.
+     */
+    @Bean
+    public CompiledAuthorizationManager authorizationManager() {
+        return CompiledAuthorizationManager.builder()
+                // Public endpoints
+                .permitAll("/auth/**")
+                .authenticated("/auth/permissions/check", "POST")
+                .hasAuthority("INTROSPECT_TOKENS", "/auth/introspect", "POST")
+                .authenticated("/auth/mfa/*", "POST")
+                .permitAll("/auth/mfa/verify", "POST")
+                .permitAll("/api/public/**")
+                .permitAll("/error")
+
+                // Admin endpoints
+                .hasRole("ADMIN", "/admin/**")
+
+                // User management endpoints with specific permissions
+                .hasAuthority("READ_USER", "/users/**")
+                .hasAuthority("CREATE_USER", "/users/create", "POST")
+                .hasAuthority("UPDATE_USER", "/users/*/update", "PUT")
+                .hasAuthority("DELETE_USER", "/users/*/delete", "DELETE")
+
+                // Role management
+                .hasAuthority("MANAGE_ROLES", "/roles/**")
+
+                // Permission management
+                .hasAuthority("MANAGE_PERMISSIONS", "/permissions/**")
+
+                // API keys for service callers
+                .hasAuthority("MANAGE_API_KEYS", "/api-keys/**")
+                .build();
+    }
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         return http
@@ -49,31 +101,13 @@ public class SecurityConfig {
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session ->
                         session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
-                .authorizeHttpRequests(auth -> auth
-                        // Public endpoints
-                        .requestMatchers("/auth/**").permitAll()
-                        .requestMatchers("/api/public/**").permitAll()
-                        .requestMatchers("/error").permitAll()
-
-                        // Admin endpoints
-                        .requestMatchers("/admin/**").hasRole("ADMIN")
-
-                        // User management endpoints with specific permissions
-                        .requestMatchers("/users/create").hasAuthority("CREATE_USER")
-                        .requestMatchers("/users/*/delete").hasAuthority("DELETE_USER")
-                        .requestMatchers("/users/*/update").hasAuthority("UPDATE_USER")
-                        .requestMatchers("/users/**").hasAuthority("READ_USER")
-
-                        // Role management
-                        .requestMatchers("/roles/**").hasAuthority("MANAGE_ROLES")
-
-                        // Permission management
-                        .requestMatchers("/permissions/**").hasAuthority("MANAGE_PERMISSIONS")
-
-                        // Any other request requires authentication
-                        .anyRequest().authenticated()
-                )
+                .authorizeHttpRequests(auth -> auth.anyRequest()
+                        .access(new AuditingAuthorizationManager(authorizationManager(), auditLog,
+                                anonymousDenialsPerSecond)))
                 .authenticationProvider(authenticationProvider())
+                .addFilterBefore(tenantFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(loginRateLimitFilter, UsernamePasswordAuthenticationFilter.class)
+                .addFilterBefore(apiKeyAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
                 .build();
     }
@@ -0,0 +1,51 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.securityComponent.TenantPartitionedCache;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import com.authenticationAPI.Authentication_System.service.ApiKeyService.CachedKey;
+import com.authenticationAPI.Authentication_System.service.DeviceFingerprintService.KnownDevices;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+
+@Configuration
+public class TenantCacheConfig {
+
+    @Bean
+    public TenantPartitionedCache<UUID, UserPrincipal> principalCache(
+            @Value("${auth.cache.principal.ttl-seconds:30}") long ttlSeconds,
+            @Value("${auth.cache.principal.max-per-tenant:1000}") int maxPerTenant,
+            @Value("${auth.cache.max-tenants:5000}") int maxTenants) {
+        return new TenantPartitionedCache<>(maxPerTenant, maxTenants, Duration.ofSeconds(ttlSeconds).toMillis());
+    }
+
+    // Keyed by a token's role set; roles change rarely, so entries live until invalidated
+    @Bean
+    public TenantPartitionedCache<Set<Long>, Set<String>> roleAuthorityCache(
+            @Value("${auth.cache.role-sets.max-per-tenant:256}") int maxPerTenant,
+            @Value("${auth.cache.max-tenants:5000}") int maxTenants) {
+        return new TenantPartitionedCache<>(maxPerTenant, maxTenants, Duration.ofDays(1).toMillis());
+    }
+
+    // Known devices change only on a new device, so they can stay cached for long
+    @Bean
+    public TenantPartitionedCache<UUID, KnownDevices> knownDeviceCache(
+            @Value("${auth.cache.devices.ttl-hours:24}") long ttlHours,
+            @Value("${auth.cache.devices.max-per-tenant:10000}") int maxPerTenant,
+            @Value("${auth.cache.max-tenants:5000}") int maxTenants) {
+        return new TenantPartitionedCache<>(maxPerTenant, maxTenants, Duration.ofHours(ttlHours).toMillis());
+    }
+
+    // API key prefixes are global, so this cache has a single partition; the
+    // TTL bounds how long a key revoked on another instance is still accepted
+    @Bean
+    public TenantPartitionedCache<String, CachedKey> apiKeyCache(
+            @Value("${auth.cache.api-keys.ttl-seconds:60}") long ttlSeconds,
+            @Value("${auth.cache.api-keys.max-entries:10000}") int maxEntries) {
+        return new TenantPartitionedCache<>(maxEntries, 1, Duration.ofSeconds(ttlSeconds).toMillis());
+    }
+}
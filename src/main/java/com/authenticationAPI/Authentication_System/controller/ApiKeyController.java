@@ -0,0 +1,60 @@
+package com.authenticationAPI.Authentication_System.controller;
+
+import com.authenticationAPI.Authentication_System.model.ApiKey;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import com.authenticationAPI.Authentication_System.service.ApiKeyService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api-keys")
+@RequiredArgsConstructor
+@Secured("MANAGE_API_KEYS")
+public class ApiKeyController {
+
+    private final ApiKeyService apiKeyService;
+
+    @PostMapping
+    public ResponseEntity<?> createKey(@AuthenticationPrincipal UserPrincipal principal,
+                                       @RequestBody Map<String, Object> keyRequest) {
+        try {
+            // Null when the caller itself authenticated with an API key
+            if (principal == null) {
+                throw new RuntimeException("API keys can only be created by users");
+            }
+            @SuppressWarnings("unchecked")
+            List<String> scopes = (List<String>) keyRequest.get("scopes");
+            Integer expiresInDays = keyRequest.get("expiresInDays") instanceof Number days ? days.intValue() : null;
+
+            Map<String, Object> created = apiKeyService.create(principal, (String) keyRequest.get("name"),
+                    scopes != null ? new LinkedHashSet<>(scopes) : null, expiresInDays);
+            return ResponseEntity.status(HttpStatus.CREATED).body(created);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<ApiKey>> getKeys() {
+        return ResponseEntity.ok(apiKeyService.listKeys());
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> revokeKey(@PathVariable UUID id) {
+        try {
+            apiKeyService.revoke(id);
+            return ResponseEntity.ok(Map.of("message", "API key revoked successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
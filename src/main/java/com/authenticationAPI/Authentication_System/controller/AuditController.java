@@ -0,0 +1,53 @@
+package com.authenticationAPI.Authentication_System.controller;
+
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.service.AuditLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Audit trail search. Served under /admin, so ADMIN only; admins outside the
+ * default tenant only see their own tenant's records.
+ */
+@RestController
+@RequestMapping("/admin/audit")
+@RequiredArgsConstructor
+@Secured("ROLE_ADMIN")
+public class AuditController {
+
+    private final AuditLog auditLog;
+
+    @Value("${auth.audit.query.max-results:1000}")
+    private int maxResults;
+
+    @GetMapping
+    public ResponseEntity<?> search(@RequestParam(required = false) UUID userId,
+                                    @RequestParam(required = false) String username,
+                                    @RequestParam(required = false) String from,
+                                    @RequestParam(required = false) String to,
+                                    @RequestParam(defaultValue = "100") int limit) {
+        try {
+            Instant end = to != null ? Instant.parse(to) : Instant.now();
+            Instant start = from != null ? Instant.parse(from) : end.minus(Duration.ofDays(1));
+            String tenant = TenantContext.get();
+
+            List<AuditRecord> records = auditLog.query(
+                    TenantContext.DEFAULT_TENANT.equals(tenant) ? null : tenant,
+                    userId, username, start, end, Math.max(1, Math.min(limit, maxResults)));
+            return ResponseEntity.ok(Map.of("records", records, "count", records.size()));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "from and to must be ISO-8601 instants"));
+        }
+    }
+}
@@ -1,15 +1,30 @@
 package com.authenticationAPI.Authentication_System.controller;
 
+import com.authenticationAPI.Authentication_System.dto.LoginResult;
+import com.authenticationAPI.Authentication_System.dto.PermissionCheck;
+import com.authenticationAPI.Authentication_System.dto.TokenPair;
+import com.authenticationAPI.Authentication_System.dto.TokenValidation;
+import com.authenticationAPI.Authentication_System.exceptionHandling.TooManyRequestsException;
 import com.authenticationAPI.Authentication_System.model.User;
+import com.authenticationAPI.Authentication_System.securityComponent.PermissionChecker;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
 import com.authenticationAPI.Authentication_System.service.AuthService;
+import com.authenticationAPI.Authentication_System.service.MfaService;
+import com.authenticationAPI.Authentication_System.service.TokenIntrospectionService;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @RestController
@@ -18,6 +33,9 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final TokenIntrospectionService tokenIntrospectionService;
+    private final PermissionChecker permissionChecker;
+    private final MfaService mfaService;
 
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody User user, HttpServletRequest request) {
@@ -30,6 +48,10 @@ public class AuthController {
             response.put("username", registeredUser.getUsername());
 
             return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -41,20 +63,90 @@ public class AuthController {
             String username = loginRequest.get("username");
             String password = loginRequest.get("password");
 
-            String token = authService.login(username, password, request);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("message", "Login successful");
-            response.put("token", token);
-            response.put("tokenType", "Bearer");
+            LoginResult result = authService.login(username, password, request);
+            if (result.isMfaRequired()) {
+                Map<String, Object> response = new HashMap<>();
+                response.put("message", "MFA verification required");
+                response.put("mfaRequired", true);
+                response.put("mfaToken", result.getMfaToken());
+                response.put("expiresIn", result.getMfaExpiresIn());
+                return ResponseEntity.ok(response);
+            }
 
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok(tokenResponse("Login successful", result.getTokens()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
                     .body(Map.of("error", "Invalid username or password"));
         }
     }
 
+    @PostMapping("/mfa/verify")
+    public ResponseEntity<?> verifyMfa(@RequestBody Map<String, String> verifyRequest, HttpServletRequest request) {
+        try {
+            TokenPair tokens = authService.verifyMfa(verifyRequest.get("mfaToken"), verifyRequest.get("code"), request);
+
+            return ResponseEntity.ok(tokenResponse("Login successful", tokens));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/mfa/enroll")
+    public ResponseEntity<?> enrollMfa(@AuthenticationPrincipal UserPrincipal principal) {
+        try {
+            return ResponseEntity.ok(mfaService.enroll(principal.getId()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/mfa/activate")
+    public ResponseEntity<?> activateMfa(@AuthenticationPrincipal UserPrincipal principal,
+                                         @RequestBody Map<String, String> codeRequest) {
+        try {
+            mfaService.activate(principal.getId(), codeRequest.get("code"));
+            return ResponseEntity.ok(Map.of("message", "MFA enabled"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/mfa/disable")
+    public ResponseEntity<?> disableMfa(@AuthenticationPrincipal UserPrincipal principal,
+                                        @RequestBody Map<String, String> codeRequest) {
+        try {
+            mfaService.disable(principal.getId(), codeRequest.get("code"));
+            return ResponseEntity.ok(Map.of("message", "MFA disabled"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> refreshRequest, HttpServletRequest request) {
+        try {
+            TokenPair tokens = authService.refresh(refreshRequest.get("refreshToken"), request);
+
+            return ResponseEntity.ok(tokenResponse("Token refreshed", tokens));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @PostMapping("/logout")
     public ResponseEntity<?> logout(@RequestHeader("Authorization") String authHeader) {
         try {
@@ -81,19 +173,79 @@ public class AuthController {
                     .body(Map.of("valid", false, "message", "Invalid authorization header format"));
         }
 
+        TokenValidation validation = authService.validateToken(authHeader.substring(7));
+
+        if (!validation.isValid()) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(Map.of("valid", false, "message", validation.getMessage()));
+        }
+
+        // Callers may cache a positive answer until the token expires
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(Duration.ofSeconds(validation.getExpiresIn())).cachePrivate())
+                .body(Map.of("valid", true, "message", validation.getMessage(),
+                        "expiresIn", validation.getExpiresIn()));
+    }
+
+    // RFC 7662 requires the caller to authenticate, typically a gateway with an API key
+    @PostMapping("/introspect")
+    @Secured("INTROSPECT_TOKENS")
+    public ResponseEntity<?> introspect(@RequestBody Map<String, List<String>> introspectionRequest) {
         try {
-            String token = authHeader.substring(7);
-            boolean isRevoked = authService.isTokenRevoked(token);
+            List<Map<String, Object>> results = tokenIntrospectionService.introspect(introspectionRequest.get("tokens"));
+
+            // Results stay valid until the earliest active token expires
+            long now = Instant.now().getEpochSecond();
+            long maxAge = results.stream()
+                    .filter(result -> result.containsKey("exp"))
+                    .mapToLong(result -> (Long) result.get("exp") - now)
+                    .min()
+                    .orElse(0L);
+
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(Duration.ofSeconds(Math.max(maxAge, 0L))).cachePrivate())
+                    .body(Map.of("results", results));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 
-            if (isRevoked) {
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                        .body(Map.of("valid", false, "message", "Token has been revoked"));
+    // Policies are evaluated against a user, so API-key callers (no UserPrincipal) are turned away
+    @PostMapping("/permissions/check")
+    public ResponseEntity<?> checkPermissions(@AuthenticationPrincipal UserPrincipal principal,
+                                              @RequestBody Map<String, List<PermissionCheck>> checkRequest,
+                                              @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        if (principal == null) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "Permission checks are only answered for signed-in users"));
+        }
+        try {
+            List<PermissionCheck> checks = checkRequest.get("checks");
+            String etag = permissionChecker.etag(principal, checks);
+            if (ifNoneMatch != null && ifNoneMatch.contains(etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
             }
 
-            return ResponseEntity.ok(Map.of("valid", true, "message", "Token is valid"));
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
-                    .body(Map.of("valid", false, "message", "Invalid token"));
+            // Revalidate every time: answers change as soon as roles or policies do
+            return ResponseEntity.ok()
+                    .eTag(etag)
+                    .cacheControl(CacheControl.noCache().cachePrivate())
+                    .body(Map.of("results", permissionChecker.check(principal, checks)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private Map<String, Object> tokenResponse(String message, TokenPair tokens) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", message);
+        response.put("token", tokens.getAccessToken());
+        response.put("refreshToken", tokens.getRefreshToken());
+        response.put("expiresIn", tokens.getExpiresIn());
+        response.put("tokenType", "Bearer");
+        if (tokens.isStepUpRequired()) {
+            response.put("stepUpRequired", true);
         }
+        return response;
     }
-}
\ No newline at end of file
+}
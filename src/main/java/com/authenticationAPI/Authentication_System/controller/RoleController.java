@@ -6,7 +6,8 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -16,7 +17,7 @@ import java.util.Set;
 @RestController
 @RequestMapping("/roles")
 @RequiredArgsConstructor
-@PreAuthorize("hasAuthority('MANAGE_ROLES')")
+@Secured("MANAGE_ROLES")
 public class RoleController {
 
     private final RoleService roleService;
@@ -63,6 +64,8 @@ public class RoleController {
         try {
             Role updatedRole = roleService.updateRole(id, role);
             return ResponseEntity.ok(updatedRole);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -73,6 +76,8 @@ public class RoleController {
         try {
             roleService.deleteRole(id);
             return ResponseEntity.ok(Map.of("message", "Role deleted successfully"));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -83,6 +88,8 @@ public class RoleController {
         try {
             Role role = roleService.assignPermissionsToRole(id, permissionNames);
             return ResponseEntity.ok(role);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -93,8 +100,34 @@ public class RoleController {
         try {
             Role role = roleService.removePermissionsFromRole(id, permissionNames);
             return ResponseEntity.ok(role);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    @PostMapping("/{id}/parents/assign")
+    public ResponseEntity<?> assignParents(@PathVariable Long id, @RequestBody Set<String> parentNames) {
+        try {
+            Role role = roleService.assignParentsToRole(id, parentNames);
+            return ResponseEntity.ok(role);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/parents/remove")
+    public ResponseEntity<?> removeParents(@PathVariable Long id, @RequestBody Set<String> parentNames) {
+        try {
+            Role role = roleService.removeParentsFromRole(id, parentNames);
+            return ResponseEntity.ok(role);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.authenticationAPI.Authentication_System.controller;
+
+import com.authenticationAPI.Authentication_System.model.OutboxEvent;
+import com.authenticationAPI.Authentication_System.service.SecurityEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Replay of the security event stream for consumers that fell behind or are
+ * being rebuilt. Served under /admin, so ADMIN only.
+ */
+@RestController
+@RequestMapping("/admin/events")
+@RequiredArgsConstructor
+@Secured("ROLE_ADMIN")
+public class SecurityEventController {
+
+    private final SecurityEventService securityEventService;
+
+    @GetMapping
+    public ResponseEntity<?> getEvents(@RequestParam(defaultValue = "0") long afterSeq,
+                                       @RequestParam(required = false) String aggregateId,
+                                       @RequestParam(defaultValue = "100") int limit) {
+        List<OutboxEvent> events = securityEventService.eventsAfter(afterSeq, aggregateId, limit);
+        long nextAfterSeq = events.isEmpty() ? afterSeq : events.get(events.size() - 1).getPublishedSeq();
+        return ResponseEntity.ok(Map.of("events", events, "nextAfterSeq", nextAfterSeq));
+    }
+
+    @PostMapping("/replay")
+    public ResponseEntity<?> replay(@RequestBody Map<String, Long> replayRequest) {
+        Long fromId = replayRequest.get("fromId");
+        if (fromId == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "fromId is required"));
+        }
+        int queued = securityEventService.replayFrom(fromId);
+        return ResponseEntity.ok(Map.of("message", "Events queued for redelivery", "count", queued));
+    }
+}
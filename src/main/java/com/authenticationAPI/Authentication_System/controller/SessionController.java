@@ -0,0 +1,36 @@
+package com.authenticationAPI.Authentication_System.controller;
+
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument.SessionEntry;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import com.authenticationAPI.Authentication_System.service.SessionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/sessions")
+@RequiredArgsConstructor
+public class SessionController {
+
+    private final SessionService sessionService;
+
+    @GetMapping
+    public ResponseEntity<List<SessionEntry>> getMySessions(@AuthenticationPrincipal UserPrincipal principal) {
+        return ResponseEntity.ok(sessionService.listSessions(principal.getId()));
+    }
+
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<?> revokeSession(@AuthenticationPrincipal UserPrincipal principal,
+                                           @PathVariable String sessionId) {
+        if (!sessionService.revokeSession(principal.getId(), sessionId)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("error", "Session not found: " + sessionId));
+        }
+        return ResponseEntity.ok(Map.of("message", "Session revoked successfully"));
+    }
+}
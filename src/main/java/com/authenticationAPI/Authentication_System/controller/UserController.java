@@ -1,13 +1,16 @@
 package com.authenticationAPI.Authentication_System.controller;
 
 
+import com.authenticationAPI.Authentication_System.dto.UserResponse;
+import com.authenticationAPI.Authentication_System.exceptionHandling.TooManyRequestsException;
 import com.authenticationAPI.Authentication_System.model.User;
 import com.authenticationAPI.Authentication_System.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -23,17 +26,16 @@ public class UserController {
     private final UserService userService;
 
     @GetMapping
-    @PreAuthorize("hasAuthority('READ_USER')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    @Secured("READ_USER")
+    public ResponseEntity<List<UserResponse>> getAllUsers() {
+        return ResponseEntity.ok(userService.getAllUserSummaries());
     }
 
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('READ_USER')")
+    @Secured("READ_USER")
     public ResponseEntity<?> getUserById(@PathVariable UUID id) {
         try {
-            User user = userService.getUserById(id);
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(userService.getUserSummaryById(id));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -41,11 +43,10 @@ public class UserController {
     }
 
     @GetMapping("/username/{username}")
-    @PreAuthorize("hasAuthority('READ_USER')")
+    @Secured("READ_USER")
     public ResponseEntity<?> getUserByUsername(@PathVariable String username) {
         try {
-            User user = userService.getUserByUsername(username);
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(userService.getUserSummaryByUsername(username));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(Map.of("error", e.getMessage()));
@@ -53,77 +54,97 @@ public class UserController {
     }
 
     @PostMapping("/create")
-    @PreAuthorize("hasAuthority('CREATE_USER')")
+    @Secured("CREATE_USER")
     public ResponseEntity<?> createUser(@Valid @RequestBody User user) {
         try {
             User createdUser = userService.createUser(user);
-            return ResponseEntity.status(HttpStatus.CREATED).body(createdUser);
+            return ResponseEntity.status(HttpStatus.CREATED).body(UserResponse.from(createdUser));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PutMapping("/{id}/update")
-    @PreAuthorize("hasAuthority('UPDATE_USER')")
+    @Secured("UPDATE_USER")
     public ResponseEntity<?> updateUser(@PathVariable UUID id, @RequestBody User user) {
         try {
             User updatedUser = userService.updateUser(id, user);
-            return ResponseEntity.ok(updatedUser);
+            return ResponseEntity.ok(UserResponse.from(updatedUser));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
+        } catch (TooManyRequestsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header("Retry-After", String.valueOf(e.getRetryAfterSeconds()))
+                    .body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @DeleteMapping("/{id}/delete")
-    @PreAuthorize("hasAuthority('DELETE_USER')")
+    @Secured("DELETE_USER")
     public ResponseEntity<?> deleteUser(@PathVariable UUID id) {
         try {
             userService.deleteUser(id);
             return ResponseEntity.ok(Map.of("message", "User deleted successfully"));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/{id}/roles/assign")
-    @PreAuthorize("hasAuthority('MANAGE_ROLES')")
+    @Secured("MANAGE_ROLES")
     public ResponseEntity<?> assignRoles(@PathVariable UUID id, @RequestBody Set<String> roleNames) {
         try {
             User user = userService.assignRolesToUser(id, roleNames);
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(UserResponse.from(user));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PostMapping("/{id}/roles/remove")
-    @PreAuthorize("hasAuthority('MANAGE_ROLES')")
+    @Secured("MANAGE_ROLES")
     public ResponseEntity<?> removeRoles(@PathVariable UUID id, @RequestBody Set<String> roleNames) {
         try {
             User user = userService.removeRolesFromUser(id, roleNames);
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(UserResponse.from(user));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PutMapping("/{id}/enable")
-    @PreAuthorize("hasAuthority('UPDATE_USER')")
+    @Secured("UPDATE_USER")
     public ResponseEntity<?> enableUser(@PathVariable UUID id) {
         try {
-            User user = userService.enableUser(id);
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(userService.enableUser(id));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
     @PutMapping("/{id}/disable")
-    @PreAuthorize("hasAuthority('UPDATE_USER')")
+    @Secured("UPDATE_USER")
     public ResponseEntity<?> disableUser(@PathVariable UUID id) {
         try {
-            User user = userService.disableUser(id);
-            return ResponseEntity.ok(user);
+            return ResponseEntity.ok(userService.disableUser(id));
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("error", e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
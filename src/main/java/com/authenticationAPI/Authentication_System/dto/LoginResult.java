@@ -0,0 +1,34 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of the password step: either the tokens, or a challenge token to
+ * exchange at /auth/mfa/verify together with a TOTP code.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginResult {
+
+    private TokenPair tokens;
+
+    private String mfaToken;
+
+    // Challenge token lifetime in seconds
+    private long mfaExpiresIn;
+
+    public static LoginResult complete(TokenPair tokens) {
+        return new LoginResult(tokens, null, 0L);
+    }
+
+    public static LoginResult mfaRequired(String mfaToken, long expiresIn) {
+        return new LoginResult(null, mfaToken, expiresIn);
+    }
+
+    public boolean isMfaRequired() {
+        return mfaToken != null;
+    }
+}
@@ -0,0 +1,19 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry of a bulk permission check: an action on a resource type, e.g.
+ * {@code DISABLE_USER} on {@code user}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionCheck {
+
+    private String action;
+
+    private String resource;
+}
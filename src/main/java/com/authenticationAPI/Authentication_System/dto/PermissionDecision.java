@@ -0,0 +1,20 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PermissionDecision {
+
+    private String action;
+
+    private String resource;
+
+    private boolean allowed;
+
+    // Allowed for some targets only; the final answer comes from the endpoint itself
+    private boolean conditional;
+}
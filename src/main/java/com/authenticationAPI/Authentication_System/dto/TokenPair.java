@@ -0,0 +1,26 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenPair {
+
+    private String accessToken;
+
+    private String refreshToken;
+
+    // Access token lifetime in seconds
+    private long expiresIn;
+
+    // Login came from a device the user has not used recently. Only set for users
+    // without MFA; it is advice to the client, the tokens are already fully valid.
+    private boolean stepUpRequired;
+
+    public TokenPair(String accessToken, String refreshToken, long expiresIn) {
+        this(accessToken, refreshToken, expiresIn, false);
+    }
+}
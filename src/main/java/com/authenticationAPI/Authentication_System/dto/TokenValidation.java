@@ -0,0 +1,26 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenValidation {
+
+    private boolean valid;
+
+    private String message;
+
+    // Remaining lifetime in seconds, only set for valid tokens
+    private long expiresIn;
+
+    public static TokenValidation invalid(String message) {
+        return new TokenValidation(false, message, 0L);
+    }
+
+    public static TokenValidation valid(long expiresIn) {
+        return new TokenValidation(true, "Token is valid", expiresIn);
+    }
+}
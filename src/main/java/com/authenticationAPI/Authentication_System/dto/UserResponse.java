@@ -0,0 +1,55 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.model.User;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Read model returned by the user endpoints. Never carries the password hash
+ * or the permission graph, only role names.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserResponse {
+
+    private UUID id;
+
+    private String username;
+
+    private String email;
+
+    private Boolean enabled;
+
+    private LocalDateTime createdAt;
+
+    private Set<String> roles = new HashSet<>();
+
+    // Used by the JPQL constructor expressions in UserRepository
+    public UserResponse(UUID id, String username, String email, Boolean enabled, LocalDateTime createdAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.enabled = enabled;
+        this.createdAt = createdAt;
+    }
+
+    public static UserResponse from(User user) {
+        return new UserResponse(
+                user.getId(),
+                user.getUsername(),
+                user.getEmail(),
+                user.getEnabled(),
+                user.getCreatedAt(),
+                user.getRoles().stream().map(Role::getName).collect(Collectors.toSet())
+        );
+    }
+}
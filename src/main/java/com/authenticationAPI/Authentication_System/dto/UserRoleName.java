@@ -0,0 +1,10 @@
+package com.authenticationAPI.Authentication_System.dto;
+
+import java.util.UUID;
+
+public interface UserRoleName {
+
+    UUID getUserId();
+
+    String getRoleName();
+}
@@ -0,0 +1,106 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Credential for service-to-service callers, presented as
+ * {@code ak_<prefix>_<secret>}. The prefix is stored as is and looked up by
+ * index; only a keyed hash of the secret is kept. Scopes are permission names
+ * and are the only authorities the key carries.
+ */
+@Entity
+@Table(name = "api_keys",
+        uniqueConstraints = @UniqueConstraint(name = "uk_api_keys_prefix", columnNames = "prefix"),
+        indexes = @Index(name = "idx_api_keys_tenant_created", columnList = "tenant_id, created_at"))
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class ApiKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+
+    // User who created the key; keys go when their owner does
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @Column(nullable = false, length = 16)
+    private String prefix;
+
+    // Hex HMAC-SHA256 of the secret under the server-side pepper
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "secret_hash", nullable = false, length = 64)
+    private String secretHash;
+
+    // Space separated permission names, like an OAuth scope string
+    @Column(nullable = false, length = 1000)
+    private String scopes;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    // Maintained by batched usage flushes, so it lags requests by up to one flush interval
+    @Column(name = "last_used_at")
+    private LocalDateTime lastUsedAt;
+
+    @Column(name = "usage_count", nullable = false)
+    @ColumnDefault("0")
+    private Long usageCount = 0L;
+
+    @JsonIgnore
+    public Set<String> getScopeSet() {
+        return new LinkedHashSet<>(Arrays.asList(scopes.split(" ")));
+    }
+
+    public void setScopeSet(Set<String> scopeSet) {
+        this.scopes = String.join(" ", scopeSet);
+    }
+
+    // Equality by database id, object identity until persisted
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        ApiKey other = (ApiKey) o;
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return id != null ? id.hashCode() : System.identityHashCode(this);
+    }
+}
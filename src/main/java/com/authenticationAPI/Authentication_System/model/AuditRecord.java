@@ -0,0 +1,18 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * One entry of the audit trail. {@code userId} is null when the subject is not
+ * known (for example a failed login), in which case {@code username} is what
+ * the caller claimed to be.
+ */
+public record AuditRecord(Instant timestamp, Type type, boolean success, String tenantId,
+                          UUID userId, String username, String detail) {
+
+    // Stored by ordinal: only append new types
+    public enum Type {
+        LOGIN, LOGOUT, REGISTER, TOKEN_REFRESH, TOKENS_REVOKED, ACCESS, MFA
+    }
+}
@@ -0,0 +1,55 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The devices a user recently logged in from. Only read when the in-memory
+ * copy is missing; the oldest entries beyond {@code auth.device.max-per-user}
+ * are trimmed then.
+ */
+@Document(collection = "known_devices")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class KnownDeviceDocument {
+
+    // User id
+    @Id
+    private String id;
+
+    @Indexed
+    private String tenantId;
+
+    // Keyed by fingerprint so each device is updated on its own, and instances
+    // learning different devices for one user never overwrite each other
+    private Map<String, DeviceEntry> entries = new HashMap<>();
+
+    // Array form written by earlier versions; read, never written
+    private List<DeviceEntry> devices = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class DeviceEntry {
+
+        // Hash of the normalized user agent and the network prefix of the IP
+        private String fingerprint;
+
+        private String userAgent;
+
+        private LocalDateTime firstSeenAt;
+
+        private LocalDateTime lastSeenAt;
+    }
+}
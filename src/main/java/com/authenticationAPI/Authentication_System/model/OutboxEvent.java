@@ -0,0 +1,74 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Security event written in the same transaction as the change it describes
+ * and relayed to the configured sink afterwards. Events are delivered in id
+ * order. Readers page by {@code publishedSeq} instead: ids are taken at insert
+ * time, so a transaction that commits late can leave a lower id behind a
+ * reader's cursor, while sequence numbers are handed out by the relay to
+ * committed rows only.
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_unpublished", columnList = "published_at, id"),
+        @Index(name = "idx_outbox_tenant_aggregate", columnList = "tenant_id, aggregate_id, id"),
+        @Index(name = "idx_outbox_tenant_seq", columnList = "tenant_id, published_seq"),
+        @Index(name = "idx_outbox_tenant_aggregate_seq", columnList = "tenant_id, aggregate_id, published_seq")
+})
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    private String tenantId;
+
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    // "user" or "role"
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    // JSON object
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    // Position in the readable stream, set on first delivery and kept on replay
+    @Column(name = "published_seq", unique = true)
+    private Long publishedSeq;
+
+    public OutboxEvent(String tenantId, String eventType, String aggregateType, String aggregateId, String payload) {
+        this.tenantId = tenantId;
+        this.eventType = eventType;
+        this.aggregateType = aggregateType;
+        this.aggregateId = aggregateId;
+        this.payload = payload;
+    }
+}
@@ -0,0 +1,26 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+@Document(collection = "rate_limits")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateLimitCounterDocument {
+
+    // Limiter key plus window start, e.g. "ip:10.0.0.1:28934011"
+    @Id
+    private String id;
+
+    private Long count;
+
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expireAt;
+}
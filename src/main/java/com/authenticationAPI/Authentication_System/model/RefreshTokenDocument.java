@@ -0,0 +1,51 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@CompoundIndex(name = "tenant_user", def = "{'tenantId': 1, 'userId': 1}")
+@Document(collection = "refresh_tokens")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefreshTokenDocument {
+
+    @Id
+    private String id;
+
+    private String tenantId;
+
+    @Indexed
+    private UUID userId;
+
+    // All refresh tokens rotated from the same login share a family id
+    @Indexed
+    private String familyId;
+
+    // SHA-256 of the opaque refresh token, the raw value is never stored
+    @Indexed(unique = true)
+    private String tokenHash;
+
+    private LocalDateTime issuedAt;
+
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+
+    private Boolean rotated = false;
+
+    private LocalDateTime rotatedAt;
+
+    private Boolean revoked = false;
+
+    private String ipAddress;
+
+    private String userAgent;
+}
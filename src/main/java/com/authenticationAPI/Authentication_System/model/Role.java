@@ -1,16 +1,26 @@
 package com.authenticationAPI.Authentication_System.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
 
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
+import java.util.TreeSet;
 
 @Entity
-@Table(name = "roles")
-@Data
+@Table(name = "roles",
+        uniqueConstraints = @UniqueConstraint(name = "uk_roles_tenant_name", columnNames = {"tenant_id", "name"}))
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
 public class Role {
@@ -19,10 +29,15 @@ public class Role {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String name;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    // Null for global roles shared by every tenant
+    @Column(name = "tenant_id", length = 64)
+    private String tenantId;
+
+    @ToString.Exclude
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "role_permissions",
             joinColumns = @JoinColumn(name = "role_id"),
@@ -30,7 +45,58 @@ public class Role {
     )
     private Set<Permission> permissions = new HashSet<>();
 
+    // Roles this role inherits permissions from
+    @JsonIgnore
+    @ToString.Exclude
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "role_parents",
+            joinColumns = @JoinColumn(name = "role_id"),
+            inverseJoinColumns = @JoinColumn(name = "parent_id")
+    )
+    private Set<Role> parents = new HashSet<>();
+
+    // Own permissions plus everything inherited, kept up to date by
+    // RoleHierarchyService whenever permissions or parents change
+    @JsonIgnore
+    @ToString.Exclude
+    @ManyToMany(fetch = FetchType.LAZY)
+    @JoinTable(
+            name = "role_effective_permissions",
+            joinColumns = @JoinColumn(name = "role_id"),
+            inverseJoinColumns = @JoinColumn(name = "permission_id")
+    )
+    private Set<Permission> effectivePermissions = new HashSet<>();
+
     public Role(String name) {
         this.name = name;
     }
-}
\ No newline at end of file
+
+    @JsonProperty("parents")
+    public Set<String> getParentNames() {
+        Set<String> names = new TreeSet<>();
+        parents.forEach(parent -> names.add(parent.getName()));
+        return names;
+    }
+
+    // Identity is the tenant and name, which are unique together and known
+    // before the insert, so hashing never touches the role graph and a new
+    // role keeps its hash when persisted. Rename a role only where it is not
+    // held in a set, as RoleService.updateRole does.
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        Role other = (Role) o;
+        return Objects.equals(getTenantId(), other.getTenantId()) && Objects.equals(getName(), other.getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(getTenantId(), getName());
+    }
+}
@@ -0,0 +1,27 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Single-row marker holding the version of the reference data written by
+ * DataInitializer. Mapped so ddl-auto=update creates the table as well as V1.
+ */
+@Entity
+@Table(name = "app_seed_version")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeedVersion {
+
+    @Id
+    private Integer id;
+
+    @Column(nullable = false)
+    private Integer version;
+}
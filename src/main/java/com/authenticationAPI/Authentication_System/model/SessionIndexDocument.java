@@ -0,0 +1,57 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One document per user listing their active sessions, so that listing and
+ * capping sessions is a single lookup by id instead of a scan of the tokens
+ * collection. Each entry expires with its refresh token family; the document
+ * itself expires with the last of them.
+ */
+@Document(collection = "session_index")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionIndexDocument {
+
+    // User id
+    @Id
+    private String id;
+
+    @Indexed
+    private String tenantId;
+
+    private List<SessionEntry> sessions = new ArrayList<>();
+
+    @Indexed(expireAfter = "0s")
+    private LocalDateTime expiresAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SessionEntry {
+
+        // Refresh token family id of the session
+        private String sessionId;
+
+        private String device;
+
+        private String ipAddress;
+
+        private LocalDateTime issuedAt;
+
+        private LocalDateTime lastSeenAt;
+
+        // Moved forward on every rotation, like the family's refresh token
+        private LocalDateTime expiresAt;
+    }
+}
@@ -4,11 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+@CompoundIndex(name = "tenant_user", def = "{'tenantId': 1, 'userId': 1}")
 @Document(collection = "tokens")
 @Data
 @NoArgsConstructor
@@ -18,12 +21,22 @@ public class TokenDocument {
     @Id
     private String id;
 
+    private String tenantId;
+
+    @Indexed
     private UUID userId;
 
+    // Refresh token family (login session) this access token was issued for
+    @Indexed
+    private String familyId;
+
+    @Indexed
     private String token;
 
     private LocalDateTime issuedAt;
 
+    // Mongo drops the document once it has expired
+    @Indexed(expireAfter = "0s")
     private LocalDateTime expiresAt;
 
     private Boolean revoked = false;
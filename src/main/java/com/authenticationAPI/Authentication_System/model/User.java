@@ -1,38 +1,63 @@
 package com.authenticationAPI.Authentication_System.model;
 
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 
 @Entity
-@Table(name = "users")
-@Data
+@Table(name = "users",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_users_tenant_username", columnNames = {"tenant_id", "username"}),
+                @UniqueConstraint(name = "uk_users_tenant_email", columnNames = {"tenant_id", "email"})
+        },
+        indexes = @Index(name = "idx_users_tenant_created", columnList = "tenant_id, created_at"))
+@Getter
+@Setter
+@ToString
 @NoArgsConstructor
 @AllArgsConstructor
-public class User {
+public class User implements Persistable<UUID> {
 
+    // Assigned on construction rather than on insert, so equality and hashing
+    // can use it from the start. Clients never choose it.
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private UUID id = UUID.randomUUID();
+
+    // Usernames and emails are unique within a tenant only
+    @Column(name = "tenant_id", nullable = false, length = 64)
+    @ColumnDefault("'default'")
+    private String tenantId = TenantContext.DEFAULT_TENANT;
 
     @NotBlank(message = "Username is required")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
     @NotBlank(message = "Email is required")
     @Email(message = "Email should be valid")
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
+    @ToString.Exclude
     @NotBlank(message = "Password is required")
     @Column(nullable = false)
     private String password;
@@ -40,15 +65,72 @@ public class User {
     @Column(nullable = false)
     private Boolean enabled = true;
 
+    // Bumped whenever the user's role assignment changes, so tokens minted
+    // for an older role set stop being accepted
+    @Column(name = "authorities_version")
+    private Long authoritiesVersion = 0L;
+
+    // Base32 TOTP secret; set on enrollment, used once mfaEnabled is true.
+    // Never bound from request bodies such as registration.
+    @JsonIgnore
+    @ToString.Exclude
+    @Column(name = "mfa_secret", length = 64)
+    private String mfaSecret;
+
+    @JsonIgnore
+    @Column(name = "mfa_enabled", nullable = false)
+    @ColumnDefault("false")
+    private Boolean mfaEnabled = false;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ToString.Exclude
+    @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(
             name = "user_roles",
             joinColumns = @JoinColumn(name = "user_id"),
             inverseJoinColumns = @JoinColumn(name = "role_id")
     )
     private Set<Role> roles = new HashSet<>();
-}
\ No newline at end of file
+
+    // With the id preassigned, Spring Data needs this to persist rather than merge
+    @Transient
+    @JsonIgnore
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean persisted;
+
+    @PostLoad
+    @PostPersist
+    void markPersisted() {
+        persisted = true;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    // Compares ids only, so putting users in sets or logging them never
+    // loads or walks the roles collection
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || Hibernate.getClass(this) != Hibernate.getClass(o)) {
+            return false;
+        }
+        User other = (User) o;
+        return Objects.equals(getId(), other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(getId());
+    }
+}
@@ -0,0 +1,29 @@
+package com.authenticationAPI.Authentication_System.repo;
+
+import com.authenticationAPI.Authentication_System.model.ApiKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface ApiKeyRepository extends JpaRepository<ApiKey, UUID> {
+
+    Optional<ApiKey> findByPrefix(String prefix);
+
+    Optional<ApiKey> findByIdAndTenantId(UUID id, String tenantId);
+
+    List<ApiKey> findByTenantIdOrderByCreatedAtDesc(String tenantId);
+
+    @Query("select k.prefix from ApiKey k where k.ownerId = :ownerId")
+    List<String> findPrefixesByOwnerId(@Param("ownerId") UUID ownerId);
+
+    @Modifying
+    @Query("delete from ApiKey k where k.ownerId = :ownerId")
+    int deleteByOwnerId(@Param("ownerId") UUID ownerId);
+}
@@ -0,0 +1,50 @@
+package com.authenticationAPI.Authentication_System.repo;
+
+import com.authenticationAPI.Authentication_System.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // Locked so that relays on other instances wait instead of delivering
+    // the same batch out of order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from OutboxEvent e where e.publishedAt is null order by e.id")
+    List<OutboxEvent> findUnpublished(Pageable page);
+
+    List<OutboxEvent> findByTenantIdAndPublishedSeqGreaterThanOrderByPublishedSeqAsc(
+            String tenantId, Long afterSeq, Pageable page);
+
+    List<OutboxEvent> findByTenantIdAndAggregateIdAndPublishedSeqGreaterThanOrderByPublishedSeqAsc(
+            String tenantId, String aggregateId, Long afterSeq, Pageable page);
+
+    @Query("select coalesce(max(e.publishedSeq), 0) from OutboxEvent e")
+    long findMaxPublishedSeq();
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedSeq = :seq where e.id = :id and e.publishedSeq is null")
+    int assignPublishedSeq(@Param("id") Long id, @Param("seq") Long seq);
+
+    @Modifying
+    @Query("update OutboxEvent e set e.publishedAt = null where e.tenantId = :tenantId and e.id >= :fromId")
+    int markUnpublishedFrom(@Param("tenantId") String tenantId, @Param("fromId") Long fromId);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
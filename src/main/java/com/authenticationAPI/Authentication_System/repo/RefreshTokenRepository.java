@@ -0,0 +1,16 @@
+package com.authenticationAPI.Authentication_System.repo;
+
+import com.authenticationAPI.Authentication_System.model.RefreshTokenDocument;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RefreshTokenRepository extends MongoRepository<RefreshTokenDocument, String> {
+    Optional<RefreshTokenDocument> findByTokenHash(String tokenHash);
+    List<RefreshTokenDocument> findByFamilyId(String familyId);
+    List<RefreshTokenDocument> findByUserIdAndRevokedFalse(UUID userId);
+}
@@ -1,13 +1,45 @@
 package com.authenticationAPI.Authentication_System.repo;
 
 import com.authenticationAPI.Authentication_System.model.Role;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface RoleRepository extends JpaRepository<Role, Long> {
-    Optional<Role> findByName(String name);
-    Boolean existsByName(String name);
+    @Override
+    @EntityGraph(attributePaths = {"permissions", "parents"})
+    Optional<Role> findById(Long id);
+
+    @Override
+    @EntityGraph(attributePaths = {"permissions", "parents"})
+    List<Role> findAll();
+
+    // Whole role graph for hierarchy maintenance; effective sets stay lazy
+    @EntityGraph(attributePaths = {"permissions", "parents"})
+    @Query("select r from Role r")
+    List<Role> findAllWithHierarchy();
+
+    // Roles a tenant can see: its own plus the global ones (tenant_id is null).
+    // A tenant role shadows a global role of the same name.
+    @EntityGraph(attributePaths = {"permissions", "parents"})
+    @Query("select r from Role r where r.name = :name and (r.tenantId = :tenantId or r.tenantId is null) "
+            + "order by r.tenantId nulls last")
+    List<Role> findVisibleByName(@Param("name") String name, @Param("tenantId") String tenantId);
+
+    @EntityGraph(attributePaths = {"permissions", "parents"})
+    @Query("select r from Role r where r.tenantId = :tenantId or r.tenantId is null")
+    List<Role> findAllVisible(@Param("tenantId") String tenantId);
+
+    // Authority expansion only needs each role's closure
+    @EntityGraph(attributePaths = "effectivePermissions")
+    @Query("select r from Role r where r.id in :ids and (r.tenantId = :tenantId or r.tenantId is null)")
+    List<Role> findVisibleWithEffectivePermissionsByIdIn(@Param("ids") Collection<Long> ids,
+                                                         @Param("tenantId") String tenantId);
 }
@@ -2,8 +2,10 @@ package com.authenticationAPI.Authentication_System.repo;
 
 import com.authenticationAPI.Authentication_System.model.TokenDocument;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,4 +16,8 @@ public interface TokenRepository extends MongoRepository<TokenDocument, String>
     List<TokenDocument> findByUserId(UUID userId);
     void deleteByToken(String token);
     List<TokenDocument> findByUserIdAndRevokedFalse(UUID userId);
+    boolean existsByTokenAndRevokedFalse(String token);
+
+    @Query(value = "{ 'token': { $in: ?0 }, 'revoked': false }", fields = "{ 'token': 1 }")
+    List<TokenDocument> findActiveByTokenIn(Collection<String> tokens);
 }
\ No newline at end of file
@@ -1,16 +1,59 @@
 package com.authenticationAPI.Authentication_System.repo;
 
+import com.authenticationAPI.Authentication_System.dto.UserResponse;
+import com.authenticationAPI.Authentication_System.dto.UserRoleName;
 import com.authenticationAPI.Authentication_System.model.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
-    Optional<User> findByUsername(String username);
-    Optional<User> findByEmail(String email);
-    Boolean existsByUsername(String username);
-    Boolean existsByEmail(String email);
-}
\ No newline at end of file
+
+    // Every lookup below is scoped to one tenant and served by the
+    // (tenant_id, ...) unique indexes
+    Optional<User> findByIdAndTenantId(UUID id, String tenantId);
+    Boolean existsByTenantIdAndUsername(String tenantId, String username);
+    Boolean existsByTenantIdAndEmail(String tenantId, String email);
+
+    // Authentication and endpoints that return the user with its roles:
+    // user, roles and permissions in a single joined select
+    @EntityGraph(attributePaths = {"roles", "roles.effectivePermissions"})
+    Optional<User> findWithAuthoritiesByIdAndTenantId(UUID id, String tenantId);
+
+    @EntityGraph(attributePaths = {"roles", "roles.effectivePermissions"})
+    Optional<User> findWithAuthoritiesByTenantIdAndUsername(String tenantId, String username);
+
+    // Read projections for the user endpoints, including the admin listing:
+    // only the returned columns are selected and no entities are managed
+    @Query("select new com.authenticationAPI.Authentication_System.dto.UserResponse("
+            + "u.id, u.username, u.email, u.enabled, u.createdAt) from User u "
+            + "where u.tenantId = :tenantId order by u.createdAt")
+    List<UserResponse> findAllSummaries(@Param("tenantId") String tenantId);
+
+    @Query("select new com.authenticationAPI.Authentication_System.dto.UserResponse("
+            + "u.id, u.username, u.email, u.enabled, u.createdAt) from User u "
+            + "where u.id = :id and u.tenantId = :tenantId")
+    Optional<UserResponse> findSummaryById(@Param("id") UUID id, @Param("tenantId") String tenantId);
+
+    @Query("select new com.authenticationAPI.Authentication_System.dto.UserResponse("
+            + "u.id, u.username, u.email, u.enabled, u.createdAt) from User u "
+            + "where u.username = :username and u.tenantId = :tenantId")
+    Optional<UserResponse> findSummaryByUsername(@Param("username") String username,
+                                                 @Param("tenantId") String tenantId);
+
+    @Query("select u.id as userId, r.name as roleName from User u join u.roles r where u.id in :ids")
+    List<UserRoleName> findRoleNamesByUserIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(clearAutomatically = true)
+    @Query("update User u set u.enabled = :enabled where u.id = :id and u.tenantId = :tenantId")
+    int updateEnabled(@Param("id") UUID id, @Param("tenantId") String tenantId, @Param("enabled") Boolean enabled);
+}
@@ -0,0 +1,58 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.service.ApiKeyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Authenticates requests carrying an {@code X-API-Key} header. There is no
+ * session or token document: a known key is checked against the in-memory
+ * cache only.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ApiKeyAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-API-Key";
+
+    private final ApiKeyService apiKeyService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String presentedKey = request.getHeader(HEADER);
+        if (StringUtils.hasText(presentedKey)) {
+            try {
+                Optional<ApiKeyPrincipal> principal = apiKeyService.authenticate(presentedKey.strip());
+                if (principal.isPresent()) {
+                    // The key's tenant wins over whatever the request header said
+                    TenantContext.set(principal.get().tenantId());
+
+                    UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
+                            principal.get(), null, principal.get().authorities());
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                } else {
+                    log.debug("Rejected API key from {}", request.getRemoteAddr());
+                }
+            } catch (Exception ex) {
+                log.error("Could not authenticate API key", ex);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,20 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Caller authenticated with an API key. Its authorities are exactly the
+ * key's scopes, never the owner's roles.
+ */
+public record ApiKeyPrincipal(UUID keyId, String tenantId, UUID ownerId, String prefix,
+                              List<GrantedAuthority> authorities) implements Principal {
+
+    @Override
+    public String getName() {
+        return "api-key:" + prefix;
+    }
+}
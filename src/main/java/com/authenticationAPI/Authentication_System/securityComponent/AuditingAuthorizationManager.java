@@ -0,0 +1,100 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import com.authenticationAPI.Authentication_System.service.AuditLog;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Writes every URL authorization decision about an authenticated caller, and
+ * denials of anonymous callers, to the audit log. Anonymous requests to public
+ * endpoints are not decisions about anyone and are skipped. Anonymous denials
+ * are capped per second, since a scanner can send them as fast as it likes;
+ * the next recorded one carries the count of those left out. Records are not
+ * waited for, so the request path never blocks on disk.
+ */
+public class AuditingAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private final AuthorizationManager<RequestAuthorizationContext> delegate;
+    private final AuditLog auditLog;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+    private final int anonymousDenialsPerSecond;
+    private final LongSupplier clock;
+
+    private final AtomicLong anonymousWindow = new AtomicLong();
+    private final AtomicInteger anonymousInWindow = new AtomicInteger();
+    private final AtomicLong anonymousSuppressed = new AtomicLong();
+
+    public AuditingAuthorizationManager(AuthorizationManager<RequestAuthorizationContext> delegate, AuditLog auditLog,
+                                        int anonymousDenialsPerSecond) {
+        this(delegate, auditLog, anonymousDenialsPerSecond, System::currentTimeMillis);
+    }
+
+    AuditingAuthorizationManager(AuthorizationManager<RequestAuthorizationContext> delegate, AuditLog auditLog,
+                                 int anonymousDenialsPerSecond, LongSupplier clock) {
+        this.delegate = delegate;
+        this.auditLog = auditLog;
+        this.anonymousDenialsPerSecond = anonymousDenialsPerSecond;
+        this.clock = clock;
+    }
+
+    @Override
+    public AuthorizationResult authorize(Supplier<? extends Authentication> authentication,
+                                         RequestAuthorizationContext context) {
+        AuthorizationResult decision = delegate.authorize(authentication, context);
+        boolean granted = decision != null && decision.isGranted();
+
+        Authentication current = authentication.get();
+        Object principal = current != null && !trustResolver.isAnonymous(current) ? current.getPrincipal() : null;
+
+        // API key calls are recorded against the key's owner, under the key's name
+        UUID userId;
+        String username;
+        if (principal instanceof UserPrincipal user) {
+            userId = user.getId();
+            username = user.getUsername();
+        } else if (principal instanceof ApiKeyPrincipal apiKey) {
+            userId = apiKey.ownerId();
+            username = apiKey.getName();
+        } else if (granted) {
+            return decision;
+        } else if (!admitAnonymousDenial()) {
+            anonymousSuppressed.incrementAndGet();
+            return decision;
+        } else {
+            userId = null;
+            username = null;
+        }
+
+        String detail = context.getRequest().getMethod() + " " + context.getRequest().getRequestURI();
+        if (principal == null) {
+            long suppressed = anonymousSuppressed.getAndSet(0);
+            if (suppressed > 0) {
+                detail += " suppressed=" + suppressed;
+            }
+        }
+        auditLog.append(new AuditRecord(Instant.now(), AuditRecord.Type.ACCESS, granted, TenantContext.get(),
+                userId, username, detail), false);
+        return decision;
+    }
+
+    private boolean admitAnonymousDenial() {
+        long second = clock.getAsLong() / 1000;
+        long window = anonymousWindow.get();
+        if (second != window && anonymousWindow.compareAndSet(window, second)) {
+            anonymousInWindow.set(0);
+        }
+        return anonymousInWindow.incrementAndGet() <= anonymousDenialsPerSecond;
+    }
+}
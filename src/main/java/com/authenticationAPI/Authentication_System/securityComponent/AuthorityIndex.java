@@ -0,0 +1,45 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interns authority names to small dense ids so authorization checks can be
+ * a bit test instead of a string comparison. Ids are stable for the life of
+ * the process and never reused.
+ */
+public final class AuthorityIndex {
+
+    private static final ConcurrentHashMap<String, Integer> IDS = new ConcurrentHashMap<>();
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    private AuthorityIndex() {
+    }
+
+    public static int idOf(String authority) {
+        return IDS.computeIfAbsent(authority, name -> NEXT_ID.getAndIncrement());
+    }
+
+    /**
+     * Id of an authority that is already known, or -1. Unlike {@link #idOf}
+     * this never grows the index, so it is safe for names taken from requests.
+     */
+    public static int lookup(String authority) {
+        Integer id = IDS.get(authority);
+        return id != null ? id : -1;
+    }
+
+    public static BitSet bitsOf(Collection<? extends GrantedAuthority> authorities) {
+        BitSet bits = new BitSet();
+        for (GrantedAuthority authority : authorities) {
+            if (authority.getAuthority() != null) {
+                bits.set(idOf(authority.getAuthority()));
+            }
+        }
+        return bits;
+    }
+}
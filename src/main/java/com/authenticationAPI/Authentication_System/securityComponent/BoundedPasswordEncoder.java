@@ -0,0 +1,95 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.exceptionHandling.TooManyRequestsException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs password hashing on a small pool of dedicated platform threads. With
+ * virtual threads, BCrypt running on the caller would occupy the carrier
+ * threads that every other request is scheduled on; keeping the pool below
+ * the core count leaves carriers free for the cheap requests during a login
+ * burst. Callers wait on the result, which unmounts a virtual thread.
+ * <p>
+ * The queue is bounded and the wait is timed: during a burst beyond what the
+ * pool can hash, callers get a {@link TooManyRequestsException} instead of
+ * queueing without limit.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, AutoCloseable {
+
+    private static final long RETRY_AFTER_SECONDS = 1;
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor hashers;
+    private final long timeoutMillis;
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, Duration timeout) {
+        this.delegate = delegate;
+        int poolSize = Math.max(threads, 1);
+        this.hashers = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(queueCapacity, 1)),
+                Thread.ofPlatform().name("bcrypt-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.timeoutMillis = timeout.toMillis();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return await(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return await(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    int queued() {
+        return hashers.getQueue().size();
+    }
+
+    @Override
+    public void close() {
+        hashers.shutdown();
+    }
+
+    private <T> T await(Callable<T> hash) {
+        Future<T> result;
+        try {
+            result = hashers.submit(hash);
+        } catch (RejectedExecutionException ex) {
+            throw new TooManyRequestsException("Too many password checks in progress, try again later",
+                    RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            result.cancel(false);
+            throw new TooManyRequestsException("Too many password checks in progress, try again later",
+                    RETRY_AFTER_SECONDS);
+        } catch (InterruptedException ex) {
+            result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash password", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+}
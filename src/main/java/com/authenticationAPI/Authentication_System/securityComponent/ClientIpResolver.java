@@ -0,0 +1,17 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+public final class ClientIpResolver {
+
+    private ClientIpResolver() {
+    }
+
+    public static String resolve(HttpServletRequest request) {
+        String xfHeader = request.getHeader("X-Forwarded-For");
+        if (xfHeader == null) {
+            return request.getRemoteAddr();
+        }
+        return xfHeader.split(",")[0];
+    }
+}
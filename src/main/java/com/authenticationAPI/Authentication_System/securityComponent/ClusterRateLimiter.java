@@ -0,0 +1,146 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Fixed-window limiter whose counts are shared through a {@link RateLimitStore}.
+ * Hits are pre-aggregated locally and pushed to the store once
+ * {@code flushThreshold} hits have accumulated or {@code flushInterval} has
+ * passed, so most requests decide on the last known cluster total plus the
+ * local pending count without a round-trip. In synchronous mode the flush
+ * runs on the calling thread, trading latency for accuracy. At most
+ * {@code maxKeys} keys are counted locally; keys beyond that are counted in
+ * the store directly until the window closes and frees the local slots.
+ */
+@Slf4j
+public class ClusterRateLimiter {
+
+    private final RateLimitStore store;
+    private final long windowMillis;
+    private final int flushThreshold;
+    private final long flushIntervalMillis;
+    private final boolean synchronous;
+    private final int maxKeys;
+    private final LongSupplier clock;
+    private final ExecutorService flusher;
+    private final ConcurrentHashMap<String, WindowCounter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong sweptWindow = new AtomicLong(-1);
+
+    public ClusterRateLimiter(RateLimitStore store, Duration window, int flushThreshold,
+                              Duration flushInterval, boolean synchronous, int maxKeys) {
+        this(store, window, flushThreshold, flushInterval, synchronous, maxKeys, System::currentTimeMillis);
+    }
+
+    ClusterRateLimiter(RateLimitStore store, Duration window, int flushThreshold,
+                       Duration flushInterval, boolean synchronous, int maxKeys, LongSupplier clock) {
+        this.store = store;
+        this.windowMillis = window.toMillis();
+        this.flushThreshold = Math.max(flushThreshold, 1);
+        this.flushIntervalMillis = flushInterval.toMillis();
+        this.synchronous = synchronous;
+        this.maxKeys = maxKeys;
+        this.clock = clock;
+        this.flusher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Records one hit for the key.
+     *
+     * @return 0 when the hit is within the cluster-wide limit, otherwise the
+     * milliseconds until the current window closes
+     */
+    public long tryAcquire(String key, int limit) {
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+
+        WindowCounter cached = counters.get(key);
+        if (cached == null || cached.window != window) {
+            // Counters only go stale when a window closes, so one sweep per window is enough
+            long swept = sweptWindow.get();
+            if (counters.size() >= maxKeys && swept != window && sweptWindow.compareAndSet(swept, window)) {
+                counters.values().removeIf(stale -> stale.window < window);
+            }
+            if (cached == null && counters.size() >= maxKeys) {
+                return untracked(key, limit, window, now);
+            }
+        }
+
+        WindowCounter counter = cached != null && cached.window == window ? cached : counters.compute(key,
+                (k, current) -> current == null || current.window != window ? new WindowCounter(window, now) : current);
+
+        long pending = counter.pending.incrementAndGet();
+        boolean flushDue = pending >= flushThreshold || now - counter.lastFlush >= flushIntervalMillis;
+
+        if (flushDue && counter.flushing.compareAndSet(false, true)) {
+            if (synchronous) {
+                flush(key, counter);
+            } else {
+                flusher.execute(() -> flush(key, counter));
+            }
+        }
+
+        long estimate = counter.global + counter.pending.get();
+        return estimate > limit ? (window + 1) * windowMillis - now : 0L;
+    }
+
+    public void shutdown() {
+        flusher.shutdown();
+    }
+
+    int size() {
+        return counters.size();
+    }
+
+    private long untracked(String key, int limit, long window, long now) {
+        try {
+            long total = store.addAndGet(key, window, 1, Duration.ofMillis(windowMillis * 2));
+            return total > limit ? (window + 1) * windowMillis - now : 0L;
+        } catch (RuntimeException ex) {
+            log.warn("Could not count rate limit hit for {}: {}", key, ex.getMessage());
+            return 0L;
+        }
+    }
+
+    private void flush(String key, WindowCounter counter) {
+        try {
+            long delta = counter.pending.get();
+            if (delta > 0) {
+                counter.global = store.addAndGet(key, counter.window, delta, Duration.ofMillis(windowMillis * 2));
+                // Subtract only after the total is known, so the estimate can
+                // briefly overcount but never undercount
+                counter.pending.addAndGet(-delta);
+            }
+            counter.lastFlush = clock.getAsLong();
+        } catch (RuntimeException ex) {
+            // Keep the hits pending and fall back to the local estimate
+            log.warn("Could not flush rate limit counter {}: {}", key, ex.getMessage());
+        } finally {
+            counter.flushing.set(false);
+        }
+    }
+
+    private static final class WindowCounter {
+        private final long window;
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicBoolean flushing = new AtomicBoolean();
+        private volatile long global;
+        private volatile long lastFlush;
+
+        private WindowCounter(long window, long now) {
+            this.window = window;
+            this.lastFlush = now;
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.authentication.AuthenticationTrustResolver;
+import org.springframework.security.authentication.AuthenticationTrustResolverImpl;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * URL authorization rules compiled into a path-segment trie. A lookup walks the
+ * request path once and yields the rule for the request method, instead of
+ * testing each pattern in declaration order.
+ * <p>
+ * Patterns are literal segments, {@code *} (one segment) and a trailing
+ * {@code **} (any remaining segments, including none). When several patterns
+ * match, the most specific wins: literal over {@code *} over {@code **}, and a
+ * method-specific rule over one for any method. Requests matching no rule
+ * need an authenticated caller.
+ * <p>
+ * These are the coarse rules only; controllers keep their method security
+ * checks as a second layer.
+ */
+public class CompiledAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    static final int PERMIT_ALL = -2;
+    static final int AUTHENTICATED = -1;
+    static final int NO_RULE = Integer.MIN_VALUE;
+
+    private static final String[] METHODS = {"GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS", "TRACE"};
+    private static final int ANY_METHOD = METHODS.length;
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final Node root;
+    private final Map<Integer, String> authorityNames;
+    private final AuthenticationTrustResolver trustResolver = new AuthenticationTrustResolverImpl();
+
+    private CompiledAuthorizationManager(Node root, Map<Integer, String> authorityNames) {
+        this.root = root;
+        this.authorityNames = Map.copyOf(authorityNames);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public AuthorizationDecision authorize(Supplier<? extends Authentication> authentication,
+                                           RequestAuthorizationContext context) {
+        HttpServletRequest request = context.getRequest();
+        int rule = requiredAuthority(request.getMethod(), pathWithinApplication(request));
+        if (rule == PERMIT_ALL) {
+            return GRANTED;
+        }
+
+        Authentication current = authentication.get();
+        if (current == null || !current.isAuthenticated() || trustResolver.isAnonymous(current)) {
+            return DENIED;
+        }
+        if (rule == AUTHENTICATED) {
+            return GRANTED;
+        }
+        return hasAuthority(current, rule) ? GRANTED : DENIED;
+    }
+
+    /**
+     * The rule for a request: {@link #PERMIT_ALL}, {@link #AUTHENTICATED} or
+     * the {@link AuthorityIndex} id of the authority the caller must hold.
+     */
+    int requiredAuthority(String method, String path) {
+        int methodIndex = methodIndex(method);
+        int rule = match(root, path, 0, methodIndex);
+        return rule == NO_RULE ? AUTHENTICATED : rule;
+    }
+
+    String authorityName(int authorityId) {
+        return authorityNames.get(authorityId);
+    }
+
+    private boolean hasAuthority(Authentication authentication, int authorityId) {
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.hasAuthorityId(authorityId);
+        }
+        String required = authorityNames.get(authorityId);
+        for (GrantedAuthority granted : authentication.getAuthorities()) {
+            if (required.equals(granted.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Tries the literal child, then *, then **, so the first hit is the most specific
+    private static int match(Node node, String path, int from, int methodIndex) {
+        int start = skipSlashes(path, from);
+        if (start == path.length()) {
+            int rule = node.ruleFor(methodIndex);
+            if (rule == NO_RULE && node.rest != null) {
+                rule = node.rest.ruleFor(methodIndex);
+            }
+            return rule;
+        }
+
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+
+        if (node.literals != null) {
+            Node literal = node.literals.get(path.substring(start, end));
+            if (literal != null) {
+                int rule = match(literal, path, end, methodIndex);
+                if (rule != NO_RULE) {
+                    return rule;
+                }
+            }
+        }
+        if (node.single != null) {
+            int rule = match(node.single, path, end, methodIndex);
+            if (rule != NO_RULE) {
+                return rule;
+            }
+        }
+        return node.rest != null ? node.rest.ruleFor(methodIndex) : NO_RULE;
+    }
+
+    private static int skipSlashes(String path, int from) {
+        int i = from;
+        while (i < path.length() && path.charAt(i) == '/') {
+            i++;
+        }
+        return i;
+    }
+
+    // Decoded like the path Spring MVC dispatches on, so /user%73 is matched as /users
+    private static String pathWithinApplication(HttpServletRequest request) {
+        return UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+    }
+
+    private static int methodIndex(String method) {
+        for (int i = 0; i < METHODS.length; i++) {
+            if (METHODS[i].equals(method)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Node {
+        private Map<String, Node> literals;
+        private Node single;
+        private Node rest;
+        private final int[] rules = newRules();
+
+        private static int[] newRules() {
+            int[] rules = new int[ANY_METHOD + 1];
+            Arrays.fill(rules, NO_RULE);
+            return rules;
+        }
+
+        int ruleFor(int methodIndex) {
+            if (methodIndex >= 0 && rules[methodIndex] != NO_RULE) {
+                return rules[methodIndex];
+            }
+            return rules[ANY_METHOD];
+        }
+    }
+
+    public static final class Builder {
+
+        private final Node root = new Node();
+        private final Map<Integer, String> authorityNames = new HashMap<>();
+
+        private Builder() {
+        }
+
+        public Builder permitAll(String pattern, String... methods) {
+            return add(pattern, PERMIT_ALL, methods);
+        }
+
+        public Builder authenticated(String pattern, String... methods) {
+            return add(pattern, AUTHENTICATED, methods);
+        }
+
+        public Builder hasAuthority(String authority, String pattern, String... methods) {
+            int id = AuthorityIndex.idOf(authority);
+            authorityNames.put(id, authority);
+            return add(pattern, id, methods);
+        }
+
+        public Builder hasRole(String role, String pattern, String... methods) {
+            return hasAuthority("ROLE_" + role, pattern, methods);
+        }
+
+        public CompiledAuthorizationManager build() {
+            return new CompiledAuthorizationManager(root, authorityNames);
+        }
+
+        private Builder add(String pattern, int rule, String... methods) {
+            Node node = root;
+            List<String> segments = segments(pattern);
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (segment.equals("**")) {
+                    if (i != segments.size() - 1) {
+                        throw new IllegalArgumentException("'**' is only allowed at the end of a pattern: " + pattern);
+                    }
+                    if (node.rest == null) {
+                        node.rest = new Node();
+                    }
+                    node = node.rest;
+                } else if (segment.equals("*")) {
+                    if (node.single == null) {
+                        node.single = new Node();
+                    }
+                    node = node.single;
+                } else {
+                    if (segment.contains("*") || segment.contains("{")) {
+                        throw new IllegalArgumentException("Unsupported pattern segment '" + segment + "' in " + pattern);
+                    }
+                    if (node.literals == null) {
+                        node.literals = new HashMap<>();
+                    }
+                    node = node.literals.computeIfAbsent(segment, s -> new Node());
+                }
+            }
+
+            if (methods.length == 0) {
+                setRule(node, ANY_METHOD, rule, pattern);
+            }
+            for (String method : methods) {
+                int index = methodIndex(method);
+                if (index < 0) {
+                    throw new IllegalArgumentException("Unknown HTTP method " + method);
+                }
+                setRule(node, index, rule, pattern);
+            }
+            return this;
+        }
+
+        private static void setRule(Node node, int index, int rule, String pattern) {
+            if (node.rules[index] != NO_RULE && node.rules[index] != rule) {
+                throw new IllegalArgumentException("Conflicting rules for " + pattern);
+            }
+            node.rules[index] = rule;
+        }
+
+        private static List<String> segments(String pattern) {
+            List<String> segments = new ArrayList<>();
+            for (String segment : pattern.split("/")) {
+                if (!segment.isEmpty()) {
+                    segments.add(segment);
+                }
+            }
+            return segments;
+        }
+    }
+}
@@ -2,12 +2,15 @@ package com.authenticationAPI.Authentication_System.securityComponent;
 
 import com.authenticationAPI.Authentication_System.model.User;
 import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.service.LoginAttemptService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.UUID;
 
@@ -16,23 +19,62 @@ import java.util.UUID;
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    private final LoginAttemptService loginAttemptService;
+    private final TenantPartitionedCache<UUID, UserPrincipal> principalCache;
 
+    // Login: resolved within the tenant of the request
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        String tenant = TenantContext.get();
+        User user = userRepository.findWithAuthoritiesByTenantIdAndUsername(tenant, username)
                 .orElseThrow(() ->
                         new UsernameNotFoundException("User not found with username: " + username));
 
-        return UserPrincipal.create(user);
+        UserPrincipal principal = UserPrincipal.create(user);
+        principal.setAccountNonLocked(!loginAttemptService.isLocked(lockoutKey(tenant, username)));
+        return principal;
     }
 
-    @Transactional
-    public UserDetails loadUserById(UUID id) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() ->
-                        new UsernameNotFoundException("User not found with id: " + id));
+    /**
+     * Principal for an authenticated request. Served from the tenant's cache
+     * partition; a user id from another tenant is never found.
+     */
+    @Transactional(readOnly = true)
+    public UserDetails loadUserById(UUID id, String tenant) {
+        UserPrincipal principal = principalCache.get(tenant, id, userId ->
+                userRepository.findWithAuthoritiesByIdAndTenantId(userId, tenant)
+                        .map(UserPrincipal::create)
+                        .orElse(null));
+        if (principal == null) {
+            throw new UsernameNotFoundException("User not found with id: " + id);
+        }
+        return principal;
+    }
+
+    public void evictPrincipal(String tenant, UUID id) {
+        principalCache.invalidate(tenant, id);
+        afterCommit(() -> principalCache.invalidate(tenant, id));
+    }
+
+    public void evictAllPrincipals() {
+        principalCache.invalidateAll();
+        afterCommit(principalCache::invalidateAll);
+    }
+
+    public static String lockoutKey(String tenant, String username) {
+        return tenant + ":" + username;
+    }
 
-        return UserPrincipal.create(user);
+    // Evict again once the change is visible, in case a reader cached the old row in between
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
     }
-}
\ No newline at end of file
+}
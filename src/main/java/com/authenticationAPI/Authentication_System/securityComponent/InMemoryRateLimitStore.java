@@ -0,0 +1,26 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-node store, useful for tests and for running the cluster limiter
+ * without a shared backend.
+ */
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private volatile long currentWindow = Long.MIN_VALUE;
+
+    @Override
+    public long addAndGet(String key, long window, long delta, Duration ttl) {
+        if (window > currentWindow) {
+            currentWindow = window;
+            String suffix = ":" + window;
+            counters.keySet().removeIf(counterKey -> !counterKey.endsWith(suffix));
+        }
+        return counters.computeIfAbsent(key + ":" + window, k -> new AtomicLong()).addAndGet(delta);
+    }
+}
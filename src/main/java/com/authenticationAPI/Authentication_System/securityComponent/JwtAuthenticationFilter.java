@@ -1,5 +1,6 @@
 package com.authenticationAPI.Authentication_System.securityComponent;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,13 +9,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 import java.util.UUID;
 
 @Slf4j
@@ -24,6 +25,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
     private final CustomUserDetailsService customUserDetailsService;
+    private final RoleAuthorityResolver roleAuthorityResolver;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -32,17 +34,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String userId = tokenProvider.getUserIdFromToken(jwt);
+            Claims claims = tokenProvider.isWellFormed(jwt)
+                    ? tokenProvider.verifyToken(jwt).orElse(null)
+                    : null;
 
-                UserDetails userDetails = customUserDetailsService.loadUserById(UUID.fromString(userId));
+            if (claims != null && tokenProvider.isMfaChallenge(claims)) {
+                log.debug("Ignoring MFA challenge token presented as a bearer token");
+            } else if (claims != null) {
+                // The token's tenant wins over whatever the request header said
+                String tenant = tokenProvider.getTenantFromClaims(claims);
+                TenantContext.set(tenant);
 
-                UsernamePasswordAuthenticationToken authentication =
-                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                UserPrincipal userDetails = (UserPrincipal) customUserDetailsService
+                        .loadUserById(UUID.fromString(claims.getSubject()), tenant);
 
-                authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Tokens minted before the user's roles changed must be refreshed
+                if (tokenProvider.getAuthoritiesVersionFromClaims(claims) != userDetails.getAuthoritiesVersion()) {
+                    log.debug("Rejecting stale token for user: {}", userDetails.getUsername());
+                } else if (!userDetails.isEnabled()) {
+                    log.debug("Rejecting token of disabled user: {}", userDetails.getUsername());
+                } else {
+                    // The cached principal only vouches for enabled and av; authorities
+                    // come from the token's role set, expanded once per distinct set
+                    Set<Long> roleIds = tokenProvider.getRoleIdsFromClaims(claims);
+                    UserPrincipal principal = roleIds != null
+                            ? userDetails.withAuthorities(roleAuthorityResolver.resolve(tenant, roleIds))
+                            : userDetails;
 
-                SecurityContextHolder.getContext().setAuthentication(authentication);
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                }
             }
         } catch (Exception ex) {
             log.error("Could not set user authentication in security context", ex);
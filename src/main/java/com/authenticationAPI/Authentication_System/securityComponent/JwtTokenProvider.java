@@ -2,29 +2,71 @@ package com.authenticationAPI.Authentication_System.securityComponent;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SecurityException;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Date;
-import java.util.stream.Collectors;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Component
 public class JwtTokenProvider {
 
+    public static final String ROLE_SET_CLAIM = "rs";
+    public static final String AUTHORITIES_VERSION_CLAIM = "av";
+    public static final String TENANT_CLAIM = "tid";
+    public static final String TOKEN_TYPE_CLAIM = "typ";
+    public static final String MFA_TOKEN_TYPE = "mfa";
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration}")
     private long jwtExpiration;
 
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    @Value("${auth.mfa.challenge-ttl-seconds:300}")
+    private long mfaChallengeTtlSeconds;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    // Maximum accepted compact token length; anything longer is rejected
+    // before it reaches the parser
+    private static final int MAX_TOKEN_LENGTH = 4096;
+
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+    }
+
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        return signingKey;
     }
 
     public String generateToken(Authentication authentication) {
@@ -33,22 +75,124 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
 
-        return Jwts.builder()
+        String token = Jwts.builder()
+                .id(generateTokenId())
                 .subject(userPrincipal.getId().toString())
-                .claim("username", userPrincipal.getUsername())
-                .claim("email", userPrincipal.getEmail())
-                .claim("roles", userPrincipal.getRoles())
-                .claim("permissions", userPrincipal.getPermissions())
+                .claim(TENANT_CLAIM, userPrincipal.getTenantId())
+                .claim(ROLE_SET_CLAIM, encodeRoleSet(userPrincipal.getRoleIds()))
+                .claim(AUTHORITIES_VERSION_CLAIM, userPrincipal.getAuthoritiesVersion())
                 .issuedAt(now)
                 .expiration(expiryDate)
                 .signWith(getSigningKey())
                 .compact();
+
+        if (log.isDebugEnabled()) {
+            log.debug("Issued token for {} with sizes {}", userPrincipal.getUsername(), getClaimSizeReport(token));
+        }
+
+        return token;
+    }
+
+    /**
+     * Short-lived proof that the password step of a login succeeded. It names
+     * the user but grants nothing: the authentication filter ignores it, and
+     * only the MFA verification endpoint accepts it.
+     */
+    public String generateMfaChallengeToken(UserPrincipal userPrincipal) {
+        Date now = new Date();
+        return Jwts.builder()
+                .id(generateTokenId())
+                .subject(userPrincipal.getId().toString())
+                .claim(TENANT_CLAIM, userPrincipal.getTenantId())
+                .claim(TOKEN_TYPE_CLAIM, MFA_TOKEN_TYPE)
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + mfaChallengeTtlSeconds * 1000))
+                .signWith(getSigningKey())
+                .compact();
+    }
+
+    public boolean isMfaChallenge(Claims claims) {
+        return MFA_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class));
+    }
+
+    public long getMfaChallengeTtlSeconds() {
+        return mfaChallengeTtlSeconds;
+    }
+
+    public Claims getClaimsFromToken(String token) {
+        return jwtParser
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    // Null for tokens issued before the role set claim existed
+    public Set<Long> getRoleIdsFromClaims(Claims claims) {
+        String encoded = claims.get(ROLE_SET_CLAIM, String.class);
+        return encoded != null ? decodeRoleSet(encoded) : null;
+    }
+
+    // Tokens issued before tenants existed belong to the default tenant
+    public String getTenantFromClaims(Claims claims) {
+        String tenant = claims.get(TENANT_CLAIM, String.class);
+        return tenant != null ? tenant : TenantContext.DEFAULT_TENANT;
+    }
+
+    public long getAuthoritiesVersionFromClaims(Claims claims) {
+        Number version = claims.get(AUTHORITIES_VERSION_CLAIM, Number.class);
+        return version != null ? version.longValue() : 0L;
+    }
+
+    // Byte size of each compact JWT section, to keep an eye on header bloat
+    public Map<String, Integer> getClaimSizeReport(String token) {
+        String[] parts = token.split("\\.");
+        Map<String, Integer> report = new LinkedHashMap<>();
+        report.put("header", parts.length > 0 ? parts[0].length() : 0);
+        report.put("payload", parts.length > 1 ? parts[1].length() : 0);
+        report.put("signature", parts.length > 2 ? parts[2].length() : 0);
+        report.put("total", token.length());
+        return report;
+    }
+
+    // Upper bound on role ids in one token, so a forged claim cannot make decoding allocate much
+    private static final int MAX_ROLE_SET_SIZE = 256;
+
+    // Role ids are sorted, delta encoded as varints and base64url encoded, so
+    // the claim grows with the number of roles held rather than the largest id
+    static String encodeRoleSet(Set<Long> roleIds) {
+        long[] sorted = roleIds.stream().mapToLong(Long::longValue).sorted().toArray();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(sorted.length * 2);
+        long previous = 0;
+        for (long roleId : sorted) {
+            PrincipalCodec.writeVarLong(out, roleId - previous);
+            previous = roleId;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(out.toByteArray());
+    }
+
+    static Set<Long> decodeRoleSet(String encoded) {
+        Set<Long> roleIds = new HashSet<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return roleIds;
+        }
+
+        try {
+            ByteBuffer in = ByteBuffer.wrap(Base64.getUrlDecoder().decode(encoded));
+            long previous = 0;
+            while (in.hasRemaining()) {
+                previous = Math.addExact(previous, PrincipalCodec.readVarLong(in));
+                roleIds.add(previous);
+                if (roleIds.size() > MAX_ROLE_SET_SIZE) {
+                    throw new IllegalArgumentException("Too many roles in role set");
+                }
+            }
+        } catch (BufferUnderflowException | ArithmeticException ex) {
+            throw new IllegalArgumentException("Malformed role set", ex);
+        }
+        return roleIds;
     }
 
     public String getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        Claims claims = jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
 
@@ -56,31 +200,94 @@ public class JwtTokenProvider {
     }
 
     public boolean validateToken(String authToken) {
+        return verifyToken(authToken).isPresent();
+    }
+
+    /**
+     * Cheap structural check: three non-empty base64url segments and a sane
+     * length. Lets garbage input be rejected without any crypto work.
+     */
+    public boolean isWellFormed(String token) {
+        if (token == null || token.isEmpty() || token.length() > MAX_TOKEN_LENGTH) {
+            return false;
+        }
+
+        int dots = 0;
+        int segmentLength = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (c == '.') {
+                if (segmentLength == 0) {
+                    return false;
+                }
+                dots++;
+                segmentLength = 0;
+            } else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || c == '-' || c == '_') {
+                segmentLength++;
+            } else {
+                return false;
+            }
+        }
+        return dots == 2 && segmentLength > 0;
+    }
+
+    public Optional<Claims> verifyToken(String authToken) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(authToken);
-            return true;
+            return Optional.of(jwtParser
+                    .parseSignedClaims(authToken)
+                    .getPayload());
         } catch (MalformedJwtException ex) {
             log.error("Invalid JWT token");
         } catch (ExpiredJwtException ex) {
             log.error("Expired JWT token");
         } catch (UnsupportedJwtException ex) {
             log.error("Unsupported JWT token");
+        } catch (SecurityException ex) {
+            log.error("Invalid JWT signature");
         } catch (IllegalArgumentException ex) {
             log.error("JWT claims string is empty");
         }
-        return false;
+        return Optional.empty();
     }
 
     public Date getExpirationDateFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
+        Claims claims = jwtParser
                 .parseSignedClaims(token)
                 .getPayload();
 
         return claims.getExpiration();
     }
-}
\ No newline at end of file
+
+    public long getAccessExpiration() {
+        return jwtExpiration;
+    }
+
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    // Refresh tokens are opaque random values, so renewing a session needs
+    // neither a signature check nor a password hash.
+    public String generateRefreshToken() {
+        byte[] bytes = new byte[32];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Short random jti so two tokens minted in the same second never collide
+    private String generateTokenId() {
+        byte[] bytes = new byte[8];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    public String hashRefreshToken(String refreshToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(refreshToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login throttling by client IP and by username. Both checks run before the
+ * AuthenticationManager, so rejected attempts never cost a user lookup or a
+ * BCrypt verification.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final RateLimiter ipLimiter;
+    private final RateLimiter usernameLimiter;
+
+    // Only present when a cluster backend is configured
+    private final ClusterRateLimiter clusterLimiter;
+    private final int clusterIpPerMinute;
+    private final int clusterUsernamePerMinute;
+
+    public LoginRateLimiter(@Value("${auth.rate-limit.ip.per-minute:30}") int ipPerMinute,
+                            @Value("${auth.rate-limit.ip.burst:10}") int ipBurst,
+                            @Value("${auth.rate-limit.username.per-minute:10}") int usernamePerMinute,
+                            @Value("${auth.rate-limit.username.burst:5}") int usernameBurst,
+                            @Value("${auth.rate-limit.max-keys:100000}") int maxKeys,
+                            @Value("${auth.rate-limit.cluster.ip.per-minute:120}") int clusterIpPerMinute,
+                            @Value("${auth.rate-limit.cluster.username.per-minute:20}") int clusterUsernamePerMinute,
+                            ObjectProvider<ClusterRateLimiter> clusterLimiter) {
+        this.ipLimiter = new RateLimiter(ipPerMinute, ipBurst, maxKeys);
+        this.usernameLimiter = new RateLimiter(usernamePerMinute, usernameBurst, maxKeys);
+        this.clusterLimiter = clusterLimiter.getIfAvailable();
+        this.clusterIpPerMinute = clusterIpPerMinute;
+        this.clusterUsernamePerMinute = clusterUsernamePerMinute;
+    }
+
+    /**
+     * @return 0 if the attempt may proceed, otherwise the seconds to wait
+     */
+    public long checkIp(String ip) {
+        long retryAfter = toRetryAfterSeconds(ipLimiter.tryAcquire(ip));
+        if (retryAfter > 0 || clusterLimiter == null) {
+            return retryAfter;
+        }
+        return toRetryAfterSeconds(clusterLimiter.tryAcquire("ip:" + ip, clusterIpPerMinute), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @return 0 if the attempt may proceed, otherwise the seconds to wait
+     */
+    public long checkUsername(String username) {
+        long retryAfter = toRetryAfterSeconds(usernameLimiter.tryAcquire(username));
+        if (retryAfter > 0 || clusterLimiter == null) {
+            return retryAfter;
+        }
+        return toRetryAfterSeconds(clusterLimiter.tryAcquire("user:" + username, clusterUsernamePerMinute),
+                TimeUnit.MILLISECONDS);
+    }
+
+    private long toRetryAfterSeconds(long waitNanos) {
+        return toRetryAfterSeconds(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private long toRetryAfterSeconds(long wait, TimeUnit unit) {
+        return wait > 0 ? unit.toSeconds(wait) + 1 : 0L;
+    }
+}
@@ -0,0 +1,35 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.model.RateLimitCounterDocument;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Shared counters in the rate_limits collection: one document per key and
+ * window, bumped with an atomic $inc upsert and purged by a TTL index.
+ */
+@RequiredArgsConstructor
+public class MongoRateLimitStore implements RateLimitStore {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public long addAndGet(String key, long window, long delta, Duration ttl) {
+        RateLimitCounterDocument counter = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(key + ":" + window)),
+                new Update()
+                        .inc("count", delta)
+                        .setOnInsert("expireAt", LocalDateTime.now().plus(ttl)),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                RateLimitCounterDocument.class
+        );
+        return counter != null && counter.getCount() != null ? counter.getCount() : delta;
+    }
+}
@@ -0,0 +1,98 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.dto.PermissionCheck;
+import com.authenticationAPI.Authentication_System.dto.PermissionDecision;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Answers many (action, resource) questions for one caller, for clients that
+ * decide which actions to offer. Actions with policy rules are answered by
+ * {@link PolicyEngine} without a target; anything else is read as an
+ * authority name and tested against the caller's authority bits.
+ */
+@Component
+@RequiredArgsConstructor
+public class PermissionChecker {
+
+    private final PolicyEngine policyEngine;
+
+    @Value("${auth.permissions.check.max-batch:100}")
+    private int maxBatch;
+
+    public List<PermissionDecision> check(UserPrincipal principal, List<PermissionCheck> checks) {
+        validate(checks);
+
+        List<PermissionDecision> decisions = new ArrayList<>(checks.size());
+        for (PermissionCheck check : checks) {
+            PolicyEngine.Decision decision = policyEngine.decide(principal, check.getAction(), check.getResource());
+            if (decision == null) {
+                int authorityId = AuthorityIndex.lookup(check.getAction());
+                decision = authorityId >= 0 && principal.hasAuthorityId(authorityId)
+                        ? PolicyEngine.Decision.ALLOW
+                        : PolicyEngine.Decision.DENY;
+            }
+            decisions.add(new PermissionDecision(check.getAction(), check.getResource(),
+                    decision != PolicyEngine.Decision.DENY, decision == PolicyEngine.Decision.CONDITIONAL));
+        }
+        return decisions;
+    }
+
+    /**
+     * Answers depend only on the caller's authorities, the policy rules and
+     * the question list, so the tag is derived from those and can be compared
+     * before anything is evaluated. Only names and content hashes go in, never
+     * process-local ids, so every instance computes the same tag.
+     */
+    public String etag(UserPrincipal principal, List<PermissionCheck> checks) {
+        validate(checks);
+
+        MessageDigest digest = sha256();
+        digest.update(policyEngine.getFingerprint().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .distinct()
+                .sorted()
+                .forEach(authority -> digest.update((authority + '\u0000').getBytes(StandardCharsets.UTF_8)));
+        digest.update((byte) 0);
+        for (PermissionCheck check : checks) {
+            digest.update((check.getAction() + '\u0000' + check.getResource() + '\u0000')
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        byte[] hash = digest.digest();
+        return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22) + '"';
+    }
+
+    private void validate(List<PermissionCheck> checks) {
+        if (checks == null || checks.isEmpty()) {
+            throw new RuntimeException("At least one check is required");
+        }
+        if (checks.size() > maxBatch) {
+            throw new RuntimeException("Too many checks, at most " + maxBatch + " per request");
+        }
+        for (PermissionCheck check : checks) {
+            if (check == null || check.getAction() == null || check.getResource() == null) {
+                throw new RuntimeException("Each check needs an action and a resource");
+            }
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * Attribute-based authorization on top of the URL rules.
+ * <p>
+ * Policies are lines of {@code effect action resourceType condition...}, for example
+ * {@code allow DISABLE_USER user role:MODERATOR target-not-role:ADMIN}. All conditions
+ * of a rule must hold; any matching deny wins, and without a matching allow the
+ * action is denied.
+ * <p>
+ * Rules are compiled into a table per (action, resourceType). Conditions on the
+ * caller alone ({@code authority:}, {@code role:}) are resolved once per distinct
+ * authority set and the result is memoized, leaving at most a small predicate over
+ * the target to run per call. The file is re-read when its modification time changes.
+ */
+@Slf4j
+@Component
+public class PolicyEngine {
+
+    private final ResourceLoader resourceLoader;
+    private final String location;
+    private final long reloadIntervalMillis;
+    private final int maxMemoEntries;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile CompiledPolicy policy;
+    private volatile long lastModified;
+    private volatile long nextReloadCheck;
+
+    @Autowired
+    public PolicyEngine(ResourceLoader resourceLoader,
+                        @Value("${auth.policy.location:classpath:policies/user.policy}") String location,
+                        @Value("${auth.policy.reload-interval-ms:5000}") long reloadIntervalMillis,
+                        @Value("${auth.policy.memo-max-entries:10000}") int maxMemoEntries) {
+        this.resourceLoader = resourceLoader;
+        this.location = location;
+        this.reloadIntervalMillis = reloadIntervalMillis;
+        this.maxMemoEntries = maxMemoEntries;
+    }
+
+    @PostConstruct
+    public void init() {
+        Resource resource = resourceLoader.getResource(location);
+        lastModified = lastModified(resource);
+        policy = load(resource);
+        nextReloadCheck = System.currentTimeMillis() + reloadIntervalMillis;
+    }
+
+    /**
+     * Throws {@link AccessDeniedException} unless the current caller may perform
+     * {@code action}. Calls made outside a request (no authentication) are trusted.
+     */
+    public void check(String action, String resourceType, Supplier<PolicyResource> resource) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null) {
+            return;
+        }
+        if (!(authentication.getPrincipal() instanceof UserPrincipal principal)
+                || !isAllowed(principal, action, resourceType, resource)) {
+            throw new AccessDeniedException("Not allowed to " + action + " on this " + resourceType);
+        }
+    }
+
+    /**
+     * The resource supplier is only called when a rule needs target attributes.
+     */
+    public boolean isAllowed(UserPrincipal subject, String action, String resourceType,
+                             Supplier<PolicyResource> resource) {
+        return current().residualFor(subject, action, resourceType).test(subject, resource);
+    }
+
+    /**
+     * Decision for a caller without looking at any target: {@code CONDITIONAL}
+     * when the outcome depends on the target's attributes, and null when the
+     * policy has no rules for the action at all.
+     */
+    public Decision decide(UserPrincipal subject, String action, String resourceType) {
+        CompiledPolicy compiled = current();
+        if (!compiled.hasRules(action, resourceType)) {
+            return null;
+        }
+        Residual residual = compiled.residualFor(subject, action, resourceType);
+        if (residual == Residual.ALLOW) {
+            return Decision.ALLOW;
+        }
+        return residual == Residual.DENY ? Decision.DENY : Decision.CONDITIONAL;
+    }
+
+    /**
+     * Increases every time a changed policy file is loaded.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * SHA-256 over the normalized rules, ignoring comments and whitespace. Equal
+     * on every instance serving the same rules, unlike {@link #getVersion()}.
+     */
+    public String getFingerprint() {
+        return current().fingerprint;
+    }
+
+    private CompiledPolicy current() {
+        long now = System.currentTimeMillis();
+        if (now >= nextReloadCheck) {
+            reloadIfModified(now);
+        }
+        return policy;
+    }
+
+    private synchronized void reloadIfModified(long now) {
+        if (now < nextReloadCheck) {
+            return;
+        }
+        nextReloadCheck = now + reloadIntervalMillis;
+
+        Resource resource = resourceLoader.getResource(location);
+        long modified = lastModified(resource);
+        if (modified == lastModified) {
+            return;
+        }
+        try {
+            policy = load(resource);
+            lastModified = modified;
+        } catch (RuntimeException e) {
+            // Keep serving the last good policy
+            log.error("Could not reload policy from {}: {}", location, e.getMessage());
+        }
+    }
+
+    private CompiledPolicy load(Resource resource) {
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            reader.lines().forEach(lines::add);
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read policy " + location, e);
+        }
+
+        CompiledPolicy compiled = compile(lines, maxMemoEntries);
+        log.info("Loaded policy version {} from {} ({} rules)",
+                version.incrementAndGet(), location, compiled.ruleCount);
+        return compiled;
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Not backed by a file (e.g. inside a jar), so never reloaded
+            return 0L;
+        }
+    }
+
+    static CompiledPolicy compile(List<String> lines, int maxMemoEntries) {
+        Map<String, List<CompiledRule>> table = new HashMap<>();
+        MessageDigest digest = sha256();
+        int count = 0;
+
+        for (int lineNumber = 1; lineNumber <= lines.size(); lineNumber++) {
+            String line = lines.get(lineNumber - 1).strip();
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment).strip();
+            }
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            String[] parts = line.split("\\s+");
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Line " + lineNumber + ": expected 'effect action resourceType [conditions]'");
+            }
+            boolean deny = switch (parts[0]) {
+                case "allow" -> false;
+                case "deny" -> true;
+                default -> throw new IllegalArgumentException("Line " + lineNumber + ": unknown effect " + parts[0]);
+            };
+
+            List<Integer> required = new ArrayList<>();
+            BiPredicate<UserPrincipal, PolicyResource> residual = null;
+            for (int i = 3; i < parts.length; i++) {
+                String condition = parts[i];
+                if (condition.startsWith("authority:")) {
+                    required.add(AuthorityIndex.idOf(condition.substring("authority:".length())));
+                } else if (condition.startsWith("role:")) {
+                    required.add(AuthorityIndex.idOf("ROLE_" + condition.substring("role:".length())));
+                } else {
+                    BiPredicate<UserPrincipal, PolicyResource> target = targetCondition(condition, lineNumber);
+                    residual = residual == null ? target : residual.and(target);
+                }
+            }
+
+            digest.update((String.join(" ", parts) + '\n').getBytes(StandardCharsets.UTF_8));
+
+            int[] requiredIds = required.stream().mapToInt(Integer::intValue).toArray();
+            table.computeIfAbsent(key(parts[1], parts[2]), k -> new ArrayList<>())
+                    .add(new CompiledRule(deny, requiredIds, residual));
+            count++;
+        }
+        return new CompiledPolicy(table, count, HexFormat.of().formatHex(digest.digest()), maxMemoEntries);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+
+    private static BiPredicate<UserPrincipal, PolicyResource> targetCondition(String condition, int lineNumber) {
+        if (condition.equals("self")) {
+            return (subject, target) -> subject.getId().equals(target.id());
+        }
+        if (condition.equals("not-self")) {
+            return (subject, target) -> !subject.getId().equals(target.id());
+        }
+        if (condition.equals("same-tenant")) {
+            return (subject, target) -> subject.getTenantId().equals(target.tenantId());
+        }
+        if (condition.equals("other-tenant")) {
+            return (subject, target) -> !subject.getTenantId().equals(target.tenantId());
+        }
+        if (condition.startsWith("target-role:")) {
+            String role = condition.substring("target-role:".length());
+            return (subject, target) -> target.roles().contains(role);
+        }
+        if (condition.startsWith("target-not-role:")) {
+            String role = condition.substring("target-not-role:".length());
+            return (subject, target) -> !target.roles().contains(role);
+        }
+        throw new IllegalArgumentException("Line " + lineNumber + ": unknown condition " + condition);
+    }
+
+    private static String key(String action, String resourceType) {
+        return action + '\u0000' + resourceType;
+    }
+
+    public enum Decision {
+        ALLOW, DENY, CONDITIONAL
+    }
+
+    record CompiledRule(boolean deny, int[] requiredAuthorityIds,
+                        BiPredicate<UserPrincipal, PolicyResource> residual) {
+
+        boolean appliesTo(UserPrincipal subject) {
+            for (int id : requiredAuthorityIds) {
+                if (!subject.hasAuthorityId(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * What is left of a policy once the caller's authorities are known.
+     */
+    interface Residual {
+
+        Residual ALLOW = (subject, resource) -> true;
+        Residual DENY = (subject, resource) -> false;
+
+        boolean test(UserPrincipal subject, Supplier<PolicyResource> resource);
+    }
+
+    private record MemoKey(BitSet authorities, String tableKey) {
+    }
+
+    static final class CompiledPolicy {
+
+        private final Map<String, List<CompiledRule>> table;
+        private final int ruleCount;
+        private final String fingerprint;
+        private final int maxMemoEntries;
+        private final ConcurrentHashMap<MemoKey, Residual> memo = new ConcurrentHashMap<>();
+
+        private CompiledPolicy(Map<String, List<CompiledRule>> table, int ruleCount, String fingerprint,
+                               int maxMemoEntries) {
+            this.table = Map.copyOf(table);
+            this.ruleCount = ruleCount;
+            this.fingerprint = fingerprint;
+            this.maxMemoEntries = maxMemoEntries;
+        }
+
+        Residual residualFor(UserPrincipal subject, String action, String resourceType) {
+            String tableKey = key(action, resourceType);
+            MemoKey memoKey = new MemoKey(subject.authorityBits(), tableKey);
+            Residual residual = memo.get(memoKey);
+            if (residual == null) {
+                if (memo.size() >= maxMemoEntries) {
+                    memo.clear();
+                }
+                residual = specialize(table.getOrDefault(tableKey, List.of()), subject);
+                memo.put(memoKey, residual);
+            }
+            return residual;
+        }
+
+        boolean hasRules(String action, String resourceType) {
+            return table.containsKey(key(action, resourceType));
+        }
+
+        String fingerprint() {
+            return fingerprint;
+        }
+
+        int memoSize() {
+            return memo.size();
+        }
+
+        // Drops rules the caller's authorities rule out and folds the rest
+        private static Residual specialize(List<CompiledRule> rules, UserPrincipal subject) {
+            List<BiPredicate<UserPrincipal, PolicyResource>> denies = new ArrayList<>();
+            List<BiPredicate<UserPrincipal, PolicyResource>> allows = new ArrayList<>();
+            boolean unconditionalAllow = false;
+
+            for (CompiledRule rule : rules) {
+                if (!rule.appliesTo(subject)) {
+                    continue;
+                }
+                if (rule.deny()) {
+                    if (rule.residual() == null) {
+                        return Residual.DENY;
+                    }
+                    denies.add(rule.residual());
+                } else if (rule.residual() == null) {
+                    unconditionalAllow = true;
+                } else {
+                    allows.add(rule.residual());
+                }
+            }
+
+            if (!unconditionalAllow && allows.isEmpty()) {
+                return Residual.DENY;
+            }
+            if (unconditionalAllow && denies.isEmpty()) {
+                return Residual.ALLOW;
+            }
+
+            boolean allowWithoutTarget = unconditionalAllow;
+            return (principal, resource) -> {
+                PolicyResource target = resource.get();
+                for (BiPredicate<UserPrincipal, PolicyResource> deny : denies) {
+                    if (deny.test(principal, target)) {
+                        return false;
+                    }
+                }
+                if (allowWithoutTarget) {
+                    return true;
+                }
+                for (BiPredicate<UserPrincipal, PolicyResource> allow : allows) {
+                    if (allow.test(principal, target)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Attributes of the object a policy decision is about.
+ */
+public record PolicyResource(String type, UUID id, String tenantId, Set<String> roles) {
+
+    public static PolicyResource user(UUID id, String tenantId, Set<String> roles) {
+        return new PolicyResource("user", id, tenantId, roles);
+    }
+}
@@ -0,0 +1,187 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Compact binary form of an authenticated {@link UserPrincipal} for shared
+ * caches. Only what is needed to rebuild the principal is written; the
+ * password hash and email are never included, and authorities are stored as
+ * role ids and expanded again through the role graph on decode.
+ *
+ * <pre>
+ * v2: version(1) | uuid(16) | flags(1) | authoritiesVersion(varint)
+ *     | tenantLength(varint) tenant(utf-8)
+ *     | usernameLength(varint) username(utf-8)
+ *     | roleCount(varint) roleIds(varint, ascending, delta encoded)
+ * </pre>
+ * v1 is v2 without the tenant and still decodes, into the default tenant.
+ * Lengths and counts are checked against the remaining bytes before anything
+ * is allocated; malformed input fails with {@link IllegalArgumentException}.
+ */
+public final class PrincipalCodec {
+
+    public static final byte VERSION = 2;
+
+    private static final byte VERSION_WITHOUT_TENANT = 1;
+
+    // Same bound as a token's role set
+    static final int MAX_ROLE_COUNT = 256;
+
+    private static final int FLAG_ENABLED = 1;
+    private static final int FLAG_NON_LOCKED = 1 << 1;
+    private static final int FLAG_MFA = 1 << 2;
+
+    private PrincipalCodec() {
+    }
+
+    public static byte[] encode(UserPrincipal principal) {
+        byte[] tenant = principal.getTenantId().getBytes(StandardCharsets.UTF_8);
+        byte[] username = principal.getUsername().getBytes(StandardCharsets.UTF_8);
+        long[] roleIds = principal.getRoleIds().stream().mapToLong(Long::longValue).sorted().toArray();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(
+                32 + tenant.length + username.length + roleIds.length * 2);
+        out.write(VERSION);
+
+        UUID id = principal.getId();
+        writeLong(out, id.getMostSignificantBits());
+        writeLong(out, id.getLeastSignificantBits());
+
+        int flags = 0;
+        if (principal.isEnabled()) {
+            flags |= FLAG_ENABLED;
+        }
+        if (principal.isAccountNonLocked()) {
+            flags |= FLAG_NON_LOCKED;
+        }
+        if (principal.isMfaEnabled()) {
+            flags |= FLAG_MFA;
+        }
+        out.write(flags);
+
+        writeVarLong(out, principal.getAuthoritiesVersion());
+
+        writeVarLong(out, tenant.length);
+        out.write(tenant, 0, tenant.length);
+
+        writeVarLong(out, username.length);
+        out.write(username, 0, username.length);
+
+        writeVarLong(out, roleIds.length);
+        long previous = 0;
+        for (long roleId : roleIds) {
+            writeVarLong(out, roleId - previous);
+            previous = roleId;
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @param authorityResolver expands a tenant's role ids into role and permission
+     *                          authorities, normally {@link RoleAuthorityResolver#resolve}
+     */
+    public static UserPrincipal decode(byte[] data, BiFunction<String, Set<Long>, Set<String>> authorityResolver) {
+        ByteBuffer in = ByteBuffer.wrap(data);
+        try {
+            return decode(data, in, authorityResolver);
+        } catch (BufferUnderflowException | ArithmeticException ex) {
+            throw new IllegalArgumentException("Truncated or malformed principal encoding", ex);
+        }
+    }
+
+    private static UserPrincipal decode(byte[] data, ByteBuffer in,
+                                        BiFunction<String, Set<Long>, Set<String>> authorityResolver) {
+        byte version = in.get();
+        if (version != VERSION && version != VERSION_WITHOUT_TENANT) {
+            throw new IllegalArgumentException("Unsupported principal encoding version: " + version);
+        }
+
+        UUID id = new UUID(in.getLong(), in.getLong());
+        int flags = in.get();
+        long authoritiesVersion = readVarLong(in);
+
+        String tenant = version == VERSION_WITHOUT_TENANT ? TenantContext.DEFAULT_TENANT : readString(data, in);
+        String username = readString(data, in);
+
+        int roleCount = readLength(in, MAX_ROLE_COUNT, "role count");
+        Set<Long> roleIds = new HashSet<>(roleCount * 2);
+        long previous = 0;
+        for (int i = 0; i < roleCount; i++) {
+            previous = Math.addExact(previous, readVarLong(in));
+            roleIds.add(previous);
+        }
+
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        authorityResolver.apply(tenant, roleIds).forEach(authority -> authorities.add(new SimpleGrantedAuthority(authority)));
+
+        return new UserPrincipal(
+                id,
+                tenant,
+                username,
+                null,
+                null,
+                (flags & FLAG_ENABLED) != 0,
+                roleIds,
+                authoritiesVersion,
+                (flags & FLAG_NON_LOCKED) != 0,
+                (flags & FLAG_MFA) != 0,
+                authorities
+        );
+    }
+
+    private static String readString(byte[] data, ByteBuffer in) {
+        int length = readLength(in, Integer.MAX_VALUE, "string length");
+        String value = new String(data, in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    // A length or count can never exceed the bytes left after it
+    private static int readLength(ByteBuffer in, int cap, String what) {
+        long value = readVarLong(in);
+        int max = Math.min(cap, in.remaining());
+        if (value < 0 || value > max) {
+            throw new IllegalArgumentException("Principal encoding " + what + " " + value + " exceeds " + max);
+        }
+        return (int) value;
+    }
+
+    private static void writeLong(ByteArrayOutputStream out, long value) {
+        byte[] bytes = ByteBuffer.allocate(Long.BYTES).putLong(value).array();
+        out.write(bytes, 0, bytes.length);
+    }
+
+    static void writeVarLong(ByteArrayOutputStream out, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value cannot be encoded: " + value);
+        }
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
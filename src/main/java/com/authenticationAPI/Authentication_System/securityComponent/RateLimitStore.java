@@ -0,0 +1,16 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.time.Duration;
+
+/**
+ * Cluster-wide counter backend for {@link ClusterRateLimiter}.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Adds {@code delta} to the counter of {@code key} in the given window and
+     * returns the new cluster-wide total. Counters may be dropped once
+     * {@code ttl} has passed.
+     */
+    long addAndGet(String key, long window, long delta, Duration ttl);
+}
@@ -0,0 +1,106 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket keyed by an arbitrary string, implemented as GCRA:
+ * each key holds a single "theoretical arrival time" that is advanced with a
+ * CAS. Keys are spread over independent stripes, each capped in size.
+ * A key whose arrival time is in the past is indistinguishable from an unseen
+ * key, which is what makes time-based eviction safe.
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 16;
+
+    private final long emissionIntervalNanos;
+    private final long burstWindowNanos;
+    private final int maxKeysPerStripe;
+    private final LongSupplier clock;
+    private final long origin;
+    private final ConcurrentHashMap<String, AtomicLong>[] stripes;
+
+    public RateLimiter(int permitsPerMinute, int burst, int maxKeys) {
+        this(permitsPerMinute, burst, maxKeys, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    RateLimiter(int permitsPerMinute, int burst, int maxKeys, LongSupplier clock) {
+        this.emissionIntervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(permitsPerMinute, 1);
+        this.burstWindowNanos = emissionIntervalNanos * Math.max(burst, 1);
+        this.maxKeysPerStripe = Math.max(maxKeys / STRIPES, 1);
+        this.clock = clock;
+        this.origin = clock.getAsLong();
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    /**
+     * Takes one permit for the key.
+     *
+     * @return 0 when the permit was granted, otherwise the nanoseconds until
+     * the next permit becomes available
+     */
+    public long tryAcquire(String key) {
+        ConcurrentHashMap<String, AtomicLong> stripe = stripeFor(key);
+        long now = clock.getAsLong() - origin;
+
+        AtomicLong arrival = stripe.get(key);
+        if (arrival == null) {
+            evictIfFull(stripe, now);
+            arrival = stripe.computeIfAbsent(key, k -> new AtomicLong(0L));
+        }
+
+        while (true) {
+            long current = arrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstWindowNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (arrival.compareAndSet(current, next)) {
+                return 0L;
+            }
+        }
+    }
+
+    public void reset(String key) {
+        stripeFor(key).remove(key);
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<String, AtomicLong> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, AtomicLong> stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private void evictIfFull(ConcurrentHashMap<String, AtomicLong> stripe, long now) {
+        if (stripe.size() < maxKeysPerStripe) {
+            return;
+        }
+
+        // Idle keys have fully refilled buckets and carry no information
+        stripe.values().removeIf(arrival -> arrival.get() <= now);
+
+        // Still full: drop arbitrary keys rather than grow without bound
+        Iterator<String> keys = stripe.keySet().iterator();
+        while (stripe.size() >= maxKeysPerStripe && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+}
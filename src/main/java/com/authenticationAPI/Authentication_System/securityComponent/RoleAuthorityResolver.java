@@ -0,0 +1,61 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Server-side view of the role graph used to expand the role set carried in
+ * a slim access token back into role and permission authorities. Expansions
+ * are cached per tenant and distinct role set, and only roles visible to the
+ * tenant (its own and the global ones) contribute.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoleAuthorityResolver {
+
+    private final RoleRepository roleRepository;
+    private final TenantPartitionedCache<Set<Long>, Set<String>> roleAuthorityCache;
+
+    public Set<String> resolve(String tenant, Collection<Long> roleIds) {
+        return roleAuthorityCache.get(tenant, Set.copyOf(roleIds), ids -> load(tenant, ids));
+    }
+
+    public void invalidate() {
+        roleAuthorityCache.invalidateAll();
+
+        // Drop again once the change is committed, in case a reader reloaded
+        // the old graph in between
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    roleAuthorityCache.invalidateAll();
+                }
+            });
+        }
+    }
+
+    private Set<String> load(String tenant, Set<Long> roleIds) {
+        if (roleIds.isEmpty()) {
+            return Set.of();
+        }
+
+        Set<String> granted = new HashSet<>();
+        for (Role role : roleRepository.findVisibleWithEffectivePermissionsByIdIn(roleIds, tenant)) {
+            granted.add("ROLE_" + role.getName());
+            role.getEffectivePermissions().forEach(permission -> granted.add(permission.getName()));
+        }
+        log.debug("Expanded {} roles for tenant {}", roleIds.size(), tenant);
+        return Set.copyOf(granted);
+    }
+}
@@ -0,0 +1,39 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tenant of the request being handled. Set by {@link TenantFilter} from the
+ * X-Tenant-ID header and overridden by the tenant claim of a verified token.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+    public static final String HEADER = "X-Tenant-ID";
+
+    private static final Pattern VALID_TENANT = Pattern.compile("[a-z0-9][a-z0-9-]{0,63}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String get() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+
+    public static void set(String tenantId) {
+        if (!isValid(tenantId)) {
+            throw new IllegalArgumentException("Invalid tenant id");
+        }
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static boolean isValid(String tenantId) {
+        return tenantId != null && VALID_TENANT.matcher(tenantId).matches();
+    }
+}
@@ -0,0 +1,42 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the tenant named in the X-Tenant-ID header (or the default tenant) to
+ * the request. For authenticated requests JwtAuthenticationFilter replaces it
+ * with the tenant the token was issued for.
+ */
+@Component
+public class TenantFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String tenant = request.getHeader(TenantContext.HEADER);
+        if (StringUtils.hasText(tenant) && !TenantContext.isValid(tenant)) {
+            response.setStatus(HttpStatus.BAD_REQUEST.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"error\":\"Invalid tenant id\"}");
+            return;
+        }
+
+        try {
+            TenantContext.set(StringUtils.hasText(tenant) ? tenant : TenantContext.DEFAULT_TENANT);
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache with a separate LRU partition per tenant. Each tenant is
+ * capped on its own, so one tenant with a large working set only evicts its
+ * own entries. When the number of partitions reaches its cap, the partition
+ * that was used least recently is dropped.
+ */
+public class TenantPartitionedCache<K, V> {
+
+    private final int maxEntriesPerTenant;
+    private final int maxTenants;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, Partition<K, V>> partitions = new ConcurrentHashMap<>();
+
+    public TenantPartitionedCache(int maxEntriesPerTenant, int maxTenants, long ttlMillis) {
+        this(maxEntriesPerTenant, maxTenants, ttlMillis, System::nanoTime);
+    }
+
+    TenantPartitionedCache(int maxEntriesPerTenant, int maxTenants, long ttlMillis, LongSupplier clock) {
+        this.maxEntriesPerTenant = maxEntriesPerTenant;
+        this.maxTenants = maxTenants;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the cached value, or loads it outside any lock. A value loaded
+     * while the entry was being invalidated is returned but not cached.
+     */
+    public V get(String tenantId, K key, Function<K, V> loader) {
+        long now = clock.getAsLong();
+        Partition<K, V> partition = partition(tenantId, now);
+
+        long generation;
+        synchronized (partition) {
+            Entry<V> entry = partition.entries.get(key);
+            if (entry != null && entry.expiresAt - now > 0) {
+                return entry.value;
+            }
+            generation = partition.generation;
+        }
+
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (partition) {
+                if (partition.generation == generation) {
+                    partition.entries.put(key, new Entry<>(value, now + ttlNanos));
+                }
+            }
+        }
+        return value;
+    }
+
+    public void invalidate(String tenantId, K key) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        if (partition != null) {
+            synchronized (partition) {
+                partition.entries.remove(key);
+                partition.generation++;
+            }
+        }
+    }
+
+    public void invalidateTenant(String tenantId) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        if (partition != null) {
+            synchronized (partition) {
+                partition.entries.clear();
+                partition.generation++;
+            }
+        }
+    }
+
+    public void invalidateAll() {
+        partitions.keySet().forEach(this::invalidateTenant);
+    }
+
+    int size(String tenantId) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        if (partition == null) {
+            return 0;
+        }
+        synchronized (partition) {
+            return partition.entries.size();
+        }
+    }
+
+    int tenantCount() {
+        return partitions.size();
+    }
+
+    private Partition<K, V> partition(String tenantId, long now) {
+        Partition<K, V> partition = partitions.get(tenantId);
+        if (partition == null) {
+            if (partitions.size() >= maxTenants) {
+                evictIdlestPartition();
+            }
+            partition = partitions.computeIfAbsent(tenantId, id -> new Partition<>(maxEntriesPerTenant));
+        }
+        partition.lastUsed = now;
+        return partition;
+    }
+
+    private void evictIdlestPartition() {
+        String idlest = null;
+        long oldest = Long.MAX_VALUE;
+        for (Map.Entry<String, Partition<K, V>> candidate : partitions.entrySet()) {
+            if (idlest == null || candidate.getValue().lastUsed - oldest < 0) {
+                idlest = candidate.getKey();
+                oldest = candidate.getValue().lastUsed;
+            }
+        }
+        if (idlest != null) {
+            partitions.remove(idlest);
+        }
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    private static final class Partition<K, V> {
+
+        private final LinkedHashMap<K, Entry<V>> entries;
+        private long generation;
+        private volatile long lastUsed;
+
+        Partition(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+        }
+    }
+}
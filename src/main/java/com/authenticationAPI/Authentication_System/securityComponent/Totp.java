@@ -0,0 +1,126 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayOutputStream;
+import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+
+/**
+ * RFC 6238 time-based one-time passwords: HMAC-SHA1, 30 second steps, 6 digits,
+ * which is what authenticator apps expect by default. Secrets are exchanged as
+ * unpadded base32.
+ */
+public final class Totp {
+
+    public static final long STEP_SECONDS = 30;
+    public static final int DIGITS = 6;
+
+    private static final String BASE32 = "ABCDEFGHIJKLMNOPQRSTUVWXYZ234567";
+    private static final int SECRET_BYTES = 20;
+
+    private Totp() {
+    }
+
+    public static String generateSecret(SecureRandom random) {
+        byte[] secret = new byte[SECRET_BYTES];
+        random.nextBytes(secret);
+        return base32Encode(secret);
+    }
+
+    public static long step(long epochMillis) {
+        return epochMillis / 1000 / STEP_SECONDS;
+    }
+
+    /**
+     * The step within {@code window} steps of {@code currentStep} whose code
+     * matches, or -1. Every candidate is computed and compared in constant
+     * time, so timing reveals neither the code nor which step matched.
+     */
+    public static long matchingStep(String base32Secret, String code, long currentStep, int window) {
+        if (code == null || code.length() != DIGITS) {
+            return -1;
+        }
+        byte[] key = base32Decode(base32Secret);
+        byte[] submitted = code.getBytes(StandardCharsets.US_ASCII);
+
+        long matched = -1;
+        for (long step = currentStep - window; step <= currentStep + window; step++) {
+            byte[] expected = code(key, step).getBytes(StandardCharsets.US_ASCII);
+            if (MessageDigest.isEqual(expected, submitted) && matched < 0) {
+                matched = step;
+            }
+        }
+        return matched;
+    }
+
+    static String code(byte[] key, long step) {
+        byte[] hash;
+        try {
+            Mac mac = Mac.getInstance("HmacSHA1");
+            mac.init(new SecretKeySpec(key, "HmacSHA1"));
+            hash = mac.doFinal(ByteBuffer.allocate(8).putLong(step).array());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA1 not available", e);
+        }
+
+        int offset = hash[hash.length - 1] & 0x0f;
+        int binary = ((hash[offset] & 0x7f) << 24)
+                | ((hash[offset + 1] & 0xff) << 16)
+                | ((hash[offset + 2] & 0xff) << 8)
+                | (hash[offset + 3] & 0xff);
+        return String.format("%06d", binary % 1_000_000);
+    }
+
+    // Key URI format understood by authenticator apps, usually shown as a QR code
+    public static String otpauthUri(String issuer, String account, String base32Secret) {
+        String label = URLEncoder.encode(issuer + ":" + account, StandardCharsets.UTF_8).replace("+", "%20");
+        return "otpauth://totp/" + label + "?secret=" + base32Secret
+                + "&issuer=" + URLEncoder.encode(issuer, StandardCharsets.UTF_8).replace("+", "%20")
+                + "&digits=" + DIGITS + "&period=" + STEP_SECONDS;
+    }
+
+    static String base32Encode(byte[] data) {
+        StringBuilder out = new StringBuilder((data.length * 8 + 4) / 5);
+        int buffer = 0;
+        int bits = 0;
+        for (byte b : data) {
+            buffer = (buffer << 8) | (b & 0xff);
+            bits += 8;
+            while (bits >= 5) {
+                out.append(BASE32.charAt((buffer >> (bits - 5)) & 0x1f));
+                bits -= 5;
+            }
+        }
+        if (bits > 0) {
+            out.append(BASE32.charAt((buffer << (5 - bits)) & 0x1f));
+        }
+        return out.toString();
+    }
+
+    static byte[] base32Decode(String encoded) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(encoded.length() * 5 / 8);
+        int buffer = 0;
+        int bits = 0;
+        for (char c : encoded.toUpperCase().toCharArray()) {
+            if (c == '=' || c == ' ') {
+                continue;
+            }
+            int value = BASE32.indexOf(c);
+            if (value < 0) {
+                throw new IllegalArgumentException("Invalid base32 character: " + c);
+            }
+            buffer = (buffer << 5) | value;
+            bits += 5;
+            if (bits >= 8) {
+                out.write((buffer >> (bits - 8)) & 0xff);
+                bits -= 8;
+            }
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,51 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Remembers which (user, time step) codes have been accepted, so a code seen
+ * over someone's shoulder cannot be used again within its validity window.
+ * Entries arrive roughly in step order, so the eldest are also the first to
+ * stop mattering; beyond {@code maxEntries} they are dropped regardless.
+ */
+public class TotpReplayCache {
+
+    private final int maxEntries;
+    private final long retainSteps;
+    private final LinkedHashMap<Key, Long> used = new LinkedHashMap<>();
+
+    public TotpReplayCache(int maxEntries, int windowSteps) {
+        this.maxEntries = maxEntries;
+        // A code for step s is accepted until step s + window
+        this.retainSteps = 2L * windowSteps + 1;
+    }
+
+    /**
+     * Returns false if the code for this step was already used.
+     */
+    public synchronized boolean markUsed(UUID userId, long step, long currentStep) {
+        evict(currentStep);
+        return used.putIfAbsent(new Key(userId, step), step) == null;
+    }
+
+    synchronized int size() {
+        return used.size();
+    }
+
+    private void evict(long currentStep) {
+        Iterator<Map.Entry<Key, Long>> iterator = used.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Long> eldest = iterator.next();
+            if (used.size() < maxEntries && currentStep - eldest.getValue() <= retainSteps) {
+                return;
+            }
+            iterator.remove();
+        }
+    }
+
+    private record Key(UUID userId, long step) {
+    }
+}
@@ -1,16 +1,22 @@
 package com.authenticationAPI.Authentication_System.securityComponent;
 
 import com.authenticationAPI.Authentication_System.model.User;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Data
@@ -18,31 +24,50 @@ import java.util.stream.Collectors;
 public class UserPrincipal implements UserDetails {
 
     private UUID id;
+    private String tenantId;
     private String username;
     private String email;
+    @ToString.Exclude
     private String password;
     private Boolean enabled;
+    private Set<Long> roleIds;
+    private long authoritiesVersion;
+    private boolean accountNonLocked;
+    private boolean mfaEnabled;
     private Collection<? extends GrantedAuthority> authorities;
 
+    // Authorities as interned ids, built on the first authorization check
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    private final AtomicReference<BitSet> authorityBits = new AtomicReference<>();
+
     public static UserPrincipal create(User user) {
         Set<GrantedAuthority> authorities = new HashSet<>();
+        Set<Long> roleIds = new HashSet<>();
 
         // Add roles
         user.getRoles().forEach(role -> {
+            roleIds.add(role.getId());
             authorities.add(new SimpleGrantedAuthority("ROLE_" + role.getName()));
 
-            // Add permissions from each role
-            role.getPermissions().forEach(permission ->
+            // Add permissions from each role, inherited ones included
+            role.getEffectivePermissions().forEach(permission ->
                     authorities.add(new SimpleGrantedAuthority(permission.getName()))
             );
         });
 
         return new UserPrincipal(
                 user.getId(),
+                user.getTenantId(),
                 user.getUsername(),
                 user.getEmail(),
                 user.getPassword(),
                 user.getEnabled(),
+                roleIds,
+                user.getAuthoritiesVersion() != null ? user.getAuthoritiesVersion() : 0L,
+                true,
+                Boolean.TRUE.equals(user.getMfaEnabled()),
                 authorities
         );
     }
@@ -52,6 +77,33 @@ public class UserPrincipal implements UserDetails {
         return authorities;
     }
 
+    public void setAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        this.authorities = authorities;
+        authorityBits.set(null);
+    }
+
+    // Copy of this principal holding the given authorities; the cached original is left untouched
+    public UserPrincipal withAuthorities(Collection<String> granted) {
+        Set<GrantedAuthority> copied = new HashSet<>();
+        granted.forEach(authority -> copied.add(new SimpleGrantedAuthority(authority)));
+        return new UserPrincipal(id, tenantId, username, email, password, enabled, roleIds,
+                authoritiesVersion, accountNonLocked, mfaEnabled, copied);
+    }
+
+    public boolean hasAuthorityId(int authorityId) {
+        return authorityBits().get(authorityId);
+    }
+
+    // Shared, must not be modified by callers
+    BitSet authorityBits() {
+        BitSet bits = authorityBits.get();
+        if (bits == null) {
+            bits = AuthorityIndex.bitsOf(authorities);
+            authorityBits.set(bits);
+        }
+        return bits;
+    }
+
     @Override
     public String getPassword() {
         return password;
@@ -69,7 +121,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public boolean isAccountNonLocked() {
-        return true;
+        return accountNonLocked;
     }
 
     @Override
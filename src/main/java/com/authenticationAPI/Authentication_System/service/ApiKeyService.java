@@ -0,0 +1,327 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.ApiKey;
+import com.authenticationAPI.Authentication_System.repo.ApiKeyRepository;
+import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.ApiKeyPrincipal;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantPartitionedCache;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * API keys for machine clients. A key is {@code ak_<prefix>_<secret>}: the
+ * prefix finds the row by index and the secret is checked against an
+ * HMAC-SHA256 under a server-side pepper. The secret is 256 random bits, so
+ * a fast keyed hash is enough where passwords need BCrypt. Verified keys are
+ * cached in memory and usage is counted in memory and written in batches, so
+ * a request with a known key touches neither Postgres nor Mongo.
+ * <p>
+ * A key never grants more than its owner currently holds: when a key is
+ * loaded into the cache its scopes are intersected with the owner's current
+ * authorities, and keys of disabled or deleted owners are rejected. Changes
+ * to users and roles evict the affected keys on this instance; other
+ * instances pick them up when their cache entry expires.
+ */
+@Slf4j
+@Service
+public class ApiKeyService {
+
+    static final String KEY_PREFIX = "ak_";
+
+    // Prefixes are global, so all keys share one cache partition
+    private static final String CACHE_PARTITION = "*";
+    private static final int PREFIX_BYTES = 6;
+    private static final int SECRET_BYTES = 32;
+
+    private final ApiKeyRepository apiKeyRepository;
+    private final UserRepository userRepository;
+    private final SecurityEventService securityEventService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantPartitionedCache<String, CachedKey> apiKeyCache;
+    private final ThreadLocal<Mac> hmac;
+    private final int maxExpiryDays;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final ConcurrentHashMap<UUID, LongAdder> usage = new ConcurrentHashMap<>();
+
+    public ApiKeyService(ApiKeyRepository apiKeyRepository,
+                         UserRepository userRepository,
+                         SecurityEventService securityEventService,
+                         JdbcTemplate jdbcTemplate,
+                         TenantPartitionedCache<String, CachedKey> apiKeyCache,
+                         @Value("${auth.api-keys.pepper}") String pepper,
+                         @Value("${jwt.secret}") String jwtSecret,
+                         @Value("${auth.api-keys.max-expiry-days:365}") int maxExpiryDays) {
+        // The pepper must not double as the token signing key
+        if (pepper.getBytes(StandardCharsets.UTF_8).length < 32 || pepper.equals(jwtSecret)) {
+            throw new IllegalStateException("auth.api-keys.pepper must be at least 32 bytes and differ from jwt.secret");
+        }
+        this.apiKeyRepository = apiKeyRepository;
+        this.userRepository = userRepository;
+        this.securityEventService = securityEventService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.apiKeyCache = apiKeyCache;
+        this.maxExpiryDays = maxExpiryDays;
+
+        SecretKeySpec pepperKey = new SecretKeySpec(pepper.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        this.hmac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance("HmacSHA256");
+                mac.init(pepperKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HmacSHA256 not available", e);
+            }
+        });
+    }
+
+    /**
+     * Creates a key for the calling user. Scopes must be permissions the user
+     * holds; roles cannot be delegated. The full key is only ever returned
+     * here.
+     */
+    @Transactional
+    public Map<String, Object> create(UserPrincipal owner, String name, Set<String> scopes, Integer expiresInDays) {
+        if (!StringUtils.hasText(name) || name.length() > 100) {
+            throw new RuntimeException("Name is required and must be at most 100 characters");
+        }
+        if (scopes == null || scopes.isEmpty()) {
+            throw new RuntimeException("At least one scope is required");
+        }
+        Set<String> held = new LinkedHashSet<>();
+        owner.getAuthorities().forEach(authority -> held.add(authority.getAuthority()));
+        for (String scope : scopes) {
+            if (scope.startsWith("ROLE_") || !held.contains(scope)) {
+                throw new RuntimeException("Scope not allowed: " + scope);
+            }
+        }
+        int days = expiresInDays != null ? expiresInDays : maxExpiryDays;
+        if (days < 1 || days > maxExpiryDays) {
+            throw new RuntimeException("expiresInDays must be between 1 and " + maxExpiryDays);
+        }
+
+        String prefix = HexFormat.of().formatHex(randomBytes(PREFIX_BYTES));
+        String secret = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes(SECRET_BYTES));
+
+        ApiKey apiKey = new ApiKey();
+        apiKey.setTenantId(TenantContext.get());
+        apiKey.setOwnerId(owner.getId());
+        apiKey.setName(name);
+        apiKey.setPrefix(prefix);
+        apiKey.setSecretHash(HexFormat.of().formatHex(hash(secret)));
+        apiKey.setScopeSet(new LinkedHashSet<>(scopes));
+        apiKey.setExpiresAt(LocalDateTime.now().plusDays(days));
+        ApiKey saved = apiKeyRepository.save(apiKey);
+
+        securityEventService.userEvent("API_KEY_CREATED", owner.getId(),
+                Map.of("keyId", saved.getId(), "prefix", prefix, "scopes", apiKey.getScopes()));
+        log.info("API key {} created by user: {}", prefix, owner.getUsername());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("id", saved.getId());
+        response.put("name", saved.getName());
+        response.put("prefix", prefix);
+        response.put("scopes", saved.getScopeSet());
+        response.put("expiresAt", saved.getExpiresAt());
+        response.put("key", KEY_PREFIX + prefix + "_" + secret);
+        return response;
+    }
+
+    public List<ApiKey> listKeys() {
+        return apiKeyRepository.findByTenantIdOrderByCreatedAtDesc(TenantContext.get());
+    }
+
+    // Other instances stop accepting the key once their cached entry expires
+    @Transactional
+    public void revoke(UUID keyId) {
+        ApiKey apiKey = apiKeyRepository.findByIdAndTenantId(keyId, TenantContext.get())
+                .orElseThrow(() -> new RuntimeException("API key not found with id: " + keyId));
+        if (apiKey.getRevokedAt() != null) {
+            return;
+        }
+        apiKey.setRevokedAt(LocalDateTime.now());
+        apiKeyRepository.save(apiKey);
+        apiKeyCache.invalidate(CACHE_PARTITION, apiKey.getPrefix());
+
+        securityEventService.userEvent("API_KEY_REVOKED", apiKey.getOwnerId(),
+                Map.of("keyId", keyId, "prefix", apiKey.getPrefix()));
+        log.info("API key {} revoked", apiKey.getPrefix());
+    }
+
+    /**
+     * Resolves a presented key. Unknown, revoked and expired keys and wrong
+     * secrets all come back empty.
+     */
+    public Optional<ApiKeyPrincipal> authenticate(String presentedKey) {
+        if (presentedKey == null || !presentedKey.startsWith(KEY_PREFIX)) {
+            return Optional.empty();
+        }
+        int separator = presentedKey.indexOf('_', KEY_PREFIX.length());
+        if (separator != KEY_PREFIX.length() + PREFIX_BYTES * 2) {
+            return Optional.empty();
+        }
+        String prefix = presentedKey.substring(KEY_PREFIX.length(), separator);
+        String secret = presentedKey.substring(separator + 1);
+
+        CachedKey key = apiKeyCache.get(CACHE_PARTITION, prefix, this::load);
+        if (key == null || !MessageDigest.isEqual(key.secretHash(), hash(secret))) {
+            return Optional.empty();
+        }
+        if (key.revoked() || (key.expiresAt() != null && key.expiresAt().isBefore(LocalDateTime.now()))) {
+            return Optional.empty();
+        }
+
+        usage.computeIfAbsent(key.principal().keyId(), id -> new LongAdder()).increment();
+        return Optional.of(key.principal());
+    }
+
+    /**
+     * Adds the counted uses to each key's usage_count in one JDBC batch.
+     * Counters are reset rather than removed, so increments racing with the
+     * flush are kept for the next one.
+     */
+    @Scheduled(fixedDelayString = "${auth.api-keys.usage.flush-interval-ms:10000}")
+    public void flushUsage() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>();
+        usage.forEach((keyId, counter) -> {
+            long count = counter.sumThenReset();
+            if (count > 0) {
+                batch.add(new Object[]{count, now, keyId});
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(
+                    "update api_keys set usage_count = usage_count + ?, last_used_at = ? where id = ?", batch);
+        } catch (RuntimeException e) {
+            // Put the counts back so they go out with the next flush
+            batch.forEach(row -> usage.computeIfAbsent((UUID) row[2], id -> new LongAdder()).add((Long) row[0]));
+            log.warn("Could not flush API key usage: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the cached keys of one owner, now and again after the current
+     * transaction commits. Called when the owner's roles, status or
+     * existence change.
+     */
+    public void evictOwner(UUID ownerId) {
+        List<String> prefixes = apiKeyRepository.findPrefixesByOwnerId(ownerId);
+        Runnable eviction = () -> prefixes.forEach(prefix -> apiKeyCache.invalidate(CACHE_PARTITION, prefix));
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    // A role's permissions changed, so any owner's authorities may have
+    public void evictAll() {
+        apiKeyCache.invalidateAll();
+        afterCommit(apiKeyCache::invalidateAll);
+    }
+
+    // No cascade is guaranteed by the schema (ddl-auto does not create it), so owners' keys are deleted explicitly
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void deleteOwnerKeys(UUID ownerId) {
+        List<String> prefixes = apiKeyRepository.findPrefixesByOwnerId(ownerId);
+        apiKeyRepository.deleteByOwnerId(ownerId);
+        Runnable eviction = () -> prefixes.forEach(prefix -> apiKeyCache.invalidate(CACHE_PARTITION, prefix));
+        eviction.run();
+        afterCommit(eviction);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushUsage();
+    }
+
+    /**
+     * Builds the cache entry from the key and its owner as they are now. The
+     * owner is read from the database rather than the principal cache, so a
+     * freshly loaded key reflects the latest authorities version. Keys of
+     * missing or disabled owners are cached as revoked.
+     */
+    private CachedKey load(String prefix) {
+        ApiKey apiKey = apiKeyRepository.findByPrefix(prefix).orElse(null);
+        if (apiKey == null) {
+            return null;
+        }
+        UserPrincipal owner = userRepository.findWithAuthoritiesByIdAndTenantId(apiKey.getOwnerId(), apiKey.getTenantId())
+                .map(UserPrincipal::create)
+                .orElse(null);
+        boolean usable = apiKey.getRevokedAt() == null && owner != null && owner.isEnabled();
+
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        if (usable) {
+            Set<String> held = new HashSet<>();
+            owner.getAuthorities().forEach(authority -> held.add(authority.getAuthority()));
+            apiKey.getScopeSet().stream()
+                    .filter(held::contains)
+                    .forEach(scope -> authorities.add(new SimpleGrantedAuthority(scope)));
+        }
+        return new CachedKey(HexFormat.of().parseHex(apiKey.getSecretHash()), apiKey.getExpiresAt(), !usable,
+                new ApiKeyPrincipal(apiKey.getId(), apiKey.getTenantId(), apiKey.getOwnerId(),
+                        apiKey.getPrefix(), List.copyOf(authorities)));
+    }
+
+    private static void afterCommit(Runnable eviction) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private byte[] hash(String secret) {
+        return hmac.get().doFinal(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        secureRandom.nextBytes(bytes);
+        return bytes;
+    }
+
+    public record CachedKey(byte[] secretHash, LocalDateTime expiresAt, boolean revoked, ApiKeyPrincipal principal) {
+    }
+}
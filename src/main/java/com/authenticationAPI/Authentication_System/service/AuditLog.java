@@ -0,0 +1,476 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only audit trail in memory-mapped segment files.
+ * <p>
+ * Each record is {@code [int length][int crc32c][payload]}; a zero length marks
+ * the end of what was written, and a CRC mismatch (a torn write after a crash)
+ * ends the scan of that segment. A segment is named after the epoch millis of
+ * its first record and covers the time up to the next one, so queries skip
+ * whole segments outside the requested range. Segments roll over when full or
+ * after the rollover interval, and are deleted once they end before the
+ * retention period.
+ * <p>
+ * Appends only copy bytes into the mapping. A background thread forces dirty
+ * pages to disk every flush interval, or immediately when a durable append is
+ * waiting, so one {@code force()} covers every record appended since the last.
+ */
+@Slf4j
+public class AuditLog implements Closeable {
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_TEXT_CHARS = 512;
+    // Records are stamped before taking the append lock, so one may land in a
+    // segment that started slightly after its timestamp
+    private static final long SEGMENT_SLACK_MILLIS = 1000;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final long rolloverMillis;
+    private final long retentionMillis;
+    private final long flushIntervalMillis;
+    private final LongSupplier clock;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private Segment current;
+    private long appended;
+    // Rolled-over segments not yet forced, oldest first. Only the flusher
+    // forces and closes them, so the durable watermark advances in order
+    private final List<Segment> retired = new ArrayList<>();
+
+    private final Object syncMonitor = new Object();
+    private long durable;
+    private boolean syncRequested;
+    private volatile boolean closed;
+    private final Thread flusher;
+
+    public AuditLog(Path directory, int segmentBytes, Duration rollover, Duration retention, Duration flushInterval) {
+        this(directory, segmentBytes, rollover, retention, flushInterval, System::currentTimeMillis);
+    }
+
+    AuditLog(Path directory, int segmentBytes, Duration rollover, Duration retention, Duration flushInterval,
+             LongSupplier clock) {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.rolloverMillis = rollover.toMillis();
+        this.retentionMillis = retention.toMillis();
+        this.flushIntervalMillis = Math.max(1, flushInterval.toMillis());
+        this.clock = clock;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create audit directory " + directory, e);
+        }
+        this.flusher = Thread.ofPlatform().name("audit-flusher").daemon().start(this::flushLoop);
+    }
+
+    /**
+     * Appends a record. With {@code durable} the call returns only after the
+     * record has been forced to disk; otherwise it may be lost if the machine
+     * crashes within one flush interval.
+     */
+    public void append(AuditRecord record, boolean durable) {
+        byte[] payload = encode(record);
+        if (HEADER_BYTES + payload.length > segmentBytes) {
+            throw new IllegalArgumentException("Audit record larger than a segment");
+        }
+
+        long end;
+        boolean rolled = false;
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Audit log is closed");
+            }
+            long now = clock.getAsLong();
+            if (current == null || current.remaining() < HEADER_BYTES + payload.length
+                    || now - current.startMillis >= rolloverMillis) {
+                rolled = current != null;
+                roll(now);
+            }
+            current.write(payload);
+            appended += HEADER_BYTES + payload.length;
+            end = appended;
+        } finally {
+            appendLock.unlock();
+        }
+
+        if (durable) {
+            awaitDurable(end);
+        } else if (rolled) {
+            requestSync();
+        }
+    }
+
+    /**
+     * Records of the given user (by id, or by username when {@code userId} is
+     * null) between {@code from} and {@code to} inclusive, oldest first. Null
+     * filters match everything.
+     */
+    public List<AuditRecord> query(String tenantId, UUID userId, String username, Instant from, Instant to,
+                                   int limit) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        List<AuditRecord> results = new ArrayList<>();
+
+        List<Path> segments = segmentFiles();
+        for (int i = 0; i < segments.size() && results.size() < limit; i++) {
+            long start = startMillis(segments.get(i));
+            long end = i + 1 < segments.size() ? startMillis(segments.get(i + 1)) : Long.MAX_VALUE;
+            if (start > toMillis + SEGMENT_SLACK_MILLIS || end <= fromMillis) {
+                continue;
+            }
+            scan(segments.get(i), tenantId, userId, username, fromMillis, toMillis, limit, results);
+        }
+        return results;
+    }
+
+    /**
+     * Deletes segments that ended before the retention period. The newest
+     * segment is never deleted.
+     */
+    @Scheduled(fixedDelayString = "${auth.audit.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        long cutoff = clock.getAsLong() - retentionMillis;
+        List<Path> segments = segmentFiles();
+        int deleted = 0;
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (startMillis(segments.get(i + 1)) > cutoff) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segments.get(i));
+                deleted++;
+            } catch (IOException e) {
+                log.warn("Could not delete audit segment {}: {}", segments.get(i), e.getMessage());
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} expired audit segments", deleted);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (syncMonitor) {
+            closed = true;
+            syncMonitor.notifyAll();
+        }
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        appendLock.lock();
+        try {
+            for (Segment segment : retired) {
+                segment.force(segment.position);
+                segment.close();
+            }
+            retired.clear();
+            if (current != null) {
+                current.force(current.position);
+                current.close();
+                current = null;
+            }
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Caller holds appendLock. The previous segment is only moved to retired
+    // for the flusher, so appends never wait on a force
+    private void roll(long now) {
+        if (current != null) {
+            retired.add(current);
+        }
+
+        long start = now;
+        Path path;
+        while (Files.exists(path = segmentPath(start))) {
+            start++;
+        }
+        try {
+            current = new Segment(path, start, segmentBytes);
+        } catch (IOException e) {
+            current = null;
+            throw new UncheckedIOException("Could not create audit segment " + path, e);
+        }
+        log.debug("Rolled audit log to {}", path.getFileName());
+    }
+
+    private void flushLoop() {
+        while (true) {
+            synchronized (syncMonitor) {
+                if (!syncRequested && !closed) {
+                    try {
+                        syncMonitor.wait(flushIntervalMillis);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closed) {
+                    return;
+                }
+                syncRequested = false;
+            }
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                // Waiters stay blocked until a later flush succeeds
+                log.error("Could not flush audit log: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void flush() {
+        Segment segment;
+        int position;
+        List<Segment> rolled;
+        long end;
+        appendLock.lock();
+        try {
+            segment = current;
+            position = segment != null ? segment.position : 0;
+            rolled = List.copyOf(retired);
+            end = appended;
+        } finally {
+            appendLock.unlock();
+        }
+        for (Segment old : rolled) {
+            old.force(old.position);
+        }
+        if (segment != null) {
+            segment.force(position);
+        }
+        if (!rolled.isEmpty()) {
+            appendLock.lock();
+            try {
+                retired.removeAll(rolled);
+            } finally {
+                appendLock.unlock();
+            }
+            rolled.forEach(Segment::close);
+        }
+        markDurable(end);
+    }
+
+    private void requestSync() {
+        synchronized (syncMonitor) {
+            if (!syncRequested) {
+                syncRequested = true;
+                syncMonitor.notifyAll();
+            }
+        }
+    }
+
+    private void awaitDurable(long end) {
+        synchronized (syncMonitor) {
+            while (durable < end && !closed) {
+                // Waiters wake each other too, so only the first one to ask
+                // notifies; otherwise they can keep the flusher off the monitor
+                requestSync();
+                try {
+                    syncMonitor.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void markDurable(long end) {
+        synchronized (syncMonitor) {
+            if (end > durable) {
+                durable = end;
+                syncMonitor.notifyAll();
+            }
+        }
+    }
+
+    private static void scan(Path segment, String tenantId, UUID userId, String username,
+                             long fromMillis, long toMillis, int limit, List<AuditRecord> results) {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            // Deleted by retention while we were listing
+            return;
+        }
+
+        CRC32C crc = new CRC32C();
+        int position = 0;
+        while (position + HEADER_BYTES <= buffer.capacity() && results.size() < limit) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_BYTES + length > buffer.capacity()) {
+                return;
+            }
+            crc.reset();
+            crc.update(buffer.slice(position + HEADER_BYTES, length));
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                log.warn("Audit segment {} is truncated at offset {}", segment.getFileName(), position);
+                return;
+            }
+
+            ByteBuffer payload = buffer.slice(position + HEADER_BYTES, length);
+            position += HEADER_BYTES + length;
+
+            long timestamp = payload.getLong(0);
+            if (timestamp < fromMillis || timestamp > toMillis) {
+                continue;
+            }
+            AuditRecord record = decode(payload);
+            if ((tenantId == null || tenantId.equals(record.tenantId()))
+                    && (userId != null ? userId.equals(record.userId())
+                    : username == null || username.equals(record.username()))) {
+                results.add(record);
+            }
+        }
+    }
+
+    private static byte[] encode(AuditRecord record) {
+        byte[] tenant = text(record.tenantId());
+        byte[] username = text(record.username());
+        byte[] detail = text(record.detail());
+
+        ByteBuffer buffer = ByteBuffer.allocate(8 + 1 + 1 + 1 + 16 + 6 + tenant.length + username.length + detail.length);
+        buffer.putLong(record.timestamp().toEpochMilli());
+        buffer.put((byte) record.type().ordinal());
+        buffer.put((byte) (record.success() ? 1 : 0));
+        buffer.put((byte) (record.userId() != null ? 1 : 0));
+        buffer.putLong(record.userId() != null ? record.userId().getMostSignificantBits() : 0L);
+        buffer.putLong(record.userId() != null ? record.userId().getLeastSignificantBits() : 0L);
+        putText(buffer, tenant);
+        putText(buffer, username);
+        putText(buffer, detail);
+        return buffer.array();
+    }
+
+    private static AuditRecord decode(ByteBuffer payload) {
+        Instant timestamp = Instant.ofEpochMilli(payload.getLong());
+        AuditRecord.Type type = AuditRecord.Type.values()[payload.get()];
+        boolean success = payload.get() == 1;
+        boolean hasUser = payload.get() == 1;
+        long most = payload.getLong();
+        long least = payload.getLong();
+        return new AuditRecord(timestamp, type, success, getText(payload),
+                hasUser ? new UUID(most, least) : null, getText(payload), getText(payload));
+    }
+
+    private static byte[] text(String value) {
+        if (value == null) {
+            return new byte[0];
+        }
+        String bounded = value.length() > MAX_TEXT_CHARS ? value.substring(0, MAX_TEXT_CHARS) : value;
+        return bounded.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putText(ByteBuffer buffer, byte[] bytes) {
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getText(ByteBuffer buffer) {
+        int length = Short.toUnsignedInt(buffer.getShort());
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private List<Path> segmentFiles() {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list audit segments in " + directory, e);
+        }
+    }
+
+    // Zero-padded so that name order is time order
+    private Path segmentPath(long startMillis) {
+        return directory.resolve(String.format("%020d%s", startMillis, SEGMENT_SUFFIX));
+    }
+
+    private static long startMillis(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class Segment {
+
+        private final long startMillis;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private int position;
+        private int forced;
+
+        Segment(Path path, long startMillis, int size) throws IOException {
+            this.startMillis = startMillis;
+            this.channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        int remaining() {
+            return buffer.capacity() - position;
+        }
+
+        // Length goes in last, so a reader never sees a length without its record
+        void write(byte[] payload) {
+            CRC32C crc = new CRC32C();
+            crc.update(payload);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, payload.length);
+            position += HEADER_BYTES + payload.length;
+        }
+
+        // Position is read under appendLock by the caller, so it can be passed in
+        synchronized void force(int upTo) {
+            if (upTo > forced) {
+                buffer.force(forced, upTo - forced);
+                forced = upTo;
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close audit segment: {}", e.getMessage());
+            }
+        }
+    }
+}
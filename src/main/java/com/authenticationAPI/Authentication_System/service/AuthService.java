@@ -1,26 +1,53 @@
 package com.authenticationAPI.Authentication_System.service;
 
+import com.authenticationAPI.Authentication_System.dto.LoginResult;
+import com.authenticationAPI.Authentication_System.dto.TokenPair;
+import com.authenticationAPI.Authentication_System.dto.TokenValidation;
+import com.authenticationAPI.Authentication_System.exceptionHandling.TooManyRequestsException;
+import com.authenticationAPI.Authentication_System.exceptionHandling.UnauthorizedException;
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import com.authenticationAPI.Authentication_System.model.RefreshTokenDocument;
 import com.authenticationAPI.Authentication_System.model.Role;
 import com.authenticationAPI.Authentication_System.model.TokenDocument;
 import com.authenticationAPI.Authentication_System.model.User;
+import com.authenticationAPI.Authentication_System.repo.RefreshTokenRepository;
 import com.authenticationAPI.Authentication_System.repo.RoleRepository;
 import com.authenticationAPI.Authentication_System.repo.TokenRepository;
 import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.ClientIpResolver;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
 import com.authenticationAPI.Authentication_System.securityComponent.JwtTokenProvider;
+import com.authenticationAPI.Authentication_System.securityComponent.LoginRateLimiter;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -33,67 +60,212 @@ public class AuthService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final TokenRepository tokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final MongoTemplate mongoTemplate;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final SessionService sessionService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final LoginAttemptService loginAttemptService;
     private final PasswordEncoder passwordEncoder;
     private final JwtTokenProvider tokenProvider;
+    private final SecurityEventService securityEventService;
+    private final AuditLog auditLog;
+    private final DeviceFingerprintService deviceFingerprintService;
+    private final MfaService mfaService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    @Value("${auth.device.skip-mfa-on-known-device:false}")
+    private boolean skipMfaOnKnownDevice;
+
+    // Hashing happens before the transaction so no pooled connection waits on BCrypt
     public User register(User user, HttpServletRequest request) {
-        if (userRepository.existsByUsername(user.getUsername())) {
+        String tenant = TenantContext.get();
+        if (userRepository.existsByTenantIdAndUsername(tenant, user.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
 
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (userRepository.existsByTenantIdAndEmail(tenant, user.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
 
+        user.setTenantId(tenant);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
 
-        // Assign default USER role
-        Role userRole = roleRepository.findByName("USER")
-                .orElseThrow(() -> new RuntimeException("Default role not found"));
+        User savedUser = transactionTemplate.execute(status -> {
+            // Assign default USER role
+            Role userRole = roleRepository.findVisibleByName("USER", tenant).stream()
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Default role not found"));
 
-        Set<Role> roles = new HashSet<>();
-        roles.add(userRole);
-        user.setRoles(roles);
+            Set<Role> roles = new HashSet<>();
+            roles.add(userRole);
+            user.setRoles(roles);
 
-        User savedUser = userRepository.save(user);
+            User saved = userRepository.save(user);
+            securityEventService.userEvent("USER_REGISTERED", saved.getId(), Map.of("username", saved.getUsername()));
+            return saved;
+        });
+        audit(AuditRecord.Type.REGISTER, true, savedUser.getId(), savedUser.getUsername(), "ip=" + getClientIP(request));
         log.info("New user registered: {}", savedUser.getUsername());
 
         return savedUser;
     }
 
+    /**
+     * Not transactional as a whole: the password check waits for a hashing
+     * thread and must not hold a pooled connection meanwhile. Loading the user
+     * and starting the session each run in their own short transaction.
+     */
+    public LoginResult login(String username, String password, HttpServletRequest request) {
+        // Throttling and lockout are per tenant, like usernames
+        String attemptKey = CustomUserDetailsService.lockoutKey(TenantContext.get(), username != null ? username : "");
+
+        long retryAfter = Math.max(loginRateLimiter.checkUsername(attemptKey),
+                loginAttemptService.lockedForSeconds(attemptKey));
+        if (retryAfter > 0) {
+            audit(AuditRecord.Type.LOGIN, false, null, username, "throttled ip=" + getClientIP(request));
+            throw new TooManyRequestsException("Too many login attempts, try again later", retryAfter);
+        }
+
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)
+            );
+        } catch (AuthenticationException ex) {
+            loginAttemptService.loginFailed(attemptKey);
+            audit(AuditRecord.Type.LOGIN, false, null, username,
+                    ex.getClass().getSimpleName() + " ip=" + getClientIP(request));
+            throw ex;
+        }
+
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        if (principal.isMfaEnabled() && !(skipMfaOnKnownDevice && deviceFingerprintService.isKnown(
+                principal.getTenantId(), principal.getId(), request.getHeader("User-Agent"), getClientIP(request)))) {
+            // Failed attempts are only reset once the second factor passes, so
+            // a known password cannot be used to keep guessing codes
+            log.info("Password accepted, MFA pending for user: {}", username);
+            return LoginResult.mfaRequired(tokenProvider.generateMfaChallengeToken(principal),
+                    tokenProvider.getMfaChallengeTtlSeconds());
+        }
+        loginAttemptService.loginSucceeded(attemptKey);
+
+        return LoginResult.complete(transactionTemplate.execute(status -> startSession(principal, request, false)));
+    }
+
+    /**
+     * Second login step: exchanges the challenge token and a TOTP code for
+     * tokens. The user, secret included, is read in a single query, which is
+     * also the one needed to build the principal.
+     */
     @Transactional
-    public String login(String username, String password, HttpServletRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
+    public TokenPair verifyMfa(String mfaToken, String code, HttpServletRequest request) {
+        Claims claims = tokenProvider.isWellFormed(mfaToken)
+                ? tokenProvider.verifyToken(mfaToken).filter(tokenProvider::isMfaChallenge).orElse(null)
+                : null;
+        if (claims == null) {
+            throw new UnauthorizedException("Invalid or expired MFA token");
+        }
 
-        SecurityContextHolder.getContext().setAuthentication(authentication);
+        String tenant = tokenProvider.getTenantFromClaims(claims);
+        TenantContext.set(tenant);
+        UUID userId = UUID.fromString(claims.getSubject());
 
-        String jwt = tokenProvider.generateToken(authentication);
+        User user = userRepository.findWithAuthoritiesByIdAndTenantId(userId, tenant)
+                .filter(candidate -> Boolean.TRUE.equals(candidate.getMfaEnabled()))
+                .orElseThrow(() -> new UnauthorizedException("Invalid or expired MFA token"));
 
-        // Save token to MongoDB
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        String attemptKey = CustomUserDetailsService.lockoutKey(tenant, user.getUsername());
+        long retryAfter = loginAttemptService.lockedForSeconds(attemptKey);
+        if (retryAfter > 0) {
+            audit(AuditRecord.Type.MFA, false, userId, user.getUsername(), "throttled ip=" + getClientIP(request));
+            throw new TooManyRequestsException("Too many login attempts, try again later", retryAfter);
+        }
 
-        TokenDocument tokenDocument = new TokenDocument();
-        tokenDocument.setUserId(user.getId());
-        tokenDocument.setToken(jwt);
-        tokenDocument.setIssuedAt(LocalDateTime.now());
-        tokenDocument.setExpiresAt(
-                tokenProvider.getExpirationDateFromToken(jwt)
-                        .toInstant()
-                        .atZone(ZoneId.systemDefault())
-                        .toLocalDateTime()
+        if (!mfaService.verifyCode(userId, user.getMfaSecret(), code)) {
+            loginAttemptService.loginFailed(attemptKey);
+            audit(AuditRecord.Type.MFA, false, userId, user.getUsername(), "ip=" + getClientIP(request));
+            throw new UnauthorizedException("Invalid verification code");
+        }
+        loginAttemptService.loginSucceeded(attemptKey);
+
+        UserPrincipal principal = UserPrincipal.create(user);
+        if (!principal.isEnabled()) {
+            throw new UnauthorizedException("User account is disabled");
+        }
+        audit(AuditRecord.Type.MFA, true, userId, user.getUsername(), "ip=" + getClientIP(request));
+
+        return startSession(principal, request, true);
+    }
+
+    @Transactional
+    public TokenPair refresh(String refreshToken, HttpServletRequest request) {
+        if (!StringUtils.hasText(refreshToken)) {
+            throw new UnauthorizedException("Refresh token is required");
+        }
+
+        String tokenHash = tokenProvider.hashRefreshToken(refreshToken);
+
+        // Atomically mark the token as rotated so that two concurrent refreshes
+        // with the same token can never both succeed. Expiry is part of the
+        // match, so an expired token is never rotated.
+        LocalDateTime now = LocalDateTime.now();
+        RefreshTokenDocument current = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("tokenHash").is(tokenHash)
+                        .and("rotated").is(false)
+                        .and("revoked").is(false)
+                        .and("expiresAt").gt(now)),
+                new Update().set("rotated", true).set("rotatedAt", now),
+                RefreshTokenDocument.class
         );
-        tokenDocument.setRevoked(false);
-        tokenDocument.setIpAddress(getClientIP(request));
-        tokenDocument.setUserAgent(request.getHeader("User-Agent"));
 
-        tokenRepository.save(tokenDocument);
+        if (current == null) {
+            RefreshTokenDocument known = refreshTokenRepository.findByTokenHash(tokenHash).orElse(null);
+            if (known != null && !known.getExpiresAt().isAfter(now)) {
+                // A client retrying with an expired token is not an attack
+                throw new UnauthorizedException("Refresh token has expired");
+            }
+            if (known != null && Boolean.TRUE.equals(known.getRotated()) && !Boolean.TRUE.equals(known.getRevoked())) {
+                log.warn("Refresh token reuse detected for user: {}, revoking session family {}",
+                        known.getUserId(), known.getFamilyId());
+                sessionService.revokeSession(known.getUserId(), known.getFamilyId());
+                audit(AuditRecord.Type.TOKEN_REFRESH, false, known.getTenantId(), known.getUserId(), null,
+                        "reused session=" + known.getFamilyId());
+            }
+            throw new UnauthorizedException("Invalid refresh token");
+        }
+
+        String tenant = current.getTenantId() != null ? current.getTenantId() : TenantContext.DEFAULT_TENANT;
+        UserPrincipal principal = (UserPrincipal) customUserDetailsService.loadUserById(current.getUserId(), tenant);
+        if (!principal.isEnabled()) {
+            sessionService.revokeSession(current.getUserId(), current.getFamilyId());
+            throw new UnauthorizedException("User account is disabled");
+        }
+
+        // A locked account cannot renew either; the token is handed back so the
+        // session can continue once the lockout ends
+        long retryAfter = loginAttemptService.lockedForSeconds(
+                CustomUserDetailsService.lockoutKey(tenant, principal.getUsername()));
+        if (retryAfter > 0 || !principal.isAccountNonLocked()) {
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("tokenHash").is(tokenHash).and("rotated").is(true)),
+                    new Update().set("rotated", false).unset("rotatedAt"),
+                    RefreshTokenDocument.class);
+            audit(AuditRecord.Type.TOKEN_REFRESH, false, tenant, principal.getId(), principal.getUsername(),
+                    "locked session=" + current.getFamilyId());
+            throw new TooManyRequestsException("Account is temporarily locked, try again later", Math.max(retryAfter, 1L));
+        }
 
-        log.info("User logged in: {}", username);
-        return jwt;
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+
+        TokenPair tokens = issueTokens(authentication, current.getFamilyId(), request);
+        sessionService.touchSession(current.getUserId(), current.getFamilyId(), getClientIP(request));
+        audit(AuditRecord.Type.TOKEN_REFRESH, true, tenant, principal.getId(), principal.getUsername(),
+                "session=" + current.getFamilyId());
+
+        log.info("Tokens refreshed for user: {}", principal.getUsername());
+        return tokens;
     }
 
     @Transactional
@@ -104,6 +276,16 @@ public class AuthService {
         tokenDocument.setRevoked(true);
         tokenRepository.save(tokenDocument);
 
+        // Logging out also ends the refresh token family of this session
+        if (tokenDocument.getFamilyId() != null) {
+            sessionService.revokeSession(tokenDocument.getUserId(), tokenDocument.getFamilyId());
+        }
+
+        securityEventService.userEvent("USER_LOGGED_OUT", tokenDocument.getUserId(),
+                tokenDocument.getFamilyId() != null ? Map.of("sessionId", tokenDocument.getFamilyId()) : Map.of());
+        audit(AuditRecord.Type.LOGOUT, true, tokenDocument.getTenantId(), tokenDocument.getUserId(), null,
+                "session=" + tokenDocument.getFamilyId());
+
         SecurityContextHolder.clearContext();
         log.info("User logged out");
     }
@@ -116,20 +298,139 @@ public class AuthService {
                     tokenRepository.save(token);
                 });
 
+        mongoTemplate.updateMulti(
+                Query.query(Criteria.where("userId").is(userId).and("revoked").is(false)),
+                new Update().set("revoked", true),
+                RefreshTokenDocument.class
+        );
+        sessionService.revokeAllSessions(userId);
+        securityEventService.userEvent("USER_TOKENS_REVOKED", userId, Map.of());
+        audit(AuditRecord.Type.TOKENS_REVOKED, true, userId, null, null);
+
         log.info("All tokens revoked for user: {}", userId);
     }
 
+    /**
+     * Staged validation: structural check, then in-memory signature and expiry
+     * verification, and only then the revocation lookup in Mongo.
+     */
+    public TokenValidation validateToken(String token) {
+        if (!tokenProvider.isWellFormed(token)) {
+            return TokenValidation.invalid("Malformed token");
+        }
+
+        Claims claims;
+        try {
+            claims = tokenProvider.getClaimsFromToken(token);
+        } catch (ExpiredJwtException ex) {
+            return TokenValidation.invalid("Token has expired");
+        } catch (JwtException | IllegalArgumentException ex) {
+            return TokenValidation.invalid("Invalid token");
+        }
+
+        if (!tokenRepository.existsByTokenAndRevokedFalse(token)) {
+            return TokenValidation.invalid("Token has been revoked");
+        }
+
+        long expiresIn = Duration.between(Instant.now(), claims.getExpiration().toInstant()).getSeconds();
+        return TokenValidation.valid(Math.max(expiresIn, 0L));
+    }
+
     public boolean isTokenRevoked(String token) {
         return tokenRepository.findByToken(token)
                 .map(TokenDocument::getRevoked)
                 .orElse(true);
     }
 
-    private String getClientIP(HttpServletRequest request) {
-        String xfHeader = request.getHeader("X-Forwarded-For");
-        if (xfHeader == null) {
-            return request.getRemoteAddr();
+    // A passed second factor already is the step-up an unknown device would ask for. Users
+    // without MFA have no second factor to step up to: stepUpRequired is only advice to the client.
+    private TokenPair startSession(UserPrincipal principal, HttpServletRequest request, boolean mfaVerified) {
+        Authentication authentication =
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+
+        String sessionId = UUID.randomUUID().toString();
+
+        TokenPair tokens = issueTokens(authentication, sessionId, request);
+        sessionService.registerSession(principal.getTenantId(), principal.getId(), sessionId,
+                getClientIP(request), request.getHeader("User-Agent"));
+
+        DeviceFingerprintService.Assessment device = deviceFingerprintService.assess(principal.getTenantId(),
+                principal.getId(), request.getHeader("User-Agent"), getClientIP(request));
+        tokens.setStepUpRequired(device.stepUpRequired() && !mfaVerified);
+        if (!device.knownDevice()) {
+            securityEventService.userEvent("USER_NEW_DEVICE", principal.getId(),
+                    Map.of("fingerprint", device.fingerprint(), "ipAddress", getClientIP(request),
+                            "stepUpRequired", tokens.isStepUpRequired()));
         }
-        return xfHeader.split(",")[0];
+
+        securityEventService.userEvent("USER_LOGGED_IN", principal.getId(),
+                Map.of("sessionId", sessionId, "ipAddress", getClientIP(request), "mfa", mfaVerified));
+        audit(AuditRecord.Type.LOGIN, true, principal.getId(), principal.getUsername(),
+                "session=" + sessionId + " ip=" + getClientIP(request)
+                        + (device.knownDevice() ? "" : " new-device=" + device.fingerprint()));
+
+        log.info("User logged in: {}", principal.getUsername());
+        return tokens;
+    }
+
+    // Authentication events are rare next to access checks, so they wait for the disk
+    private void audit(AuditRecord.Type type, boolean success, UUID userId, String username, String detail) {
+        audit(type, success, TenantContext.get(), userId, username, detail);
+    }
+
+    private void audit(AuditRecord.Type type, boolean success, String tenantId, UUID userId, String username,
+                       String detail) {
+        auditLog.append(new AuditRecord(Instant.now(), type, success, tenantId, userId, username, detail), true);
+    }
+
+    private String getClientIP(HttpServletRequest request) {
+        return ClientIpResolver.resolve(request);
+    }
+
+    private TokenPair issueTokens(Authentication authentication, String familyId, HttpServletRequest request) {
+        UserPrincipal principal = (UserPrincipal) authentication.getPrincipal();
+        String ipAddress = getClientIP(request);
+        String userAgent = request.getHeader("User-Agent");
+        LocalDateTime now = LocalDateTime.now();
+
+        String jwt = tokenProvider.generateToken(authentication);
+
+        // Save access token to MongoDB
+        TokenDocument tokenDocument = new TokenDocument();
+        tokenDocument.setTenantId(principal.getTenantId());
+        tokenDocument.setUserId(principal.getId());
+        tokenDocument.setFamilyId(familyId);
+        tokenDocument.setToken(jwt);
+        tokenDocument.setIssuedAt(now);
+        tokenDocument.setExpiresAt(
+                tokenProvider.getExpirationDateFromToken(jwt)
+                        .toInstant()
+                        .atZone(ZoneId.systemDefault())
+                        .toLocalDateTime()
+        );
+        tokenDocument.setRevoked(false);
+        tokenDocument.setIpAddress(ipAddress);
+        tokenDocument.setUserAgent(userAgent);
+
+        tokenRepository.save(tokenDocument);
+
+        String refreshToken = tokenProvider.generateRefreshToken();
+
+        RefreshTokenDocument refreshTokenDocument = new RefreshTokenDocument();
+        refreshTokenDocument.setTenantId(principal.getTenantId());
+        refreshTokenDocument.setUserId(principal.getId());
+        refreshTokenDocument.setFamilyId(familyId);
+        refreshTokenDocument.setTokenHash(tokenProvider.hashRefreshToken(refreshToken));
+        refreshTokenDocument.setIssuedAt(now);
+        refreshTokenDocument.setExpiresAt(now.plus(Duration.ofMillis(tokenProvider.getRefreshExpiration())));
+        refreshTokenDocument.setRotated(false);
+        refreshTokenDocument.setRevoked(false);
+        refreshTokenDocument.setIpAddress(ipAddress);
+        refreshTokenDocument.setUserAgent(userAgent);
+
+        refreshTokenRepository.save(refreshTokenDocument);
+
+        return new TokenPair(jwt, refreshToken, tokenProvider.getAccessExpiration() / 1000);
     }
 }
\ No newline at end of file
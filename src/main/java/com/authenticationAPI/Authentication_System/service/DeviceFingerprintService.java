@@ -0,0 +1,272 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.KnownDeviceDocument;
+import com.authenticationAPI.Authentication_System.model.KnownDeviceDocument.DeviceEntry;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantPartitionedCache;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies each login as coming from one of the user's recent devices or a
+ * new one. Each user's devices are a small LRU held in memory and written
+ * behind to the known_devices collection; Mongo is only read when a user's
+ * devices are not in memory yet, so a login from a known device costs a hash
+ * and a map lookup.
+ * <p>
+ * Writes touch one device each ({@code $max} on its last-seen time), so they
+ * commute: instances can write in any order without losing each other's
+ * devices. The write-behind queue is bounded; a dropped write only means the
+ * device is written again on a later login.
+ */
+@Slf4j
+@Service
+public class DeviceFingerprintService {
+
+    // Browser and OS updates change version numbers, not the device
+    private static final Pattern VERSION = Pattern.compile("\\d+(\\.\\d+)*");
+
+    private final MongoTemplate mongoTemplate;
+    private final TenantPartitionedCache<UUID, KnownDevices> knownDeviceCache;
+    private final ObjectProvider<NewDeviceListener> listeners;
+    private final int maxDevicesPerUser;
+    private final long touchIntervalMillis;
+    private final boolean stepUpOnFirstDevice;
+    private final ExecutorService writer;
+    private final AtomicLong droppedWrites = new AtomicLong();
+
+    public DeviceFingerprintService(MongoTemplate mongoTemplate,
+                                    TenantPartitionedCache<UUID, KnownDevices> knownDeviceCache,
+                                    ObjectProvider<NewDeviceListener> listeners,
+                                    @Value("${auth.device.max-per-user:10}") int maxDevicesPerUser,
+                                    @Value("${auth.device.touch-interval-hours:24}") long touchIntervalHours,
+                                    @Value("${auth.device.step-up-on-first-device:false}") boolean stepUpOnFirstDevice,
+                                    @Value("${auth.device.write-queue-capacity:10000}") int writeQueueCapacity) {
+        this.mongoTemplate = mongoTemplate;
+        this.knownDeviceCache = knownDeviceCache;
+        this.listeners = listeners;
+        this.maxDevicesPerUser = maxDevicesPerUser;
+        this.touchIntervalMillis = Duration.ofHours(touchIntervalHours).toMillis();
+        this.stepUpOnFirstDevice = stepUpOnFirstDevice;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(writeQueueCapacity, 1)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "known-device-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                (task, executor) -> {
+                    long dropped = droppedWrites.incrementAndGet();
+                    if (Long.bitCount(dropped) == 1) {
+                        log.warn("Known device write queue is full, {} writes dropped so far", dropped);
+                    }
+                });
+    }
+
+    /**
+     * Records the login's device and says whether it was known. Step-up is
+     * required for unknown devices, except the very first one a user is seen
+     * with unless {@code auth.device.step-up-on-first-device} is set.
+     */
+    public Assessment assess(String tenantId, UUID userId, String userAgent, String ipAddress) {
+        String fingerprint = fingerprint(userAgent, ipAddress);
+
+        KnownDevices devices = knownDeviceCache.get(tenantId, userId, this::load);
+        KnownDevices.Seen seen = devices.see(fingerprint, userAgent, touchIntervalMillis);
+        if (seen != KnownDevices.Seen.KNOWN) {
+            writeBehind(tenantId, userId, fingerprint, userAgent, seen == KnownDevices.Seen.NEW);
+        }
+        if (seen != KnownDevices.Seen.NEW) {
+            return new Assessment(fingerprint, true, false);
+        }
+
+        boolean stepUp = devices.size() > 1 || stepUpOnFirstDevice;
+        listeners.orderedStream().forEach(listener -> {
+            try {
+                listener.onNewDevice(tenantId, userId, userAgent, ipAddress, stepUp);
+            } catch (RuntimeException e) {
+                log.warn("New device listener failed for user {}: {}", userId, e.getMessage());
+            }
+        });
+        return new Assessment(fingerprint, false, stepUp);
+    }
+
+    /**
+     * Whether the login comes from one of the user's known devices. Unlike
+     * {@link #assess}, nothing is recorded, so a login that has not finished
+     * yet (an MFA challenge) cannot make its device known.
+     */
+    public boolean isKnown(String tenantId, UUID userId, String userAgent, String ipAddress) {
+        return knownDeviceCache.get(tenantId, userId, this::load).contains(fingerprint(userAgent, ipAddress));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+    }
+
+    static String fingerprint(String userAgent, String ipAddress) {
+        String agent = userAgent == null ? "" : VERSION.matcher(userAgent.strip().toLowerCase()).replaceAll("");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((agent + '\u0000' + networkPrefix(ipAddress)).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    // /24 for IPv4 and /48 for IPv6, so a new DHCP lease on the same network is the same device
+    static String networkPrefix(String ipAddress) {
+        if (ipAddress == null || ipAddress.isBlank()) {
+            return "";
+        }
+        String literal = ipAddress.strip();
+        if (!literal.contains(":") && !literal.matches("[0-9.]+")) {
+            return literal;
+        }
+        try {
+            // Only literals reach here, so there is no name lookup
+            byte[] address = InetAddress.getByName(literal).getAddress();
+            int keep = address.length == 4 ? 3 : 6;
+            return HexFormat.of().formatHex(address, 0, keep);
+        } catch (UnknownHostException e) {
+            return literal;
+        }
+    }
+
+    private KnownDevices load(UUID userId) {
+        KnownDeviceDocument document = mongoTemplate.findById(userId.toString(), KnownDeviceDocument.class);
+        KnownDevices devices = new KnownDevices(maxDevicesPerUser);
+        if (document == null) {
+            return devices;
+        }
+
+        List<DeviceEntry> stored = new ArrayList<>(document.getDevices());
+        document.getEntries().forEach((fingerprint, entry) -> {
+            entry.setFingerprint(fingerprint);
+            stored.add(entry);
+        });
+        stored.sort(Comparator.comparing(DeviceEntry::getLastSeenAt));
+        stored.forEach(devices::restore);
+
+        // Devices learned on other instances can push the document past the cap
+        int excess = document.getEntries().size() - maxDevicesPerUser;
+        if (excess > 0) {
+            Update trim = new Update();
+            document.getEntries().values().stream()
+                    .sorted(Comparator.comparing(DeviceEntry::getLastSeenAt))
+                    .limit(excess)
+                    .forEach(entry -> trim.unset("entries." + entry.getFingerprint()));
+            submit(userId, () -> mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(userId.toString())), trim, KnownDeviceDocument.class));
+        }
+        return devices;
+    }
+
+    private void writeBehind(String tenantId, UUID userId, String fingerprint, String userAgent, boolean isNew) {
+        LocalDateTime now = LocalDateTime.now();
+        String path = "entries." + fingerprint;
+        Update update = new Update()
+                .setOnInsert("tenantId", tenantId)
+                .max(path + ".lastSeenAt", now);
+        if (isNew) {
+            update.min(path + ".firstSeenAt", now).set(path + ".userAgent", userAgent);
+        }
+        submit(userId, () -> mongoTemplate.upsert(
+                Query.query(Criteria.where("_id").is(userId.toString())), update, KnownDeviceDocument.class));
+    }
+
+    private void submit(UUID userId, Runnable write) {
+        writer.execute(() -> {
+            try {
+                write.run();
+            } catch (RuntimeException e) {
+                log.warn("Could not save known devices for user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    public record Assessment(String fingerprint, boolean knownDevice, boolean stepUpRequired) {
+    }
+
+    /**
+     * One user's recent devices, least recently used first.
+     */
+    public static final class KnownDevices {
+
+        enum Seen { KNOWN, TOUCHED, NEW }
+
+        private final LinkedHashMap<String, DeviceEntry> devices;
+
+        KnownDevices(int maxDevices) {
+            this.devices = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, DeviceEntry> eldest) {
+                    return size() > maxDevices;
+                }
+            };
+        }
+
+        // TOUCHED means known, but the stored last-seen time is stale enough to be written
+        synchronized Seen see(String fingerprint, String userAgent, long touchIntervalMillis) {
+            LocalDateTime now = LocalDateTime.now();
+            DeviceEntry entry = devices.get(fingerprint);
+            if (entry == null) {
+                devices.put(fingerprint, new DeviceEntry(fingerprint, userAgent, now, now));
+                return Seen.NEW;
+            }
+            if (Duration.between(entry.getLastSeenAt(), now).toMillis() < touchIntervalMillis) {
+                return Seen.KNOWN;
+            }
+            entry.setLastSeenAt(now);
+            return Seen.TOUCHED;
+        }
+
+        synchronized boolean contains(String fingerprint) {
+            return devices.containsKey(fingerprint);
+        }
+
+        synchronized int size() {
+            return devices.size();
+        }
+
+        synchronized void restore(DeviceEntry entry) {
+            devices.put(entry.getFingerprint(), entry);
+        }
+
+        synchronized List<DeviceEntry> snapshot() {
+            List<DeviceEntry> copy = new ArrayList<>(devices.size());
+            devices.values().forEach(entry -> copy.add(new DeviceEntry(entry.getFingerprint(), entry.getUserAgent(),
+                    entry.getFirstSeenAt(), entry.getLastSeenAt())));
+            return copy;
+        }
+    }
+}
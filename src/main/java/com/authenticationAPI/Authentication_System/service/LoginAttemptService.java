@@ -0,0 +1,143 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tracks consecutive failed logins per username and locks the account with
+ * an exponentially growing lockout once the threshold is reached.
+ * <p>
+ * Usernames are spread over independent stripes, like {@code RateLimiter},
+ * and each entry is replaced atomically with {@code compute}, so a flood of
+ * failures on some usernames never serializes checks on others. At most
+ * {@code auth.rate-limit.max-keys} usernames are tracked. A full stripe drops
+ * idle entries first, then the unlocked ones that failed longest ago; locked
+ * entries are only dropped when nothing else is left.
+ */
+@Slf4j
+@Service
+public class LoginAttemptService {
+
+    private static final int STRIPES = 16;
+
+    private final ConcurrentHashMap<String, Attempts>[] stripes;
+
+    @Value("${auth.lockout.threshold:5}")
+    private int threshold;
+
+    @Value("${auth.lockout.base-duration-seconds:30}")
+    private long baseDurationSeconds;
+
+    @Value("${auth.lockout.max-duration-seconds:3600}")
+    private long maxDurationSeconds;
+
+    @Value("${auth.rate-limit.max-keys:100000}")
+    private int maxKeys;
+
+    @SuppressWarnings("unchecked")
+    public LoginAttemptService() {
+        this.stripes = new ConcurrentHashMap[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public boolean isLocked(String username) {
+        return lockedForSeconds(username) > 0;
+    }
+
+    public long lockedForSeconds(String username) {
+        Attempts current = stripeFor(username).get(username);
+        if (current == null) {
+            return 0L;
+        }
+        long remaining = current.lockedUntil() - System.currentTimeMillis();
+        return remaining > 0 ? TimeUnit.MILLISECONDS.toSeconds(remaining) + 1 : 0L;
+    }
+
+    public void loginFailed(String username) {
+        long now = System.currentTimeMillis();
+        ConcurrentHashMap<String, Attempts> stripe = stripeFor(username);
+        if (!stripe.containsKey(username)) {
+            evictIfFull(stripe, now);
+        }
+
+        Attempts next = stripe.compute(username, (key, current) -> {
+            Attempts base = current != null ? current : Attempts.NONE;
+            if (base.failures() + 1 < threshold) {
+                return new Attempts(base.failures() + 1, base.lockouts(), base.lockedUntil(), now);
+            }
+            long duration = Math.min(baseDurationSeconds << Math.min(base.lockouts(), 20), maxDurationSeconds);
+            return new Attempts(0, base.lockouts() + 1, now + TimeUnit.SECONDS.toMillis(duration), now);
+        });
+
+        if (next.failures() == 0) {
+            log.warn("Account locked for {}s after repeated failed logins: {}",
+                    TimeUnit.MILLISECONDS.toSeconds(next.lockedUntil() - now), username);
+        }
+    }
+
+    public void loginSucceeded(String username) {
+        stripeFor(username).remove(username);
+    }
+
+    int trackedCount() {
+        int size = 0;
+        for (Map<String, Attempts> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    private ConcurrentHashMap<String, Attempts> stripeFor(String username) {
+        int hash = username.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    // Frees a tenth of the stripe at once so a full stripe is not rescanned on every failure
+    private void evictIfFull(ConcurrentHashMap<String, Attempts> stripe, long now) {
+        int capacity = Math.max(maxKeys / STRIPES, 1);
+        if (stripe.size() < capacity) {
+            return;
+        }
+
+        long idleMillis = TimeUnit.SECONDS.toMillis(maxDurationSeconds);
+        stripe.values().removeIf(entry -> entry.lockedUntil() < now && now - entry.lastFailure() > idleMillis);
+
+        int target = capacity - Math.max(capacity / 10, 1);
+        if (stripe.size() > target) {
+            List<Map.Entry<String, Attempts>> unlocked = new ArrayList<>();
+            stripe.entrySet().forEach(entry -> {
+                if (entry.getValue().lockedUntil() < now) {
+                    unlocked.add(Map.entry(entry.getKey(), entry.getValue()));
+                }
+            });
+            unlocked.sort(Comparator.comparingLong(entry -> entry.getValue().lastFailure()));
+            for (Iterator<Map.Entry<String, Attempts>> oldestFirst = unlocked.iterator();
+                 stripe.size() > target && oldestFirst.hasNext(); ) {
+                Map.Entry<String, Attempts> entry = oldestFirst.next();
+                // Skips entries that failed again since the scan
+                stripe.remove(entry.getKey(), entry.getValue());
+            }
+        }
+
+        Iterator<String> keys = stripe.keySet().iterator();
+        while (stripe.size() > target && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Attempts(int failures, int lockouts, long lockedUntil, long lastFailure) {
+        private static final Attempts NONE = new Attempts(0, 0, 0L, 0L);
+    }
+}
@@ -0,0 +1,141 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.User;
+import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.Totp;
+import com.authenticationAPI.Authentication_System.securityComponent.TotpReplayCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * TOTP enrollment and code checks. Enrollment stores a secret without
+ * enabling it; only a correct code from the authenticator app turns MFA on,
+ * so a user cannot lock themselves out with a secret they never saved.
+ */
+@Slf4j
+@Service
+public class MfaService {
+
+    private final UserRepository userRepository;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityEventService securityEventService;
+    private final LoginAttemptService loginAttemptService;
+    private final TotpReplayCache replayCache;
+    private final String issuer;
+    private final int windowSteps;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public MfaService(UserRepository userRepository,
+                      CustomUserDetailsService customUserDetailsService,
+                      SecurityEventService securityEventService,
+                      LoginAttemptService loginAttemptService,
+                      @Value("${auth.mfa.issuer:AuthService}") String issuer,
+                      @Value("${auth.mfa.window-steps:1}") int windowSteps,
+                      @Value("${auth.mfa.replay-cache.max-entries:100000}") int replayCacheMaxEntries) {
+        this.userRepository = userRepository;
+        this.customUserDetailsService = customUserDetailsService;
+        this.securityEventService = securityEventService;
+        this.loginAttemptService = loginAttemptService;
+        this.issuer = issuer;
+        this.windowSteps = windowSteps;
+        this.replayCache = new TotpReplayCache(replayCacheMaxEntries, windowSteps);
+    }
+
+    /**
+     * Starts (or restarts) enrollment and returns the secret and the otpauth
+     * URI for the authenticator app.
+     */
+    @Transactional
+    public Map<String, String> enroll(UUID userId) {
+        User user = getUser(userId);
+        if (Boolean.TRUE.equals(user.getMfaEnabled())) {
+            throw new RuntimeException("MFA is already enabled");
+        }
+
+        String secret = Totp.generateSecret(secureRandom);
+        user.setMfaSecret(secret);
+        userRepository.save(user);
+        log.info("MFA enrollment started for user: {}", user.getUsername());
+
+        return Map.of("secret", secret, "otpauthUri", Totp.otpauthUri(issuer, user.getUsername(), secret));
+    }
+
+    @Transactional
+    public void activate(UUID userId, String code) {
+        User user = getUser(userId);
+        if (Boolean.TRUE.equals(user.getMfaEnabled())) {
+            throw new RuntimeException("MFA is already enabled");
+        }
+        if (user.getMfaSecret() == null) {
+            throw new RuntimeException("Start MFA enrollment first");
+        }
+        requireCode(user, code);
+
+        user.setMfaEnabled(true);
+        userRepository.save(user);
+        customUserDetailsService.evictPrincipal(user.getTenantId(), userId);
+        securityEventService.userEvent("USER_MFA_ENABLED", userId, Map.of());
+        log.info("MFA enabled for user: {}", user.getUsername());
+    }
+
+    @Transactional
+    public void disable(UUID userId, String code) {
+        User user = getUser(userId);
+        if (!Boolean.TRUE.equals(user.getMfaEnabled())) {
+            throw new RuntimeException("MFA is not enabled");
+        }
+        requireCode(user, code);
+
+        user.setMfaEnabled(false);
+        user.setMfaSecret(null);
+        userRepository.save(user);
+        customUserDetailsService.evictPrincipal(user.getTenantId(), userId);
+        securityEventService.userEvent("USER_MFA_DISABLED", userId, Map.of());
+        log.info("MFA disabled for user: {}", user.getUsername());
+    }
+
+    /**
+     * Checks a code against the secret without touching the database. A code
+     * is accepted at most once per user and time step.
+     */
+    public boolean verifyCode(UUID userId, String secret, String code) {
+        if (secret == null) {
+            return false;
+        }
+        long currentStep = Totp.step(System.currentTimeMillis());
+        long step = Totp.matchingStep(secret, code, currentStep, windowSteps);
+        if (step < 0) {
+            return false;
+        }
+        if (!replayCache.markUsed(userId, step, currentStep)) {
+            log.warn("Rejected replayed MFA code for user: {}", userId);
+            return false;
+        }
+        return true;
+    }
+
+    // Wrong codes count towards the same lockout as wrong passwords
+    private void requireCode(User user, String code) {
+        String attemptKey = CustomUserDetailsService.lockoutKey(user.getTenantId(), user.getUsername());
+        if (loginAttemptService.isLocked(attemptKey)) {
+            throw new RuntimeException("Too many attempts, try again later");
+        }
+        if (!verifyCode(user.getId(), user.getMfaSecret(), code)) {
+            loginAttemptService.loginFailed(attemptKey);
+            throw new RuntimeException("Invalid verification code");
+        }
+    }
+
+    private User getUser(UUID userId) {
+        return userRepository.findByIdAndTenantId(userId, TenantContext.get())
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+    }
+}
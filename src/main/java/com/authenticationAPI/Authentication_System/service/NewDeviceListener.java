@@ -0,0 +1,13 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import java.util.UUID;
+
+/**
+ * Notified when a user logs in from a device that is not among their recent
+ * ones, for example to send a "new sign-in" email. Runs on the login thread,
+ * so slow work should be handed off.
+ */
+public interface NewDeviceListener {
+
+    void onNewDevice(String tenantId, UUID userId, String userAgent, String ipAddress, boolean stepUpRequired);
+}
@@ -0,0 +1,87 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.OutboxEvent;
+import com.authenticationAPI.Authentication_System.repo.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves committed outbox events to the sink in id order, one locked batch
+ * per transaction. A failed publish rolls the batch back and stops the run,
+ * so later events never overtake it; delivery is at least once.
+ * <p>
+ * Each batch also numbers its first-time events with the next publishedSeq
+ * values. Batches lock the oldest unpublished rows, so relays on different
+ * instances run one after another and sequence numbers become visible in
+ * increasing order, which makes publishedSeq a gap-free cursor for readers.
+ */
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final SecurityEventSink sink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, SecurityEventSink sink,
+                       TransactionTemplate transactionTemplate, int batchSize, int maxBatchesPerRun,
+                       Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${auth.outbox.relay-interval-ms:1000}")
+    public void relay() {
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Outbox relay stopped, will retry: {}", e.getMessage());
+        }
+    }
+
+    public int relayBatch() {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findUnpublished(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            sink.publish(batch);
+            outboxEventRepository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+
+            long seq = outboxEventRepository.findMaxPublishedSeq();
+            for (OutboxEvent event : batch) {
+                if (event.getPublishedSeq() == null) {
+                    outboxEventRepository.assignPublishedSeq(event.getId(), ++seq);
+                }
+            }
+            return batch.size();
+        });
+        return relayed != null ? relayed : 0;
+    }
+
+    // Delivered events stay around for replay until the retention period ends
+    @Scheduled(fixedDelayString = "${auth.outbox.purge-interval-ms:3600000}")
+    public void purge() {
+        Integer purged = transactionTemplate.execute(status ->
+                outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention)));
+        if (purged != null && purged > 0) {
+            log.info("Purged {} delivered outbox events", purged);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.Permission;
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains each role's effective permission set: its own permissions plus
+ * those of every ancestor. All hierarchy walking happens here, on writes, so
+ * authentication only ever reads the precomputed set.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RoleHierarchyService {
+
+    private final RoleRepository roleRepository;
+
+    /**
+     * Rejects parent edges that would make a role its own ancestor.
+     */
+    public void checkNoCycle(Role role, Collection<Role> newParents) {
+        Map<Long, Role> roles = byId(roleRepository.findAllWithHierarchy());
+        for (Role parent : newParents) {
+            if (parent.getId().equals(role.getId()) || ancestorIds(roles.get(parent.getId()), roles).contains(role.getId())) {
+                throw new RuntimeException("Role " + parent.getName() + " cannot be a parent of "
+                        + role.getName() + ": it would create a cycle");
+            }
+        }
+    }
+
+    /**
+     * Recomputes the effective permissions of the changed roles and everything
+     * that inherits from them, parents before children. Other roles are untouched.
+     */
+    @Transactional
+    public void recompute(Collection<Role> changed) {
+        List<Role> all = roleRepository.findAllWithHierarchy();
+        Map<Long, Role> roles = byId(all);
+        Map<Long, List<Role>> children = childrenIndex(all);
+
+        Set<Long> affected = new LinkedHashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        changed.forEach(role -> pending.add(role.getId()));
+        while (!pending.isEmpty()) {
+            Long id = pending.poll();
+            if (affected.add(id)) {
+                children.getOrDefault(id, List.of()).forEach(child -> pending.add(child.getId()));
+            }
+        }
+
+        int updated = 0;
+        Map<Long, Set<Permission>> computed = new HashMap<>();
+        for (Role role : topologicalOrder(affected, roles)) {
+            Set<Permission> effective = new HashSet<>(role.getPermissions());
+            for (Role parent : role.getParents()) {
+                Set<Permission> inherited = computed.get(parent.getId());
+                effective.addAll(inherited != null ? inherited : parent.getEffectivePermissions());
+            }
+            computed.put(role.getId(), effective);
+
+            if (!effective.equals(role.getEffectivePermissions())) {
+                role.getEffectivePermissions().retainAll(effective);
+                role.getEffectivePermissions().addAll(effective);
+                updated++;
+            }
+        }
+        log.debug("Recomputed effective permissions for {} roles, {} changed", affected.size(), updated);
+    }
+
+    @Transactional
+    public void rebuildAll() {
+        recompute(roleRepository.findAllWithHierarchy());
+    }
+
+    // Kahn's algorithm restricted to the affected roles
+    private static List<Role> topologicalOrder(Set<Long> affected, Map<Long, Role> roles) {
+        Map<Long, Integer> pendingParents = new HashMap<>();
+        Map<Long, List<Long>> childrenOf = new HashMap<>();
+        for (Long id : affected) {
+            int count = 0;
+            for (Role parent : roles.get(id).getParents()) {
+                if (affected.contains(parent.getId())) {
+                    count++;
+                    childrenOf.computeIfAbsent(parent.getId(), k -> new ArrayList<>()).add(id);
+                }
+            }
+            pendingParents.put(id, count);
+        }
+
+        Deque<Long> ready = new ArrayDeque<>();
+        pendingParents.forEach((id, count) -> {
+            if (count == 0) {
+                ready.add(id);
+            }
+        });
+
+        List<Role> order = new ArrayList<>(affected.size());
+        while (!ready.isEmpty()) {
+            Long id = ready.poll();
+            order.add(roles.get(id));
+            for (Long child : childrenOf.getOrDefault(id, List.of())) {
+                if (pendingParents.merge(child, -1, Integer::sum) == 0) {
+                    ready.add(child);
+                }
+            }
+        }
+
+        if (order.size() != affected.size()) {
+            throw new IllegalStateException("Role hierarchy contains a cycle");
+        }
+        return order;
+    }
+
+    private static Set<Long> ancestorIds(Role role, Map<Long, Role> roles) {
+        Set<Long> seen = new HashSet<>();
+        Deque<Role> pending = new ArrayDeque<>();
+        pending.add(role);
+        while (!pending.isEmpty()) {
+            for (Role parent : pending.poll().getParents()) {
+                if (seen.add(parent.getId())) {
+                    pending.add(roles.get(parent.getId()));
+                }
+            }
+        }
+        return seen;
+    }
+
+    private static Map<Long, Role> byId(List<Role> roles) {
+        Map<Long, Role> byId = new HashMap<>();
+        roles.forEach(role -> byId.put(role.getId(), role));
+        return byId;
+    }
+
+    private static Map<Long, List<Role>> childrenIndex(List<Role> roles) {
+        Map<Long, List<Role>> children = new HashMap<>();
+        for (Role role : roles) {
+            for (Role parent : role.getParents()) {
+                children.computeIfAbsent(parent.getId(), k -> new ArrayList<>()).add(role);
+            }
+        }
+        return children;
+    }
+}
@@ -4,12 +4,20 @@ import com.authenticationAPI.Authentication_System.model.Permission;
 import com.authenticationAPI.Authentication_System.model.Role;
 import com.authenticationAPI.Authentication_System.repo.PermissionRepository;
 import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.RoleAuthorityResolver;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 @Slf4j
@@ -19,28 +27,39 @@ public class RoleService {
 
     private final RoleRepository roleRepository;
     private final PermissionRepository permissionRepository;
+    private final RoleAuthorityResolver roleAuthorityResolver;
+    private final ApiKeyService apiKeyService;
+    private final RoleHierarchyService roleHierarchyService;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityEventService securityEventService;
 
     public List<Role> getAllRoles() {
-        return roleRepository.findAll();
+        return roleRepository.findAllVisible(TenantContext.get());
     }
 
     public Role getRoleById(Long id) {
         return roleRepository.findById(id)
+                .filter(role -> role.getTenantId() == null || role.getTenantId().equals(TenantContext.get()))
                 .orElseThrow(() -> new RuntimeException("Role not found with id: " + id));
     }
 
     public Role getRoleByName(String name) {
-        return roleRepository.findByName(name)
+        return roleRepository.findVisibleByName(name, TenantContext.get()).stream()
+                .findFirst()
                 .orElseThrow(() -> new RuntimeException("Role not found with name: " + name));
     }
 
     @Transactional
     public Role createRole(Role role) {
-        if (roleRepository.existsByName(role.getName())) {
+        if (!roleRepository.findVisibleByName(role.getName(), TenantContext.get()).isEmpty()) {
             throw new RuntimeException("Role already exists");
         }
 
+        role.setTenantId(owningTenant());
         Role savedRole = roleRepository.save(role);
+        roleHierarchyService.recompute(List.of(savedRole));
+        invalidateAuthorities();
+        securityEventService.roleEvent("ROLE_CREATED", savedRole, Map.of());
         log.info("Role created: {}", savedRole.getName());
 
         return savedRole;
@@ -48,16 +67,18 @@ public class RoleService {
 
     @Transactional
     public Role updateRole(Long id, Role roleDetails) {
-        Role role = getRoleById(id);
+        Role role = getOwnedRole(id);
 
         if (roleDetails.getName() != null && !roleDetails.getName().equals(role.getName())) {
-            if (roleRepository.existsByName(roleDetails.getName())) {
+            if (!roleRepository.findVisibleByName(roleDetails.getName(), TenantContext.get()).isEmpty()) {
                 throw new RuntimeException("Role name already exists");
             }
             role.setName(roleDetails.getName());
         }
 
         Role updatedRole = roleRepository.save(role);
+        invalidateAuthorities();
+        securityEventService.roleEvent("ROLE_UPDATED", updatedRole, Map.of());
         log.info("Role updated: {}", updatedRole.getName());
 
         return updatedRole;
@@ -65,14 +86,26 @@ public class RoleService {
 
     @Transactional
     public void deleteRole(Long id) {
-        Role role = getRoleById(id);
+        Role role = getOwnedRole(id);
+
+        // Detach children first; they lose whatever they inherited through this role
+        List<Role> children = new ArrayList<>();
+        for (Role candidate : roleRepository.findAllWithHierarchy()) {
+            if (candidate.getParents().remove(role)) {
+                children.add(candidate);
+            }
+        }
+        roleHierarchyService.recompute(children);
+
+        securityEventService.roleEvent("ROLE_DELETED", role, Map.of());
         roleRepository.delete(role);
+        invalidateAuthorities();
         log.info("Role deleted: {}", role.getName());
     }
 
     @Transactional
     public Role assignPermissionsToRole(Long roleId, Set<String> permissionNames) {
-        Role role = getRoleById(roleId);
+        Role role = getOwnedRole(roleId);
 
         Set<Permission> permissions = role.getPermissions();
         for (String permissionName : permissionNames) {
@@ -83,14 +116,17 @@ public class RoleService {
 
         role.setPermissions(permissions);
         Role updatedRole = roleRepository.save(role);
+        roleHierarchyService.recompute(List.of(updatedRole));
 
+        invalidateAuthorities();
+        securityEventService.roleEvent("ROLE_PERMISSIONS_ASSIGNED", updatedRole, Map.of("permissions", permissionNames));
         log.info("Permissions assigned to role: {}", role.getName());
         return updatedRole;
     }
 
     @Transactional
     public Role removePermissionsFromRole(Long roleId, Set<String> permissionNames) {
-        Role role = getRoleById(roleId);
+        Role role = getOwnedRole(roleId);
 
         Set<Permission> permissions = role.getPermissions();
         for (String permissionName : permissionNames) {
@@ -99,8 +135,66 @@ public class RoleService {
 
         role.setPermissions(permissions);
         Role updatedRole = roleRepository.save(role);
+        roleHierarchyService.recompute(List.of(updatedRole));
 
+        invalidateAuthorities();
+        securityEventService.roleEvent("ROLE_PERMISSIONS_REMOVED", updatedRole, Map.of("permissions", permissionNames));
         log.info("Permissions removed from role: {}", role.getName());
         return updatedRole;
     }
-}
\ No newline at end of file
+
+    @Transactional
+    public Role assignParentsToRole(Long roleId, Set<String> parentNames) {
+        Role role = getOwnedRole(roleId);
+
+        Set<Role> parents = new HashSet<>();
+        for (String parentName : parentNames) {
+            parents.add(getRoleByName(parentName));
+        }
+        roleHierarchyService.checkNoCycle(role, parents);
+
+        role.getParents().addAll(parents);
+        Role updatedRole = roleRepository.save(role);
+        roleHierarchyService.recompute(List.of(updatedRole));
+
+        invalidateAuthorities();
+        securityEventService.roleEvent("ROLE_PARENTS_ASSIGNED", updatedRole, Map.of("parents", parentNames));
+        log.info("Parents assigned to role: {}", role.getName());
+        return updatedRole;
+    }
+
+    @Transactional
+    public Role removeParentsFromRole(Long roleId, Set<String> parentNames) {
+        Role role = getOwnedRole(roleId);
+
+        role.getParents().removeIf(parent -> parentNames.contains(parent.getName()));
+        Role updatedRole = roleRepository.save(role);
+        roleHierarchyService.recompute(List.of(updatedRole));
+
+        invalidateAuthorities();
+        securityEventService.roleEvent("ROLE_PARENTS_REMOVED", updatedRole, Map.of("parents", parentNames));
+        log.info("Parents removed from role: {}", role.getName());
+        return updatedRole;
+    }
+
+    // Tenants manage their own roles; global roles belong to the default tenant
+    private Role getOwnedRole(Long id) {
+        Role role = getRoleById(id);
+        if (!Objects.equals(role.getTenantId(), owningTenant())) {
+            throw new AccessDeniedException("Global roles can only be changed by the default tenant");
+        }
+        return role;
+    }
+
+    private static String owningTenant() {
+        String tenant = TenantContext.get();
+        return TenantContext.DEFAULT_TENANT.equals(tenant) ? null : tenant;
+    }
+
+    // Every cached principal may carry permissions of the changed role
+    private void invalidateAuthorities() {
+        roleAuthorityResolver.invalidate();
+        customUserDetailsService.evictAllPrincipals();
+        apiKeyService.evictAll();
+    }
+}
@@ -0,0 +1,77 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.OutboxEvent;
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.repo.OutboxEventRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records security events into the outbox. Recording joins the caller's
+ * transaction, so an event exists exactly when its change was committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class SecurityEventService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JsonMapper jsonMapper;
+
+    @Value("${auth.outbox.replay.max-page:500}")
+    private int maxReplayPage;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userEvent(String eventType, UUID userId, Map<String, Object> data) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("userId", userId);
+        payload.putAll(data);
+        record(eventType, "user", userId.toString(), payload);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void roleEvent(String eventType, Role role, Map<String, Object> data) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("roleId", role.getId());
+        payload.put("name", role.getName());
+        payload.putAll(data);
+        record(eventType, "role", role.getId().toString(), payload);
+    }
+
+    /**
+     * Relayed events of the current tenant after {@code afterSeq}, optionally
+     * for one user or role only. Consumers resume from the last publishedSeq
+     * they processed. Events show up here once the relay has delivered them,
+     * so the stream trails commits by about one relay interval.
+     */
+    public List<OutboxEvent> eventsAfter(long afterSeq, String aggregateId, int limit) {
+        PageRequest page = PageRequest.of(0, Math.min(Math.max(limit, 1), maxReplayPage));
+        String tenant = TenantContext.get();
+        return aggregateId == null
+                ? outboxEventRepository.findByTenantIdAndPublishedSeqGreaterThanOrderByPublishedSeqAsc(
+                        tenant, afterSeq, page)
+                : outboxEventRepository.findByTenantIdAndAggregateIdAndPublishedSeqGreaterThanOrderByPublishedSeqAsc(
+                        tenant, aggregateId, afterSeq, page);
+    }
+
+    // Marks the current tenant's events from fromId on as undelivered; the relay sends them again in order
+    @Transactional
+    public int replayFrom(long fromId) {
+        return outboxEventRepository.markUnpublishedFrom(TenantContext.get(), fromId);
+    }
+
+    private void record(String eventType, String aggregateType, String aggregateId, Map<String, Object> payload) {
+        outboxEventRepository.save(new OutboxEvent(TenantContext.get(), eventType, aggregateType, aggregateId,
+                jsonMapper.writeValueAsString(payload)));
+    }
+}
@@ -0,0 +1,15 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of the security event stream. Batches arrive in id order; a
+ * batch is marked delivered only if {@link #publish} returns normally,
+ * otherwise it is offered again, so consumers must tolerate duplicates.
+ */
+public interface SecurityEventSink {
+
+    void publish(List<OutboxEvent> events);
+}
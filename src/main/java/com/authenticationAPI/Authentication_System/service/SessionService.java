@@ -0,0 +1,151 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.RefreshTokenDocument;
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument;
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument.SessionEntry;
+import com.authenticationAPI.Authentication_System.model.TokenDocument;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SessionService {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Value("${auth.session.max-per-user:10}")
+    private int maxSessionsPerUser;
+
+    @Value("${jwt.refresh-expiration}")
+    private long refreshExpiration;
+
+    public void registerSession(String tenantId, UUID userId, String sessionId, String ipAddress, String device) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = expiresAt(now);
+        SessionEntry entry = new SessionEntry(sessionId, device, ipAddress, now, now, expiresAt);
+
+        SessionIndexDocument index = mongoTemplate.findAndModify(
+                Query.query(Criteria.where("_id").is(userId.toString())),
+                new Update().push("sessions", entry).max("expiresAt", expiresAt).setOnInsert("tenantId", tenantId),
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                SessionIndexDocument.class
+        );
+
+        if (index == null) {
+            return;
+        }
+
+        List<SessionEntry> sessions = live(index, now);
+        if (sessions.size() < index.getSessions().size()) {
+            // Their families have expired; nothing is left to revoke
+            mongoTemplate.updateFirst(
+                    Query.query(Criteria.where("_id").is(userId.toString())),
+                    new Update().pull("sessions", new Document("$or", List.of(
+                            new Document("expiresAt", new Document("$lte", now)),
+                            new Document("expiresAt", null)
+                                    .append("lastSeenAt", new Document("$lte",
+                                            now.minus(Duration.ofMillis(refreshExpiration))))))),
+                    SessionIndexDocument.class
+            );
+        }
+        if (sessions.size() <= maxSessionsPerUser) {
+            return;
+        }
+
+        // Over the cap: evict the oldest sessions first
+        sessions.sort(Comparator.comparing(SessionEntry::getIssuedAt));
+        int excess = sessions.size() - maxSessionsPerUser;
+        for (SessionEntry evicted : sessions.subList(0, excess)) {
+            revokeSession(userId, evicted.getSessionId());
+            log.info("Evicted oldest session {} for user: {}", evicted.getSessionId(), userId);
+        }
+    }
+
+    public void touchSession(UUID userId, String sessionId, String ipAddress) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = expiresAt(now);
+        mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId.toString()).and("sessions.sessionId").is(sessionId)),
+                new Update()
+                        .set("sessions.$.lastSeenAt", now)
+                        .set("sessions.$.ipAddress", ipAddress)
+                        .set("sessions.$.expiresAt", expiresAt)
+                        .max("expiresAt", expiresAt),
+                SessionIndexDocument.class
+        );
+    }
+
+    public List<SessionEntry> listSessions(UUID userId) {
+        SessionIndexDocument index = mongoTemplate.findById(userId.toString(), SessionIndexDocument.class);
+        if (index == null) {
+            return List.of();
+        }
+
+        List<SessionEntry> sessions = live(index, LocalDateTime.now());
+        sessions.sort(Comparator.comparing(SessionEntry::getIssuedAt).reversed());
+        return sessions;
+    }
+
+    /**
+     * Revokes every access and refresh token of the session and drops it from
+     * the user's index. Returns false if the session did not belong to the user.
+     */
+    public boolean revokeSession(UUID userId, String sessionId) {
+        long removed = mongoTemplate.updateFirst(
+                Query.query(Criteria.where("_id").is(userId.toString())),
+                new Update().pull("sessions", new Document("sessionId", sessionId)),
+                SessionIndexDocument.class
+        ).getModifiedCount();
+
+        revokeFamily(userId, sessionId);
+        return removed > 0;
+    }
+
+    public void revokeAllSessions(UUID userId) {
+        mongoTemplate.remove(Query.query(Criteria.where("_id").is(userId.toString())), SessionIndexDocument.class);
+    }
+
+    private LocalDateTime expiresAt(LocalDateTime now) {
+        return now.plus(Duration.ofMillis(refreshExpiration));
+    }
+
+    // Entries written before expiresAt existed last as long as their last rotation allows
+    private List<SessionEntry> live(SessionIndexDocument index, LocalDateTime now) {
+        List<SessionEntry> sessions = new ArrayList<>();
+        for (SessionEntry session : index.getSessions()) {
+            LocalDateTime expiresAt = session.getExpiresAt() != null
+                    ? session.getExpiresAt()
+                    : expiresAt(session.getLastSeenAt());
+            if (expiresAt.isAfter(now)) {
+                sessions.add(session);
+            }
+        }
+        return sessions;
+    }
+
+    private void revokeFamily(UUID userId, String familyId) {
+        Query familyQuery = Query.query(Criteria.where("userId").is(userId)
+                .and("familyId").is(familyId)
+                .and("revoked").is(false));
+        Update revoke = new Update().set("revoked", true);
+
+        mongoTemplate.updateMulti(familyQuery, revoke, RefreshTokenDocument.class);
+        mongoTemplate.updateMulti(familyQuery, revoke, TokenDocument.class);
+    }
+}
@@ -0,0 +1,109 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.TokenDocument;
+import com.authenticationAPI.Authentication_System.repo.TokenRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.JwtTokenProvider;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * RFC 7662 style introspection for a batch of access tokens. Signatures and
+ * expiry are checked in memory; revocation is resolved with a single Mongo
+ * query for all tokens that survive the local checks. A token is only
+ * reported active if the JWT filter would accept it: its user is enabled and
+ * its authorities version is current.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenIntrospectionService {
+
+    private final JwtTokenProvider tokenProvider;
+    private final TokenRepository tokenRepository;
+    private final CustomUserDetailsService customUserDetailsService;
+
+    @Value("${jwt.introspection.max-batch:100}")
+    private int maxBatch;
+
+    public List<Map<String, Object>> introspect(List<String> tokens) {
+        if (tokens == null || tokens.isEmpty()) {
+            throw new RuntimeException("At least one token is required");
+        }
+        if (tokens.size() > maxBatch) {
+            throw new RuntimeException("Too many tokens, at most " + maxBatch + " per request");
+        }
+
+        Map<String, Claims> verified = new HashMap<>();
+        for (String token : tokens) {
+            if (!tokenProvider.isWellFormed(token) || verified.containsKey(token)) {
+                continue;
+            }
+            try {
+                verified.put(token, tokenProvider.getClaimsFromToken(token));
+            } catch (JwtException | IllegalArgumentException ex) {
+                log.debug("Introspected token failed verification: {}", ex.getMessage());
+            }
+        }
+
+        Set<String> active = verified.isEmpty()
+                ? Set.of()
+                : tokenRepository.findActiveByTokenIn(verified.keySet()).stream()
+                        .map(TokenDocument::getToken)
+                        .collect(Collectors.toSet());
+
+        List<Map<String, Object>> results = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            Claims claims = verified.get(token);
+            UserPrincipal principal = claims != null && active.contains(token) ? currentPrincipal(claims) : null;
+            if (principal == null) {
+                results.add(Map.of("active", false));
+                continue;
+            }
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("active", true);
+            result.put("sub", claims.getSubject());
+            result.put("token_type", "Bearer");
+            result.put("iat", claims.getIssuedAt().toInstant().getEpochSecond());
+            result.put("exp", claims.getExpiration().toInstant().getEpochSecond());
+            result.put("tid", principal.getTenantId());
+            result.put("authorities", principal.getAuthorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.toSet()));
+            results.add(result);
+        }
+        return results;
+    }
+
+    // Same checks as JwtAuthenticationFilter; principals come from the per-tenant cache
+    private UserPrincipal currentPrincipal(Claims claims) {
+        try {
+            UserPrincipal principal = (UserPrincipal) customUserDetailsService.loadUserById(
+                    UUID.fromString(claims.getSubject()), tokenProvider.getTenantFromClaims(claims));
+            if (!principal.isEnabled()
+                    || tokenProvider.getAuthoritiesVersionFromClaims(claims) != principal.getAuthoritiesVersion()) {
+                return null;
+            }
+            return principal;
+        } catch (UsernameNotFoundException | IllegalArgumentException ex) {
+            return null;
+        }
+    }
+}
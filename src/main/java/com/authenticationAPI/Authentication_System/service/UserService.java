@@ -1,18 +1,26 @@
 package com.authenticationAPI.Authentication_System.service;
 
+import com.authenticationAPI.Authentication_System.dto.UserResponse;
 import com.authenticationAPI.Authentication_System.model.Role;
 import com.authenticationAPI.Authentication_System.model.User;
 import com.authenticationAPI.Authentication_System.repo.RoleRepository;
 import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.PolicyEngine;
+import com.authenticationAPI.Authentication_System.securityComponent.PolicyResource;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -22,33 +30,49 @@ public class UserService {
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PolicyEngine policyEngine;
+    private final CustomUserDetailsService customUserDetailsService;
+    private final SecurityEventService securityEventService;
+    private final ApiKeyService apiKeyService;
 
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public List<UserResponse> getAllUserSummaries() {
+        return withRoleNames(userRepository.findAllSummaries(TenantContext.get()));
     }
 
-    public User getUserById(UUID id) {
-        return userRepository.findById(id)
+    public UserResponse getUserSummaryById(UUID id) {
+        UserResponse user = userRepository.findSummaryById(id, TenantContext.get())
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        return withRoleNames(List.of(user)).get(0);
     }
 
-    public User getUserByUsername(String username) {
-        return userRepository.findByUsername(username)
+    public UserResponse getUserSummaryByUsername(String username) {
+        UserResponse user = userRepository.findSummaryByUsername(username, TenantContext.get())
                 .orElseThrow(() -> new RuntimeException("User not found with username: " + username));
+        return withRoleNames(List.of(user)).get(0);
+    }
+
+    public User getUserById(UUID id) {
+        return userRepository.findWithAuthoritiesByIdAndTenantId(id, TenantContext.get())
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
     }
 
     @Transactional
     public User createUser(User user) {
-        if (userRepository.existsByUsername(user.getUsername())) {
+        String tenant = TenantContext.get();
+        policyEngine.check("CREATE_USER", "user", () -> PolicyResource.user(null, tenant, Set.of()));
+
+        if (userRepository.existsByTenantIdAndUsername(tenant, user.getUsername())) {
             throw new RuntimeException("Username already exists");
         }
 
-        if (userRepository.existsByEmail(user.getEmail())) {
+        if (userRepository.existsByTenantIdAndEmail(tenant, user.getEmail())) {
             throw new RuntimeException("Email already exists");
         }
 
+        user.setTenantId(tenant);
         user.setPassword(passwordEncoder.encode(user.getPassword()));
         User savedUser = userRepository.save(user);
+        securityEventService.userEvent("USER_CREATED", savedUser.getId(), Map.of("username", savedUser.getUsername()));
 
         log.info("User created: {}", savedUser.getUsername());
         return savedUser;
@@ -57,16 +81,17 @@ public class UserService {
     @Transactional
     public User updateUser(UUID id, User userDetails) {
         User user = getUserById(id);
+        policyEngine.check("UPDATE_USER", "user", () -> userResource(user));
 
         if (userDetails.getUsername() != null && !userDetails.getUsername().equals(user.getUsername())) {
-            if (userRepository.existsByUsername(userDetails.getUsername())) {
+            if (userRepository.existsByTenantIdAndUsername(user.getTenantId(), userDetails.getUsername())) {
                 throw new RuntimeException("Username already exists");
             }
             user.setUsername(userDetails.getUsername());
         }
 
         if (userDetails.getEmail() != null && !userDetails.getEmail().equals(user.getEmail())) {
-            if (userRepository.existsByEmail(userDetails.getEmail())) {
+            if (userRepository.existsByTenantIdAndEmail(user.getTenantId(), userDetails.getEmail())) {
                 throw new RuntimeException("Email already exists");
             }
             user.setEmail(userDetails.getEmail());
@@ -76,11 +101,16 @@ public class UserService {
             user.setPassword(passwordEncoder.encode(userDetails.getPassword()));
         }
 
-        if (userDetails.getEnabled() != null) {
+        if (userDetails.getEnabled() != null && !userDetails.getEnabled().equals(user.getEnabled())) {
+            policyEngine.check(userDetails.getEnabled() ? "ENABLE_USER" : "DISABLE_USER", "user",
+                    () -> userResource(user));
             user.setEnabled(userDetails.getEnabled());
         }
 
         User updatedUser = userRepository.save(user);
+        customUserDetailsService.evictPrincipal(user.getTenantId(), user.getId());
+        apiKeyService.evictOwner(user.getId());
+        securityEventService.userEvent("USER_UPDATED", user.getId(), Map.of("username", updatedUser.getUsername()));
         log.info("User updated: {}", updatedUser.getUsername());
 
         return updatedUser;
@@ -88,24 +118,36 @@ public class UserService {
 
     @Transactional
     public void deleteUser(UUID id) {
-        User user = getUserById(id);
+        // Plain lookup: deleting needs neither roles nor permissions
+        User user = userRepository.findByIdAndTenantId(id, TenantContext.get())
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
+        policyEngine.check("DELETE_USER", "user", () -> userResource(user));
+        apiKeyService.deleteOwnerKeys(id);
         userRepository.delete(user);
+        customUserDetailsService.evictPrincipal(user.getTenantId(), id);
+        securityEventService.userEvent("USER_DELETED", id, Map.of("username", user.getUsername()));
         log.info("User deleted: {}", user.getUsername());
     }
 
     @Transactional
     public User assignRolesToUser(UUID userId, Set<String> roleNames) {
         User user = getUserById(userId);
+        policyEngine.check("ASSIGN_ROLES", "user", () -> userResource(user));
 
         Set<Role> roles = user.getRoles();
         for (String roleName : roleNames) {
-            Role role = roleRepository.findByName(roleName)
+            Role role = roleRepository.findVisibleByName(roleName, user.getTenantId()).stream()
+                    .findFirst()
                     .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
             roles.add(role);
         }
 
         user.setRoles(roles);
+        bumpAuthoritiesVersion(user);
         User updatedUser = userRepository.save(user);
+        customUserDetailsService.evictPrincipal(user.getTenantId(), user.getId());
+        apiKeyService.evictOwner(user.getId());
+        securityEventService.userEvent("USER_ROLES_ASSIGNED", user.getId(), rolesChanged(user, roleNames));
 
         log.info("Roles assigned to user: {}", user.getUsername());
         return updatedUser;
@@ -114,6 +156,7 @@ public class UserService {
     @Transactional
     public User removeRolesFromUser(UUID userId, Set<String> roleNames) {
         User user = getUserById(userId);
+        policyEngine.check("REMOVE_ROLES", "user", () -> userResource(user));
 
         Set<Role> roles = user.getRoles();
         for (String roleName : roleNames) {
@@ -121,23 +164,64 @@ public class UserService {
         }
 
         user.setRoles(roles);
+        bumpAuthoritiesVersion(user);
         User updatedUser = userRepository.save(user);
+        customUserDetailsService.evictPrincipal(user.getTenantId(), user.getId());
+        apiKeyService.evictOwner(user.getId());
+        securityEventService.userEvent("USER_ROLES_REMOVED", user.getId(), rolesChanged(user, roleNames));
 
         log.info("Roles removed from user: {}", user.getUsername());
         return updatedUser;
     }
 
     @Transactional
-    public User enableUser(UUID id) {
-        User user = getUserById(id);
-        user.setEnabled(true);
-        return userRepository.save(user);
+    public UserResponse enableUser(UUID id) {
+        return setEnabled(id, "ENABLE_USER", true);
     }
 
     @Transactional
-    public User disableUser(UUID id) {
-        User user = getUserById(id);
-        user.setEnabled(false);
-        return userRepository.save(user);
+    public UserResponse disableUser(UUID id) {
+        return setEnabled(id, "DISABLE_USER", false);
+    }
+
+    // Single-column update, no entity or role graph is loaded
+    private UserResponse setEnabled(UUID id, String action, boolean enabled) {
+        String tenant = TenantContext.get();
+        UserResponse user = getUserSummaryById(id);
+        policyEngine.check(action, "user", () -> PolicyResource.user(id, tenant, user.getRoles()));
+
+        userRepository.updateEnabled(id, tenant, enabled);
+        customUserDetailsService.evictPrincipal(tenant, id);
+        apiKeyService.evictOwner(id);
+        securityEventService.userEvent(enabled ? "USER_ENABLED" : "USER_DISABLED", id, Map.of());
+        user.setEnabled(enabled);
+        return user;
+    }
+
+    private List<UserResponse> withRoleNames(List<UserResponse> users) {
+        if (users.isEmpty()) {
+            return users;
+        }
+
+        Map<UUID, UserResponse> byId = new HashMap<>();
+        users.forEach(user -> byId.put(user.getId(), user));
+
+        userRepository.findRoleNamesByUserIdIn(byId.keySet())
+                .forEach(row -> byId.get(row.getUserId()).getRoles().add(row.getRoleName()));
+        return users;
+    }
+
+    private PolicyResource userResource(User user) {
+        Set<String> roles = user.getRoles().stream().map(Role::getName).collect(Collectors.toSet());
+        return PolicyResource.user(user.getId(), user.getTenantId(), roles);
+    }
+
+    private static Map<String, Object> rolesChanged(User user, Set<String> roleNames) {
+        return Map.of("roles", roleNames, "authoritiesVersion", user.getAuthoritiesVersion());
+    }
+
+    private void bumpAuthoritiesVersion(User user) {
+        long current = user.getAuthoritiesVersion() != null ? user.getAuthoritiesVersion() : 0L;
+        user.setAuthoritiesVersion(current + 1);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+-- Baseline schema, matching what ddl-auto=update produces from the entities.
+
+create table permissions (
+    id   bigint generated by default as identity primary key,
+    name varchar(255) not null unique
+);
+
+create table roles (
+    id   bigint generated by default as identity primary key,
+    name varchar(255) not null unique
+);
+
+create table role_permissions (
+    role_id       bigint not null references roles (id),
+    permission_id bigint not null references permissions (id),
+    primary key (role_id, permission_id)
+);
+
+create table users (
+    id                  uuid primary key,
+    username            varchar(255) not null unique,
+    email               varchar(255) not null unique,
+    password            varchar(255) not null,
+    enabled             boolean      not null,
+    authorities_version bigint,
+    created_at          timestamp(6) not null
+);
+
+create table user_roles (
+    user_id uuid   not null references users (id),
+    role_id bigint not null references roles (id),
+    primary key (user_id, role_id)
+);
+
+-- Version of the reference data last written by DataInitializer
+create table app_seed_version (
+    id      integer primary key,
+    version integer not null
+);
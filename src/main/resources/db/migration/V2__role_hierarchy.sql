@@ -0,0 +1,17 @@
+-- Role inheritance and the precomputed effective permission sets.
+
+create table role_parents (
+    role_id   bigint not null references roles (id),
+    parent_id bigint not null references roles (id),
+    primary key (role_id, parent_id)
+);
+
+create table role_effective_permissions (
+    role_id       bigint not null references roles (id),
+    permission_id bigint not null references permissions (id),
+    primary key (role_id, permission_id)
+);
+
+-- No parents exist yet, so every role's closure is its own permissions
+insert into role_effective_permissions (role_id, permission_id)
+select role_id, permission_id from role_permissions;
@@ -0,0 +1,33 @@
+-- Tenant dimension: users belong to one tenant, roles to one tenant or to
+-- none (global). Names are unique per tenant instead of globally.
+
+alter table users add column tenant_id varchar(64) not null default 'default';
+alter table roles add column tenant_id varchar(64);
+
+-- Drop the old single-column unique constraints, whatever they were named
+-- (V1 and Hibernate's schema update name them differently)
+do $$
+declare
+    c record;
+begin
+    for c in
+        select con.conname, rel.relname
+        from pg_constraint con
+        join pg_class rel on rel.oid = con.conrelid
+        join pg_attribute att on att.attrelid = con.conrelid and att.attnum = con.conkey[1]
+        where con.contype = 'u'
+          and array_length(con.conkey, 1) = 1
+          and ((rel.relname = 'users' and att.attname in ('username', 'email'))
+            or (rel.relname = 'roles' and att.attname = 'name'))
+    loop
+        execute format('alter table %I drop constraint %I', c.relname, c.conname);
+    end loop;
+end $$;
+
+alter table users add constraint uk_users_tenant_username unique (tenant_id, username);
+alter table users add constraint uk_users_tenant_email unique (tenant_id, email);
+create index idx_users_tenant_created on users (tenant_id, created_at);
+
+alter table roles add constraint uk_roles_tenant_name unique (tenant_id, name);
+-- The constraint above ignores rows with a null tenant, so global names need their own index
+create unique index uk_roles_global_name on roles (name) where tenant_id is null;
@@ -0,0 +1,16 @@
+-- Transactional outbox for the security event stream
+
+create table outbox_events (
+    id             bigint generated by default as identity primary key,
+    tenant_id      varchar(64)   not null,
+    event_type     varchar(64)   not null,
+    aggregate_type varchar(32)   not null,
+    aggregate_id   varchar(64)   not null,
+    payload        varchar(4000) not null,
+    created_at     timestamp(6)  not null,
+    published_at   timestamp(6)
+);
+
+-- The relay only ever reads undelivered rows
+create index idx_outbox_unpublished on outbox_events (id) where published_at is null;
+create index idx_outbox_tenant_aggregate on outbox_events (tenant_id, aggregate_id, id);
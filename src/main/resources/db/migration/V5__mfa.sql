@@ -0,0 +1,5 @@
+-- TOTP second factor; the secret is only trusted once mfa_enabled is set
+
+alter table users
+    add column mfa_secret  varchar(64),
+    add column mfa_enabled boolean not null default false;
@@ -0,0 +1,20 @@
+-- API keys for service-to-service callers. The prefix is the lookup key;
+-- the secret is only stored as a keyed hash.
+
+create table api_keys (
+    id           uuid          primary key,
+    tenant_id    varchar(64)   not null,
+    owner_id     uuid          not null references users (id) on delete cascade,
+    name         varchar(100)  not null,
+    prefix       varchar(16)   not null,
+    secret_hash  varchar(64)   not null,
+    scopes       varchar(1000) not null,
+    created_at   timestamp(6)  not null,
+    expires_at   timestamp(6),
+    revoked_at   timestamp(6),
+    last_used_at timestamp(6),
+    usage_count  bigint        not null default 0,
+    constraint uk_api_keys_prefix unique (prefix)
+);
+
+create index idx_api_keys_tenant_created on api_keys (tenant_id, created_at);
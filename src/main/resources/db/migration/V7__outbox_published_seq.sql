@@ -0,0 +1,10 @@
+-- Read cursor for the security event stream, assigned by the relay at delivery
+
+alter table outbox_events add column published_seq bigint;
+
+create unique index idx_outbox_published_seq on outbox_events (published_seq);
+create index idx_outbox_tenant_seq on outbox_events (tenant_id, published_seq);
+create index idx_outbox_tenant_aggregate_seq on outbox_events (tenant_id, aggregate_id, published_seq);
+
+-- Events delivered before this migration keep their relative order
+update outbox_events set published_seq = id where published_at is not null;
@@ -0,0 +1,46 @@
+package com.authenticationAPI.Authentication_System;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Timing harness for the *Benchmark classes. Surefire's default includes skip
+ * them, so they only run when named: mvn -o test -Dtest='*Benchmark'.
+ * Each round runs {@code operations} operations and returns a checksum that
+ * keeps the work from being optimized away; the median round is reported.
+ */
+public final class MicroBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(MicroBenchmark.class);
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 15;
+
+    private static volatile long sink;
+
+    private MicroBenchmark() {
+    }
+
+    /**
+     * @return median nanoseconds per operation
+     */
+    public static double run(String name, int operations, LongSupplier round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += round.getAsLong();
+        }
+
+        long[] samples = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += round.getAsLong();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+
+        double nanosPerOperation = (double) samples[MEASURED_ROUNDS / 2] / operations;
+        log.info("{}: {} ns/op", name, String.format("%.1f", nanosPerOperation));
+        return nanosPerOperation;
+    }
+}
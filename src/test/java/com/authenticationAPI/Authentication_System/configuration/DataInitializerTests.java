@@ -0,0 +1,147 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.service.RoleHierarchyService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the seed against H2 in PostgreSQL mode. The context start performs the
+ * first seed; later runs must be a marker lookup only. The measured runs count
+ * the statements the initializer sends and read its {@code auth.seed} step from
+ * a buffering {@link org.springframework.core.metrics.ApplicationStartup}.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:seed;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({DataInitializer.class, RoleHierarchyService.class, DataInitializerTests.Config.class})
+class DataInitializerTests {
+
+    static class Config {
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return new BCryptPasswordEncoder(4);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private RoleHierarchyService roleHierarchyService;
+
+    private final AtomicInteger statements = new AtomicInteger();
+
+    private final BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+
+    @Test
+    void seedsReferenceDataOnce() {
+        assertEquals(11, count("permissions"));
+        assertEquals(3, count("roles"));
+        assertEquals(9 + 1 + 1, count("role_permissions"));
+        assertEquals(2, count("role_parents"));
+        // ADMIN inherits everything, MODERATOR gets READ_USER from USER
+        assertEquals(11 + 2 + 1, count("role_effective_permissions"));
+        assertEquals(1, count("user_roles"));
+        assertEquals(DataInitializer.SEED_VERSION,
+                jdbcTemplate.queryForObject("select version from app_seed_version where id = 1", Integer.class));
+    }
+
+    @Test
+    void skipsSeedWhenVersionIsCurrent() {
+        jdbcTemplate.update("delete from role_permissions");
+
+        measuredInitializer().run();
+
+        assertEquals(0, count("role_permissions"));
+        assertEquals(1, statements.get());
+        assertEquals("false", seedTag());
+    }
+
+    @Test
+    void reseedIsIdempotent() {
+        jdbcTemplate.update("update app_seed_version set version = 0");
+
+        measuredInitializer().run();
+
+        // version lookup, reference batch, admin user, admin role, version stamp
+        assertEquals(5, statements.get());
+        assertEquals("true", seedTag());
+
+        assertEquals(11, count("permissions"));
+        assertEquals(3, count("roles"));
+        assertEquals(1, count("users"));
+    }
+
+    private DataInitializer measuredInitializer() {
+        // Joins the test transaction so the rollback still applies
+        DataSource counting = new DelegatingDataSource(new TransactionAwareDataSourceProxy(dataSource)) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                        new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                            if (method.getName().equals("prepareStatement") || method.getName().equals("createStatement")) {
+                                statements.incrementAndGet();
+                            }
+                            try {
+                                return method.invoke(connection, args);
+                            } catch (InvocationTargetException e) {
+                                throw e.getCause();
+                            }
+                        });
+            }
+        };
+        return new DataInitializer(new JdbcTemplate(counting), passwordEncoder, roleHierarchyService, startup);
+    }
+
+    private String seedTag() {
+        List<StartupTimeline.TimelineEvent> events = startup.getBufferedTimeline().getEvents();
+        assertEquals(1, events.size());
+        StartupTimeline.TimelineEvent event = events.get(0);
+        assertEquals("auth.seed", event.getStartupStep().getName());
+        assertFalse(event.getDuration().isNegative());
+        String seeded = null;
+        for (StartupStep.Tag tag : event.getStartupStep().getTags()) {
+            if (tag.getKey().equals("seeded")) {
+                seeded = tag.getValue();
+            }
+        }
+        return seeded;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("select count(*) from " + table, Integer.class);
+    }
+}
@@ -0,0 +1,36 @@
+package com.authenticationAPI.Authentication_System.configuration;
+
+import com.authenticationAPI.Authentication_System.dto.UserResponse;
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NativeHintsConfigTests {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    NativeHintsConfigTests() {
+        new NativeHintsConfig.AuthRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    void jjwtImplementationTypesExistAndAreRegistered() throws ClassNotFoundException {
+        for (String type : NativeHintsConfig.JJWT_REFLECTIVE_TYPES) {
+            // Catches a renamed class after a jjwt upgrade
+            assertNotNull(Class.forName(type));
+            assertTrue(RuntimeHintsPredicates.reflection().onType(TypeReference.of(type)).test(hints), type);
+        }
+    }
+
+    @Test
+    void documentsAndDtosAreRegistered() {
+        assertTrue(RuntimeHintsPredicates.reflection().onType(SessionIndexDocument.SessionEntry.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(UserResponse.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource("META-INF/services/io.jsonwebtoken.io.Serializer").test(hints));
+    }
+}
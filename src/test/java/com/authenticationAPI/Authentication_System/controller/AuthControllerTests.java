@@ -0,0 +1,30 @@
+package com.authenticationAPI.Authentication_System.controller;
+
+import com.authenticationAPI.Authentication_System.dto.PermissionCheck;
+import com.authenticationAPI.Authentication_System.securityComponent.PermissionChecker;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class AuthControllerTests {
+
+    private final PermissionChecker permissionChecker = mock(PermissionChecker.class);
+    private final AuthController controller = new AuthController(null, null, permissionChecker, null);
+
+    @Test
+    void permissionCheckWithoutUserPrincipalIsForbidden() {
+        // An API-key caller resolves no UserPrincipal
+        ResponseEntity<?> response = controller.checkPermissions(null,
+                Map.of("checks", List.of(new PermissionCheck("READ_USER", "user"))), null);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(permissionChecker);
+    }
+}
@@ -0,0 +1,129 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityEqualityTests {
+
+    @Test
+    void rolesAreEqualByTenantAndName() {
+        Role first = role(1L, "ADMIN", 10);
+        Role second = role(2L, "ADMIN", 0);
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, role(1L, "MODERATOR", 10));
+
+        Role tenantAdmin = role(3L, "ADMIN", 0);
+        tenantAdmin.setTenantId("tenant-a");
+        assertNotEquals(first, tenantAdmin);
+    }
+
+    @Test
+    void transientEntitiesUseTheirBusinessKey() {
+        assertEquals(new Role("NEW"), new Role("NEW"));
+        assertNotEquals(new Role("NEW"), new Role("OTHER"));
+        assertEquals(new Permission("READ_USER"), new Permission("READ_USER"));
+
+        // Users get their id on construction
+        assertNotEquals(new User(), new User());
+    }
+
+    @Test
+    void hashesSpreadAcrossBuckets() {
+        Set<Integer> roleHashes = new HashSet<>();
+        Set<Integer> permissionHashes = new HashSet<>();
+        Set<Integer> userHashes = new HashSet<>();
+        for (long i = 0; i < 1_000; i++) {
+            roleHashes.add(new Role("ROLE_" + i).hashCode());
+            permissionHashes.add(permission(i).hashCode());
+            userHashes.add(new User().hashCode());
+        }
+
+        assertTrue(roleHashes.size() > 990);
+        assertTrue(permissionHashes.size() > 990);
+        assertTrue(userHashes.size() > 990);
+    }
+
+    @Test
+    void entityStaysInItsSetWhenAssignedAnId() {
+        Role role = new Role("NEW");
+        Set<Role> roles = new HashSet<>();
+        roles.add(role);
+
+        // What persist does to a new entity that is already in a collection
+        role.setId(7L);
+
+        assertTrue(roles.contains(role));
+        assertTrue(roles.remove(role));
+    }
+
+    @Test
+    void roleHashDoesNotDependOnPermissions() {
+        Role role = role(1L, "ADMIN", 5);
+        int before = role.hashCode();
+
+        role.getPermissions().add(permission(999L));
+
+        assertEquals(before, role.hashCode());
+    }
+
+    @Test
+    void userSetOperationsWithManyRolesStayOnIds() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        for (long i = 0; i < 500; i++) {
+            user.getRoles().add(role(i, "ROLE_" + i, 200));
+        }
+
+        // Re-adding the same roles must be a no-op without walking permissions
+        Set<Role> roles = user.getRoles();
+        for (long i = 0; i < 500; i++) {
+            assertFalse(roles.add(role(i, "ROLE_" + i, 0)));
+        }
+        assertEquals(500, roles.size());
+
+        Set<User> users = new HashSet<>();
+        users.add(user);
+        assertTrue(users.contains(user));
+    }
+
+    @Test
+    void toStringSkipsPasswordAndAssociations() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        user.setUsername("alice");
+        user.setPassword("$2a$10$secret");
+        user.getRoles().add(role(1L, "ADMIN", 3));
+
+        String text = user.toString();
+
+        assertTrue(text.contains("alice"));
+        assertFalse(text.contains("secret"));
+        assertFalse(text.contains("ADMIN"));
+        assertFalse(role(1L, "ADMIN", 3).toString().contains("PERM_"));
+    }
+
+    private Role role(Long id, String name, int permissionCount) {
+        Role role = new Role(name);
+        role.setId(id);
+        for (long i = 0; i < permissionCount; i++) {
+            role.getPermissions().add(permission(i));
+        }
+        return role;
+    }
+
+    private Permission permission(Long id) {
+        Permission permission = new Permission("PERM_" + id);
+        permission.setId(id);
+        return permission;
+    }
+}
@@ -0,0 +1,74 @@
+package com.authenticationAPI.Authentication_System.model;
+
+import com.authenticationAPI.Authentication_System.MicroBenchmark;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Role assignment and effective-permission set operations on users and roles
+ * with many entries. Per-operation cost should stay flat as the sets grow.
+ */
+class EntitySetBenchmark {
+
+    @Test
+    void assignRolesToHeavilyPermissionedUser() {
+        for (int roleCount : new int[]{100, 1_000, 10_000}) {
+            List<Role> roles = roles(roleCount, 200);
+
+            MicroBenchmark.run("assign " + roleCount + " roles", roleCount, () -> {
+                User user = new User();
+                for (Role role : roles) {
+                    user.getRoles().add(role);
+                }
+                // Re-assigning is what assignRolesToUser does for roles already held
+                long added = 0;
+                for (Role role : roles) {
+                    added += user.getRoles().add(role) ? 1 : 0;
+                }
+                return added + user.getRoles().size();
+            });
+        }
+    }
+
+    @Test
+    void recomputeEffectivePermissions() {
+        for (int permissionCount : new int[]{100, 1_000, 10_000}) {
+            List<Permission> permissions = permissions(permissionCount);
+            Set<Permission> wanted = new HashSet<>(permissions.subList(0, permissionCount / 2));
+
+            // The retainAll/addAll pair RoleHierarchyService.recompute runs per role
+            MicroBenchmark.run("recompute " + permissionCount + " permissions", permissionCount, () -> {
+                Set<Permission> effective = new HashSet<>(permissions);
+                effective.retainAll(wanted);
+                effective.addAll(wanted);
+                return effective.size();
+            });
+        }
+    }
+
+    private List<Role> roles(int count, int permissionsPerRole) {
+        List<Permission> permissions = permissions(permissionsPerRole);
+        List<Role> roles = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            Role role = new Role("ROLE_" + i);
+            role.setId(i);
+            role.getPermissions().addAll(permissions);
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    private List<Permission> permissions(int count) {
+        List<Permission> permissions = new ArrayList<>();
+        for (long i = 0; i < count; i++) {
+            Permission permission = new Permission("PERM_" + i);
+            permission.setId(i);
+            permissions.add(permission);
+        }
+        return permissions;
+    }
+}
@@ -0,0 +1,140 @@
+package com.authenticationAPI.Authentication_System.repo;
+
+import com.authenticationAPI.Authentication_System.dto.UserResponse;
+import com.authenticationAPI.Authentication_System.dto.UserRoleName;
+import com.authenticationAPI.Authentication_System.model.Permission;
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.model.User;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Pins the number of SQL statements each fetch plan issues, so an eager
+ * association or a lost entity graph shows up as a failing test.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.stat=WARN"
+})
+class UserRepositoryFetchPlanTests {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private UUID adminId;
+
+    @BeforeEach
+    void setUp() {
+        Role admin = new Role("ADMIN");
+        for (String name : List.of("READ_USER", "UPDATE_USER", "DELETE_USER")) {
+            Permission permission = entityManager.persist(new Permission(name));
+            admin.getPermissions().add(permission);
+            admin.getEffectivePermissions().add(permission);
+        }
+        entityManager.persist(admin);
+
+        for (int i = 0; i < 3; i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setPassword("hash");
+            user.getRoles().add(admin);
+            entityManager.persist(user);
+            adminId = user.getId();
+        }
+
+        // Same username and email in another tenant
+        User other = new User();
+        other.setTenantId("acme");
+        other.setUsername("user0");
+        other.setEmail("user0@example.com");
+        other.setPassword("hash");
+        entityManager.persist(other);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void authenticationPlanLoadsGraphInOneStatement() {
+        User user = userRepository.findWithAuthoritiesByIdAndTenantId(adminId, TenantContext.DEFAULT_TENANT).orElseThrow();
+        user.getRoles().forEach(role -> role.getEffectivePermissions().size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void authenticationByUsernameLoadsGraphInOneStatement() {
+        User user = userRepository.findWithAuthoritiesByTenantIdAndUsername(TenantContext.DEFAULT_TENANT, "user0").orElseThrow();
+        user.getRoles().forEach(role -> role.getEffectivePermissions().size());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void adminListingUsesProjectionsWithoutLoadingEntities() {
+        List<UserResponse> users = userRepository.findAllSummaries(TenantContext.DEFAULT_TENANT);
+        List<UserRoleName> roleNames = userRepository.findRoleNamesByUserIdIn(
+                users.stream().map(UserResponse::getId).toList());
+
+        assertEquals(3, users.size());
+        assertEquals(3, roleNames.size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void enableToggleIsASingleUpdate() {
+        assertEquals(1, userRepository.updateEnabled(adminId, TenantContext.DEFAULT_TENANT, false));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void mutationLookupLeavesAssociationsUnloaded() {
+        User user = userRepository.findById(adminId).orElseThrow();
+
+        assertFalse(Hibernate.isInitialized(user.getRoles()));
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void existenceChecksAreSingleStatements() {
+        assertTrue(userRepository.existsByTenantIdAndUsername(TenantContext.DEFAULT_TENANT, "user1"));
+        assertFalse(userRepository.existsByTenantIdAndEmail(TenantContext.DEFAULT_TENANT, "nobody@example.com"));
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void lookupsNeverCrossTenants() {
+        assertFalse(userRepository.existsByTenantIdAndUsername("acme", "user1"));
+        assertTrue(userRepository.findWithAuthoritiesByIdAndTenantId(adminId, "acme").isEmpty());
+        assertEquals(0, userRepository.updateEnabled(adminId, "acme", false));
+        assertEquals(1, userRepository.findAllSummaries("acme").size());
+    }
+}
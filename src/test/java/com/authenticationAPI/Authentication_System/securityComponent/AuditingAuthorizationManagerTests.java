@@ -0,0 +1,83 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import com.authenticationAPI.Authentication_System.service.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class AuditingAuthorizationManagerTests {
+
+    private final AuditLog auditLog = mock(AuditLog.class);
+    private final AtomicLong now = new AtomicLong(10_000);
+    private final RequestAuthorizationContext context =
+            new RequestAuthorizationContext(new MockHttpServletRequest("GET", "/users/42"));
+
+    private final Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymousUser",
+            AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+    @Test
+    void anonymousDenialsAreCappedPerSecond() {
+        AuditingAuthorizationManager manager = manager(false);
+
+        for (int i = 0; i < 5; i++) {
+            manager.authorize(() -> anonymous, context);
+        }
+        verify(auditLog, times(2)).append(any(), anyBoolean());
+
+        // The first record of the next second reports what was left out
+        now.addAndGet(1000);
+        manager.authorize(() -> anonymous, context);
+
+        ArgumentCaptor<AuditRecord> records = ArgumentCaptor.forClass(AuditRecord.class);
+        verify(auditLog, times(3)).append(records.capture(), anyBoolean());
+        assertEquals("GET /users/42", records.getAllValues().get(0).detail());
+        assertEquals("GET /users/42 suppressed=3", records.getAllValues().get(2).detail());
+        assertFalse(records.getAllValues().get(2).success());
+    }
+
+    @Test
+    void authenticatedDecisionsAreNeverSampled() {
+        AuditingAuthorizationManager manager = manager(false);
+        UserPrincipal alice = new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "alice",
+                "alice@example.com", null, true, Set.of(), 0L, true, false, Set.of());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(alice, null, Set.of());
+
+        for (int i = 0; i < 5; i++) {
+            manager.authorize(() -> anonymous, context);
+            manager.authorize(() -> authentication, context);
+        }
+
+        verify(auditLog, times(7)).append(any(), anyBoolean());
+    }
+
+    @Test
+    void anonymousGrantsAreNotRecorded() {
+        manager(true).authorize(() -> anonymous, context);
+
+        verify(auditLog, times(0)).append(any(), anyBoolean());
+    }
+
+    private AuditingAuthorizationManager manager(boolean granted) {
+        return new AuditingAuthorizationManager((authentication, ctx) -> new AuthorizationDecision(granted),
+                auditLog, 2, now::get);
+    }
+}
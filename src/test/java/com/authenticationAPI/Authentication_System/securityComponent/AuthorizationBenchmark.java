@@ -0,0 +1,104 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.MicroBenchmark;
+import com.authenticationAPI.Authentication_System.configuration.SecurityConfig;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.AuthenticatedAuthorizationManager;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.method.PreAuthorizeAuthorizationManager;
+import org.springframework.security.authorization.method.SecuredAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.access.intercept.RequestMatcherDelegatingAuthorizationManager;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Per-request authorization cost: the compiled URL trie plus the {@code @Secured}
+ * method check the controllers use, against ordered request matchers plus a
+ * SpEL {@code @PreAuthorize} check.
+ */
+class AuthorizationBenchmark {
+
+    private static final int OPERATIONS = 20_000;
+
+    private final CompiledAuthorizationManager compiled =
+            new SecurityConfig(null, null, null, null, null, null, null, null).authorizationManager();
+
+    @Test
+    void perRequestAuthorizationCost() throws NoSuchMethodException {
+        RequestMatcherDelegatingAuthorizationManager ordered = orderedMatchers();
+        SecuredAuthorizationManager secured = new SecuredAuthorizationManager();
+        PreAuthorizeAuthorizationManager preAuthorize = new PreAuthorizeAuthorizationManager();
+        MethodInvocation securedCall = new SimpleMethodInvocation(new Controllers(),
+                Controllers.class.getMethod("secured"));
+        MethodInvocation spelCall = new SimpleMethodInvocation(new Controllers(),
+                Controllers.class.getMethod("preAuthorize"));
+
+        UserPrincipal principal = new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "user",
+                "user@example.com", "hash", true, Set.of(1L), 0L, true, false,
+                Set.of(new SimpleGrantedAuthority("READ_USER"), new SimpleGrantedAuthority("MANAGE_ROLES")));
+        Authentication caller = UsernamePasswordAuthenticationToken.authenticated(principal, null,
+                principal.getAuthorities());
+
+        for (String path : new String[]{"/users/42", "/permissions/all", "/sessions"}) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+            RequestAuthorizationContext context = new RequestAuthorizationContext(request);
+
+            MicroBenchmark.run("compiled trie + @Secured  GET " + path, OPERATIONS, () -> {
+                long granted = 0;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    granted += compiled.authorize(() -> caller, context).isGranted() ? 1 : 0;
+                    granted += secured.authorize(() -> caller, securedCall).isGranted() ? 1 : 0;
+                }
+                return granted;
+            });
+            MicroBenchmark.run("ordered matchers + SpEL GET " + path, OPERATIONS, () -> {
+                long granted = 0;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    granted += ordered.authorize(() -> caller, request).isGranted() ? 1 : 0;
+                    granted += preAuthorize.authorize(() -> caller, spelCall).isGranted() ? 1 : 0;
+                }
+                return granted;
+            });
+        }
+    }
+
+    // The rules of SecurityConfig as a list of ordered matchers
+    private static RequestMatcherDelegatingAuthorizationManager orderedMatchers() {
+        PathPatternRequestMatcher.Builder path = PathPatternRequestMatcher.withDefaults();
+        return RequestMatcherDelegatingAuthorizationManager.builder()
+                .add(path.matcher("/auth/**"), (a, c) -> new AuthorizationDecision(true))
+                .add(path.matcher("/api/public/**"), (a, c) -> new AuthorizationDecision(true))
+                .add(path.matcher("/error"), (a, c) -> new AuthorizationDecision(true))
+                .add(path.matcher("/admin/**"), AuthorityAuthorizationManager.hasRole("ADMIN"))
+                .add(path.matcher("/users/create"), AuthorityAuthorizationManager.hasAuthority("CREATE_USER"))
+                .add(path.matcher("/users/*/delete"), AuthorityAuthorizationManager.hasAuthority("DELETE_USER"))
+                .add(path.matcher("/users/**"), AuthorityAuthorizationManager.hasAuthority("READ_USER"))
+                .add(path.matcher("/roles/**"), AuthorityAuthorizationManager.hasAuthority("MANAGE_ROLES"))
+                .add(path.matcher("/permissions/**"), AuthorityAuthorizationManager.hasAuthority("MANAGE_ROLES"))
+                .add(request -> true, AuthenticatedAuthorizationManager.authenticated())
+                .build();
+    }
+
+    public static class Controllers {
+
+        @Secured("MANAGE_ROLES")
+        public void secured() {
+        }
+
+        @PreAuthorize("hasAuthority('MANAGE_ROLES')")
+        public void preAuthorize() {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.exceptionHandling.TooManyRequestsException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTests {
+
+    @Test
+    void hashesOnTheDedicatedThreadsOnly() throws Exception {
+        Set<String> hashingThreads = ConcurrentHashMap.newKeySet();
+        PasswordEncoder recording = new RecordingEncoder(hashingThreads);
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(recording, 2, 100, Duration.ofSeconds(5));
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?>[] logins = new Future<?>[50];
+            for (int i = 0; i < logins.length; i++) {
+                logins[i] = callers.submit(() -> assertTrue(encoder.matches("secret", "secret")));
+            }
+            for (Future<?> login : logins) {
+                login.get();
+            }
+        }
+
+        assertTrue(hashingThreads.size() <= 2, hashingThreads::toString);
+        hashingThreads.forEach(name -> assertTrue(name.startsWith("bcrypt-"), name));
+    }
+
+    @Test
+    void rethrowsTheDelegatesFailure() {
+        PasswordEncoder failing = new RecordingEncoder(ConcurrentHashMap.newKeySet()) {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                throw new IllegalArgumentException("rawPassword cannot be null");
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(failing, 1, 1, Duration.ofSeconds(5))) {
+            IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> encoder.encode(null));
+            assertEquals("rawPassword cannot be null", ex.getMessage());
+        }
+    }
+
+    @Test
+    void shedsChecksBeyondTheQueueAndTheTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        PasswordEncoder blocking = new RecordingEncoder(ConcurrentHashMap.newKeySet()) {
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+
+        try (BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, Duration.ofMillis(200));
+             ExecutorService callers = Executors.newVirtualThreadPerTaskExecutor()) {
+            // One check hashing, one queued behind it
+            Future<Boolean> hashing = callers.submit(() -> encoder.matches("secret", "hash"));
+            started.await();
+            Future<Boolean> queued = callers.submit(() -> encoder.matches("secret", "hash"));
+            while (encoder.queued() == 0) {
+                Thread.onSpinWait();
+            }
+
+            // The queue is full: rejected at once
+            TooManyRequestsException rejected = assertThrows(TooManyRequestsException.class,
+                    () -> encoder.matches("secret", "hash"));
+            assertEquals(1, rejected.getRetryAfterSeconds());
+
+            // The waiting callers give up after the timeout
+            ExecutionException timedOut = assertThrows(ExecutionException.class, hashing::get);
+            assertTrue(timedOut.getCause() instanceof TooManyRequestsException);
+            assertThrows(ExecutionException.class, queued::get);
+            release.countDown();
+        }
+    }
+
+    private static class RecordingEncoder implements PasswordEncoder {
+
+        private final Set<String> threads;
+
+        RecordingEncoder(Set<String> threads) {
+            this.threads = threads;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            threads.add(Thread.currentThread().getName());
+            return rawPassword.toString();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            threads.add(Thread.currentThread().getName());
+            return rawPassword.toString().equals(encodedPassword);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClusterRateLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong(60_000L);
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+    private final ClusterRateLimiter limiter = new ClusterRateLimiter(store, Duration.ofMinutes(1), 1,
+            Duration.ofSeconds(1), true, 100, clock::get);
+
+    @AfterEach
+    void tearDown() {
+        limiter.shutdown();
+    }
+
+    @Test
+    void rejectsOverTheLimitUntilTheWindowCloses() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, limiter.tryAcquire("10.0.0.1", 3));
+        }
+        clock.addAndGet(15_000);
+        assertEquals(45_000L, limiter.tryAcquire("10.0.0.1", 3));
+
+        clock.addAndGet(45_000);
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1", 3));
+    }
+
+    @Test
+    void staysWithinKeyBoundInsideOneWindow() {
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("user-" + i, 3);
+        }
+        assertTrue(limiter.size() <= 100);
+
+        // Keys past the bound are still counted, in the store
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0L, limiter.tryAcquire("late", 3));
+        }
+        assertTrue(limiter.tryAcquire("late", 3) > 0);
+        assertTrue(limiter.size() <= 100);
+    }
+
+    @Test
+    void closedWindowFreesLocalSlots() {
+        for (int i = 0; i < 200; i++) {
+            limiter.tryAcquire("user-" + i, 3);
+        }
+
+        clock.addAndGet(60_000);
+        limiter.tryAcquire("fresh", 3);
+
+        assertEquals(1, limiter.size());
+    }
+}
@@ -0,0 +1,136 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.configuration.SecurityConfig;
+import com.authenticationAPI.Authentication_System.controller.UserController;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authorization.method.SecuredAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompiledAuthorizationManagerTests {
+
+    private final CompiledAuthorizationManager manager = new SecurityConfig(null, null, null, null, null, null, null, null)
+            .authorizationManager();
+
+    @Test
+    void mostSpecificPatternWins() {
+        assertRule("READ_USER", "GET", "/users/42");
+        assertRule("READ_USER", "GET", "/users/username/alice");
+        assertRule("CREATE_USER", "POST", "/users/create");
+        assertRule("DELETE_USER", "DELETE", "/users/42/delete");
+        // UPDATE_USER and MANAGE_ROLES are checked by method security on top of READ_USER
+        assertRule("READ_USER", "PUT", "/users/42/enable");
+        assertRule("READ_USER", "POST", "/users/42/roles/assign");
+        assertRule("MANAGE_ROLES", "GET", "/roles");
+        assertRule("ROLE_ADMIN", "GET", "/admin/stats");
+
+        // Method-specific rule does not apply to other methods
+        assertRule("READ_USER", "GET", "/users/42/delete");
+    }
+
+    @Test
+    void publicAndDefaultRules() {
+        assertEquals(CompiledAuthorizationManager.PERMIT_ALL, manager.requiredAuthority("POST", "/auth/login"));
+        assertEquals(CompiledAuthorizationManager.PERMIT_ALL, manager.requiredAuthority("GET", "/auth"));
+        assertRule("INTROSPECT_TOKENS", "POST", "/auth/introspect");
+        assertEquals(CompiledAuthorizationManager.AUTHENTICATED, manager.requiredAuthority("GET", "/sessions"));
+        assertEquals(CompiledAuthorizationManager.AUTHENTICATED, manager.requiredAuthority("GET", "/"));
+
+        // Trailing and repeated slashes do not escape a more specific rule
+        assertRule("CREATE_USER", "POST", "/users/create/");
+    }
+
+    @Test
+    void decisionsUseAuthoritiesOfTheCaller() {
+        Authentication reader = user("READ_USER");
+        Authentication anonymous = new AnonymousAuthenticationToken("key", "anonymous",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS"));
+
+        assertTrue(decide(reader, "GET", "/users/42"));
+        assertFalse(decide(reader, "DELETE", "/users/42/delete"));
+        assertFalse(decide(anonymous, "GET", "/sessions"));
+        assertTrue(decide(anonymous, "POST", "/auth/login"));
+        assertTrue(decide(principal("ROLE_ADMIN"), "GET", "/admin/stats"));
+        assertFalse(decide(principal("READ_USER"), "GET", "/admin/stats"));
+    }
+
+    @Test
+    void matchesTheDecodedPath() {
+        Authentication caller = user("CREATE_USER");
+
+        // Spring MVC dispatches these to /users, /roles, /permissions and /admin
+        assertFalse(decide(caller, "GET", "/user%73"));
+        assertFalse(decide(caller, "GET", "/user%73/42"));
+        assertFalse(decide(caller, "GET", "/ro%6Ces"));
+        assertFalse(decide(caller, "GET", "/per%6Dissions/all"));
+        assertFalse(decide(caller, "GET", "/ad%6Din/stats"));
+        assertFalse(decide(caller, "DELETE", "/users/42/%64elete"));
+        assertTrue(decide(user("READ_USER"), "GET", "/user%73"));
+    }
+
+    @Test
+    void trailingSlashesDoNotChangeTheRule() {
+        Authentication caller = user("CREATE_USER");
+
+        assertFalse(decide(caller, "GET", "/users/"));
+        assertFalse(decide(caller, "GET", "/roles//"));
+        assertFalse(decide(caller, "GET", "/admin/"));
+        assertFalse(decide(user("READ_USER"), "DELETE", "/users/42/delete/"));
+        assertTrue(decide(caller, "POST", "/users/create/"));
+    }
+
+    @Test
+    void rejectsUnsupportedPatterns() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledAuthorizationManager.builder().permitAll("/a/**/b"));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledAuthorizationManager.builder().permitAll("/users/{id}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> CompiledAuthorizationManager.builder().permitAll("/a").hasAuthority("X", "/a"));
+    }
+
+    @Test
+    void controllersRepeatTheChecksWithSecured() throws NoSuchMethodException {
+        SecuredAuthorizationManager secured = new SecuredAuthorizationManager();
+        MethodInvocation assignRoles = new SimpleMethodInvocation(new UserController(null),
+                UserController.class.getMethod("assignRoles", UUID.class, Set.class));
+
+        assertFalse(secured.authorize(() -> user("READ_USER"), assignRoles).isGranted());
+        assertTrue(secured.authorize(() -> user("READ_USER", "MANAGE_ROLES"), assignRoles).isGranted());
+    }
+
+    private void assertRule(String authority, String method, String path) {
+        assertEquals(authority, manager.authorityName(manager.requiredAuthority(method, path)), method + " " + path);
+    }
+
+    private boolean decide(Authentication authentication, String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        return manager.authorize(() -> authentication, new RequestAuthorizationContext(request)).isGranted();
+    }
+
+    private static Authentication user(String... authorities) {
+        return UsernamePasswordAuthenticationToken.authenticated("user", null,
+                AuthorityUtils.createAuthorityList(authorities));
+    }
+
+    private static Authentication principal(String authority) {
+        UserPrincipal principal = new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "user", "user@example.com", "hash",
+                true, Set.of(1L), 0L, true, false, Set.of(new SimpleGrantedAuthority(authority)));
+        return UsernamePasswordAuthenticationToken.authenticated(principal, null, principal.getAuthorities());
+    }
+}
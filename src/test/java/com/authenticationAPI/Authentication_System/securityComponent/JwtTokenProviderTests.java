@@ -0,0 +1,40 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtTokenProviderTests {
+
+    @Test
+    void roleSetRoundTripsWhateverTheIds() {
+        Set<Long> roleIds = Set.of(1L, 2L, 300L, 5_000_000_000L, Long.MAX_VALUE);
+
+        assertEquals(roleIds, JwtTokenProvider.decodeRoleSet(JwtTokenProvider.encodeRoleSet(roleIds)));
+        assertTrue(JwtTokenProvider.decodeRoleSet(JwtTokenProvider.encodeRoleSet(Set.of())).isEmpty());
+    }
+
+    @Test
+    void roleSetSizeFollowsTheRoleCountNotTheLargestId() {
+        String small = JwtTokenProvider.encodeRoleSet(Set.of(1L, 2L));
+        String large = JwtTokenProvider.encodeRoleSet(Set.of(1_000_000L, 1_000_001L));
+
+        assertEquals(3, small.length());
+        assertTrue(large.length() <= 6, large);
+    }
+
+    @Test
+    void rejectsMalformedRoleSets() {
+        // Truncated varint
+        assertThrows(IllegalArgumentException.class, () -> JwtTokenProvider.decodeRoleSet("gA"));
+        // Not base64url
+        assertThrows(IllegalArgumentException.class, () -> JwtTokenProvider.decodeRoleSet("@@"));
+        // Deltas summing past Long.MAX_VALUE
+        String overflow = JwtTokenProvider.encodeRoleSet(Set.of(Long.MAX_VALUE)) + "AQ";
+        assertThrows(IllegalArgumentException.class, () -> JwtTokenProvider.decodeRoleSet(overflow));
+    }
+}
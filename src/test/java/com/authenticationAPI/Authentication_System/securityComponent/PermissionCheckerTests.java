@@ -0,0 +1,94 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.dto.PermissionCheck;
+import com.authenticationAPI.Authentication_System.dto.PermissionDecision;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionCheckerTests {
+
+    private static final List<PermissionCheck> CHECKS = List.of(
+            new PermissionCheck("CREATE_USER", "user"),
+            new PermissionCheck("DISABLE_USER", "user"),
+            new PermissionCheck("DELETE_USER", "user"),
+            new PermissionCheck("MANAGE_ROLES", "role"),
+            new PermissionCheck("NEVER_SEEN_BEFORE", "thing")
+    );
+
+    private final PermissionChecker checker = checker();
+
+    @Test
+    void answersPolicyAndAuthorityChecksTogether() {
+        UserPrincipal moderator = principal("ROLE_MODERATOR", "READ_USER", "UPDATE_USER", "MANAGE_ROLES");
+
+        List<PermissionDecision> decisions = checker.check(moderator, CHECKS);
+
+        assertFalse(decisions.get(0).isAllowed());
+        // Moderators may disable non-admins only, which depends on the target
+        assertTrue(decisions.get(1).isAllowed());
+        assertTrue(decisions.get(1).isConditional());
+        assertFalse(decisions.get(2).isAllowed());
+        assertTrue(decisions.get(3).isAllowed());
+        assertFalse(decisions.get(3).isConditional());
+        assertFalse(decisions.get(4).isAllowed());
+        assertEquals(-1, AuthorityIndex.lookup("NEVER_SEEN_BEFORE"));
+    }
+
+    @Test
+    void etagFollowsAuthoritiesNotIdentity() {
+        String first = checker.etag(principal("READ_USER"), CHECKS);
+
+        assertEquals(first, checker.etag(principal("READ_USER"), CHECKS));
+        assertNotEquals(first, checker.etag(principal("READ_USER", "UPDATE_USER"), CHECKS));
+        assertNotEquals(first, checker.etag(principal("READ_USER"), CHECKS.subList(0, 2)));
+    }
+
+    @Test
+    void etagIsTheSameOnEveryInstance() {
+        String first = checker.etag(principal("READ_USER", "UPDATE_USER"), CHECKS);
+
+        // Another instance interns authorities in a different order, so their ids differ
+        AuthorityIndex.idOf("INTERNED_ONLY_HERE");
+        PermissionChecker other = checker();
+
+        assertEquals(first, other.etag(principal("UPDATE_USER", "READ_USER"), CHECKS));
+    }
+
+    @Test
+    void rejectsOversizedBatches() {
+        List<PermissionCheck> tooMany = Collections.nCopies(11, new PermissionCheck("READ_USER", "user"));
+
+        assertThrows(RuntimeException.class, () -> checker.check(principal("READ_USER"), tooMany));
+    }
+
+    private static PermissionChecker checker() {
+        PolicyEngine engine = new PolicyEngine(new DefaultResourceLoader(), "classpath:policies/user.policy", 60_000, 100);
+        engine.init();
+        PermissionChecker checker = new PermissionChecker(engine);
+        ReflectionTestUtils.setField(checker, "maxBatch", 10);
+        return checker;
+    }
+
+    private static UserPrincipal principal(String... authorities) {
+        Set<SimpleGrantedAuthority> granted = Arrays.stream(authorities)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toSet());
+        return new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "user", "user@example.com", "hash",
+                true, Set.of(), 0L, true, false, granted);
+    }
+}
@@ -0,0 +1,139 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolicyEngineTests {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void defaultPolicyLetsModeratorsDisableOnlyNonAdmins() {
+        PolicyEngine engine = engine("classpath:policies/user.policy", 60_000);
+        UserPrincipal moderator = principal("ROLE_MODERATOR", "READ_USER", "UPDATE_USER");
+        UserPrincipal admin = principal("ROLE_ADMIN", "UPDATE_USER", "DELETE_USER");
+
+        assertTrue(engine.isAllowed(moderator, "DISABLE_USER", "user", target("USER")));
+        assertFalse(engine.isAllowed(moderator, "DISABLE_USER", "user", target("ADMIN")));
+        assertFalse(engine.isAllowed(moderator, "DISABLE_USER", "user",
+                () -> PolicyResource.user(moderator.getId(), TenantContext.DEFAULT_TENANT, Set.of("MODERATOR"))));
+        assertTrue(engine.isAllowed(admin, "DISABLE_USER", "user", target("ADMIN")));
+        assertFalse(engine.isAllowed(admin, "DISABLE_USER", "user",
+                () -> PolicyResource.user(admin.getId(), TenantContext.DEFAULT_TENANT, Set.of("ADMIN"))));
+        assertFalse(engine.isAllowed(admin, "DELETE_USER", "user",
+                () -> PolicyResource.user(admin.getId(), TenantContext.DEFAULT_TENANT, Set.of("ADMIN"))));
+        assertFalse(engine.isAllowed(moderator, "UNKNOWN_ACTION", "user", target("USER")));
+    }
+
+    @Test
+    void defaultPolicyDeniesTargetsInOtherTenants() {
+        PolicyEngine engine = engine("classpath:policies/user.policy", 60_000);
+        UserPrincipal admin = principal("ROLE_ADMIN", "UPDATE_USER", "DELETE_USER", "MANAGE_ROLES");
+        Supplier<PolicyResource> foreign = () -> PolicyResource.user(UUID.randomUUID(), "other", Set.of("USER"));
+
+        assertTrue(engine.isAllowed(admin, "DELETE_USER", "user", target("USER")));
+        assertFalse(engine.isAllowed(admin, "DELETE_USER", "user", foreign));
+        assertFalse(engine.isAllowed(admin, "UPDATE_USER", "user", foreign));
+        assertFalse(engine.isAllowed(admin, "ASSIGN_ROLES", "user", foreign));
+    }
+
+    @Test
+    void targetIsOnlyLoadedWhenARuleNeedsIt() {
+        PolicyEngine engine = engine("classpath:policies/user.policy", 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<PolicyResource> counting = () -> {
+            loads.incrementAndGet();
+            return PolicyResource.user(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, Set.of());
+        };
+
+        assertTrue(engine.isAllowed(principal("CREATE_USER"), "CREATE_USER", "user", counting));
+        assertFalse(engine.isAllowed(principal("READ_USER"), "UPDATE_USER", "user", counting));
+        assertEquals(0, loads.get());
+
+        assertTrue(engine.isAllowed(principal("UPDATE_USER"), "UPDATE_USER", "user", counting));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void decisionsAreMemoizedPerAuthoritySet() {
+        PolicyEngine.CompiledPolicy policy = PolicyEngine.compile(
+                List.of("allow UPDATE_USER user authority:UPDATE_USER target-not-role:ADMIN"), 100);
+
+        for (int i = 0; i < 10; i++) {
+            policy.residualFor(principal("UPDATE_USER"), "UPDATE_USER", "user");
+        }
+        policy.residualFor(principal("READ_USER"), "UPDATE_USER", "user");
+
+        assertEquals(2, policy.memoSize());
+    }
+
+    @Test
+    void reloadsChangedPolicyFile() throws IOException {
+        Path file = dir.resolve("test.policy");
+        Files.writeString(file, "allow CREATE_USER user authority:CREATE_USER\n");
+        PolicyEngine engine = engine("file:" + file, 0);
+        UserPrincipal creator = principal("CREATE_USER");
+
+        assertTrue(engine.isAllowed(creator, "CREATE_USER", "user", target()));
+
+        Files.writeString(file, "allow CREATE_USER user role:ADMIN\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 10_000));
+
+        assertFalse(engine.isAllowed(creator, "CREATE_USER", "user", target()));
+        assertEquals(2, engine.getVersion());
+    }
+
+    @Test
+    void fingerprintFollowsRulesNotFormatting() {
+        String fingerprint = PolicyEngine.compile(List.of("allow CREATE_USER user role:ADMIN"), 100).fingerprint();
+
+        assertEquals(fingerprint, PolicyEngine.compile(
+                List.of("# creators", "allow   CREATE_USER  user role:ADMIN  # admins only", ""), 100).fingerprint());
+        assertNotEquals(fingerprint, PolicyEngine.compile(List.of("allow CREATE_USER user role:MODERATOR"), 100).fingerprint());
+    }
+
+    @Test
+    void rejectsUnknownConditions() {
+        assertThrows(IllegalArgumentException.class,
+                () -> PolicyEngine.compile(List.of("allow X user sometimes"), 100));
+    }
+
+    private static PolicyEngine engine(String location, long reloadIntervalMillis) {
+        PolicyEngine engine = new PolicyEngine(new DefaultResourceLoader(), location, reloadIntervalMillis, 100);
+        engine.init();
+        return engine;
+    }
+
+    private static Supplier<PolicyResource> target(String... roles) {
+        return () -> PolicyResource.user(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, Set.of(roles));
+    }
+
+    private static UserPrincipal principal(String... authorities) {
+        Set<SimpleGrantedAuthority> granted = Arrays.stream(authorities)
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toSet());
+        return new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "user", "user@example.com", "hash",
+                true, Set.of(), 0L, true, false, granted);
+    }
+}
@@ -0,0 +1,64 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import com.authenticationAPI.Authentication_System.MicroBenchmark;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+/**
+ * Encoded size and encode/decode cost of cached principals as the number of
+ * roles held grows.
+ */
+@Slf4j
+class PrincipalCodecBenchmark {
+
+    private static final int OPERATIONS = 10_000;
+
+    private static final BiFunction<String, Set<Long>, Set<String>> RESOLVER = (tenant, roleIds) -> {
+        Set<String> authorities = new HashSet<>();
+        roleIds.forEach(roleId -> authorities.add("ROLE_" + roleId));
+        return authorities;
+    };
+
+    @Test
+    void encodeAndDecode() {
+        for (int roleCount : new int[]{1, 10, 100}) {
+            UserPrincipal principal = principal(roleCount);
+            byte[] encoded = PrincipalCodec.encode(principal);
+            log.info("{} roles: {} bytes", roleCount, encoded.length);
+
+            MicroBenchmark.run("encode " + roleCount + " roles", OPERATIONS, () -> {
+                long size = 0;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    size += PrincipalCodec.encode(principal).length;
+                }
+                return size;
+            });
+            MicroBenchmark.run("decode " + roleCount + " roles", OPERATIONS, () -> {
+                long roles = 0;
+                for (int i = 0; i < OPERATIONS; i++) {
+                    roles += PrincipalCodec.decode(encoded, RESOLVER).getRoleIds().size();
+                }
+                return roles;
+            });
+        }
+    }
+
+    private UserPrincipal principal(int roleCount) {
+        Set<Long> roleIds = new HashSet<>();
+        for (long i = 0; i < roleCount; i++) {
+            roleIds.add(1 + i * 7);
+        }
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        RESOLVER.apply("acme", roleIds).forEach(authority -> authorities.add(new SimpleGrantedAuthority(authority)));
+
+        return new UserPrincipal(UUID.randomUUID(), "acme", "admin", "admin@example.com", "$2a$10$hash",
+                true, roleIds, 7L, true, true, authorities);
+    }
+}
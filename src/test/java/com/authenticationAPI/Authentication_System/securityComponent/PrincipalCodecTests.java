@@ -0,0 +1,143 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrincipalCodecTests {
+
+    private static final Map<Long, Set<String>> ROLE_GRAPH = Map.of(
+            1L, Set.of("ROLE_ADMIN", "READ_USER", "DELETE_USER"),
+            2L, Set.of("ROLE_USER", "READ_USER"),
+            300L, Set.of("ROLE_AUDITOR")
+    );
+
+    private static final BiFunction<String, Set<Long>, Set<String>> RESOLVER = (tenant, roleIds) -> {
+        Set<String> authorities = new HashSet<>();
+        roleIds.forEach(roleId -> authorities.addAll(ROLE_GRAPH.getOrDefault(roleId, Set.of())));
+        return authorities;
+    };
+
+    @Test
+    void roundTripsPrincipal() {
+        UserPrincipal original = principal(Set.of(1L, 2L, 300L), true, false);
+
+        UserPrincipal decoded = PrincipalCodec.decode(PrincipalCodec.encode(original), RESOLVER);
+
+        assertEquals(original.getId(), decoded.getId());
+        assertEquals("acme", decoded.getTenantId());
+        assertEquals(original.getUsername(), decoded.getUsername());
+        assertEquals(original.getRoleIds(), decoded.getRoleIds());
+        assertEquals(original.getAuthoritiesVersion(), decoded.getAuthoritiesVersion());
+        assertTrue(decoded.isEnabled());
+        assertFalse(decoded.isAccountNonLocked());
+        assertTrue(decoded.isMfaEnabled());
+        assertEquals(authorityNames(original), authorityNames(decoded));
+    }
+
+    @Test
+    void neverCarriesPasswordOrEmail() {
+        UserPrincipal decoded = PrincipalCodec.decode(PrincipalCodec.encode(principal(Set.of(2L), true, true)), RESOLVER);
+
+        assertNull(decoded.getPassword());
+        assertNull(decoded.getEmail());
+    }
+
+    @Test
+    void staysCompact() {
+        byte[] encoded = PrincipalCodec.encode(principal(Set.of(1L, 2L, 300L), true, true));
+
+        // version + uuid + flags + version varint + "acme" + "admin" + three role ids
+        assertTrue(encoded.length <= 40, "encoded size was " + encoded.length);
+    }
+
+    @Test
+    void decodesVersionOneIntoDefaultTenant() {
+        UserPrincipal original = principal(Set.of(1L, 2L), true, true);
+        byte[] v2 = PrincipalCodec.encode(original);
+
+        // v1 is v2 without the tenant field after the one-byte authorities version
+        byte[] v1 = new byte[v2.length - 5];
+        System.arraycopy(v2, 0, v1, 0, 19);
+        System.arraycopy(v2, 24, v1, 19, v2.length - 24);
+        v1[0] = 1;
+
+        UserPrincipal decoded = PrincipalCodec.decode(v1, RESOLVER);
+
+        assertEquals(TenantContext.DEFAULT_TENANT, decoded.getTenantId());
+        assertEquals(original.getUsername(), decoded.getUsername());
+        assertEquals(original.getRoleIds(), decoded.getRoleIds());
+    }
+
+    @Test
+    void rejectsUnknownVersion() {
+        byte[] encoded = PrincipalCodec.encode(principal(Set.of(2L), true, true));
+        encoded[0] = 99;
+
+        assertThrows(IllegalArgumentException.class, () -> PrincipalCodec.decode(encoded, RESOLVER));
+    }
+
+    @Test
+    void rejectsTruncatedPayload() {
+        byte[] encoded = PrincipalCodec.encode(principal(Set.of(1L, 2L, 300L), true, true));
+
+        for (int length = 0; length < encoded.length; length++) {
+            byte[] truncated = Arrays.copyOf(encoded, length);
+            assertThrows(IllegalArgumentException.class, () -> PrincipalCodec.decode(truncated, RESOLVER),
+                    "prefix of " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsOversizedRoleCount() {
+        byte[] encoded = PrincipalCodec.encode(principal(Set.of(), true, true));
+
+        // Replace the trailing zero role count with one over the cap, backed by enough bytes
+        ByteArrayOutputStream forged = new ByteArrayOutputStream();
+        forged.write(encoded, 0, encoded.length - 1);
+        PrincipalCodec.writeVarLong(forged, PrincipalCodec.MAX_ROLE_COUNT + 1);
+        for (int i = 0; i <= PrincipalCodec.MAX_ROLE_COUNT; i++) {
+            forged.write(1);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> PrincipalCodec.decode(forged.toByteArray(), RESOLVER));
+    }
+
+    @Test
+    void rejectsStringLongerThanPayload() {
+        byte[] encoded = PrincipalCodec.encode(principal(Set.of(2L), true, true));
+
+        // The tenant length follows version, uuid, flags and the one-byte authorities version
+        encoded[19] = 0x7F;
+
+        assertThrows(IllegalArgumentException.class, () -> PrincipalCodec.decode(encoded, RESOLVER));
+    }
+
+    private UserPrincipal principal(Set<Long> roleIds, boolean enabled, boolean nonLocked) {
+        Set<GrantedAuthority> authorities = new HashSet<>();
+        RESOLVER.apply("acme", roleIds).forEach(authority -> authorities.add(new SimpleGrantedAuthority(authority)));
+
+        return new UserPrincipal(UUID.randomUUID(), "acme", "admin", "admin@example.com", "$2a$10$hash",
+                enabled, roleIds, 7L, nonLocked, true, authorities);
+    }
+
+    private Set<String> authorityNames(UserPrincipal principal) {
+        Set<String> names = new HashSet<>();
+        principal.getAuthorities().forEach(authority -> names.add(authority.getAuthority()));
+        return names;
+    }
+}
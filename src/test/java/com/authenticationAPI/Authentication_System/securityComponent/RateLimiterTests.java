@@ -0,0 +1,50 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTests {
+
+    private final AtomicLong clock = new AtomicLong(1_000L);
+
+    @Test
+    void allowsBurstThenRejects() {
+        RateLimiter limiter = new RateLimiter(60, 3, 1000, clock::get);
+
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        assertEquals(0L, limiter.tryAcquire("10.0.0.1"));
+        assertTrue(limiter.tryAcquire("10.0.0.1") > 0);
+
+        // Other keys are unaffected
+        assertEquals(0L, limiter.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void refillsAtConfiguredRate() {
+        RateLimiter limiter = new RateLimiter(60, 1, 1000, clock::get);
+
+        assertEquals(0L, limiter.tryAcquire("alice"));
+        long wait = limiter.tryAcquire("alice");
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertEquals(0L, limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void staysWithinKeyBound() {
+        RateLimiter limiter = new RateLimiter(60, 1, 160, clock::get);
+
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("user-" + i);
+        }
+
+        assertTrue(limiter.size() <= 160);
+    }
+}
@@ -0,0 +1,91 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TenantPartitionedCacheTests {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void noisyTenantOnlyEvictsItsOwnEntries() {
+        TenantPartitionedCache<Integer, String> cache = new TenantPartitionedCache<>(10, 100, 60_000, clock::get);
+        for (int i = 0; i < 5; i++) {
+            cache.get("quiet", i, this::load);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            cache.get("noisy", i, this::load);
+        }
+        loads.set(0);
+
+        for (int i = 0; i < 5; i++) {
+            cache.get("quiet", i, this::load);
+        }
+
+        assertEquals(0, loads.get());
+        assertEquals(10, cache.size("noisy"));
+    }
+
+    @Test
+    void entriesExpireAfterTtl() {
+        TenantPartitionedCache<Integer, String> cache = new TenantPartitionedCache<>(10, 100, 1_000, clock::get);
+        cache.get("t", 1, this::load);
+
+        clock.addAndGet(999_000_000L);
+        cache.get("t", 1, this::load);
+        assertEquals(1, loads.get());
+
+        clock.addAndGet(2_000_000L);
+        cache.get("t", 1, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void dropsLeastRecentlyUsedTenantAtCapacity() {
+        TenantPartitionedCache<Integer, String> cache = new TenantPartitionedCache<>(10, 2, 60_000, clock::get);
+        cache.get("a", 1, this::load);
+        clock.incrementAndGet();
+        cache.get("b", 1, this::load);
+        clock.incrementAndGet();
+        cache.get("a", 1, this::load);
+        clock.incrementAndGet();
+
+        cache.get("c", 1, this::load);
+
+        assertEquals(2, cache.tenantCount());
+        assertEquals(0, cache.size("b"));
+        assertEquals(1, cache.size("a"));
+    }
+
+    @Test
+    void loadRacingAnInvalidationIsNotCached() {
+        TenantPartitionedCache<Integer, String> cache = new TenantPartitionedCache<>(10, 100, 60_000, clock::get);
+
+        String value = cache.get("t", 1, key -> {
+            cache.invalidate("t", key);
+            return "stale";
+        });
+
+        assertEquals("stale", value);
+        assertEquals(0, cache.size("t"));
+    }
+
+    @Test
+    void missingValuesAreNotCached() {
+        TenantPartitionedCache<Integer, String> cache = new TenantPartitionedCache<>(10, 100, 60_000, clock::get);
+
+        assertNull(cache.get("t", 1, key -> null));
+        assertEquals(0, cache.size("t"));
+    }
+
+    private String load(Integer key) {
+        loads.incrementAndGet();
+        return "v" + key;
+    }
+}
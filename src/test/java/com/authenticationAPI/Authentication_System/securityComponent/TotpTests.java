@@ -0,0 +1,62 @@
+package com.authenticationAPI.Authentication_System.securityComponent;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TotpTests {
+
+    // RFC 6238 appendix B, SHA1 secret
+    private static final byte[] RFC_KEY = "12345678901234567890".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void matchesRfcTestVectors() {
+        assertEquals("287082", Totp.code(RFC_KEY, Totp.step(59_000L)));
+        assertEquals("081804", Totp.code(RFC_KEY, Totp.step(1_111_111_109_000L)));
+        assertEquals("005924", Totp.code(RFC_KEY, Totp.step(1_234_567_890_000L)));
+    }
+
+    @Test
+    void base32RoundTrips() {
+        String secret = Totp.generateSecret(new SecureRandom());
+
+        assertEquals(32, secret.length());
+        assertEquals("GEZDGNBVGY3TQOJQGEZDGNBVGY3TQOJQ", Totp.base32Encode(RFC_KEY));
+        assertArrayEquals(RFC_KEY, Totp.base32Decode("gezdgnbvgy3tqojqgezdgnbvgy3tqojq"));
+    }
+
+    @Test
+    void acceptsCodesWithinWindowOnly() {
+        String secret = Totp.base32Encode(RFC_KEY);
+        String code = Totp.code(RFC_KEY, 100);
+
+        assertEquals(100, Totp.matchingStep(secret, code, 100, 1));
+        assertEquals(100, Totp.matchingStep(secret, code, 101, 1));
+        assertEquals(-1, Totp.matchingStep(secret, code, 102, 1));
+        assertEquals(-1, Totp.matchingStep(secret, "12345", 100, 1));
+        assertEquals(-1, Totp.matchingStep(secret, null, 100, 1));
+    }
+
+    @Test
+    void replayCacheRejectsReusedCodes() {
+        TotpReplayCache cache = new TotpReplayCache(100, 1);
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        assertTrue(cache.markUsed(alice, 100, 100));
+        assertFalse(cache.markUsed(alice, 100, 101));
+        assertTrue(cache.markUsed(bob, 100, 101));
+        assertTrue(cache.markUsed(alice, 101, 101));
+
+        // Steps outside the window are forgotten
+        cache.markUsed(alice, 200, 200);
+        assertEquals(1, cache.size());
+    }
+}
@@ -0,0 +1,223 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.ApiKey;
+import com.authenticationAPI.Authentication_System.model.Permission;
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.model.User;
+import com.authenticationAPI.Authentication_System.repo.ApiKeyRepository;
+import com.authenticationAPI.Authentication_System.repo.PermissionRepository;
+import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.ApiKeyPrincipal;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantPartitionedCache;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "auth.api-keys.pepper=test-pepper-0123456789abcdef0123456789"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ApiKeyService.class, SecurityEventService.class, ApiKeyServiceTests.Config.class})
+class ApiKeyServiceTests {
+
+    static class Config {
+        @Bean
+        JsonMapper jsonMapper() {
+            return JsonMapper.builder().build();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+
+        @Bean
+        TenantPartitionedCache<String, ApiKeyService.CachedKey> apiKeyCache() {
+            return new TenantPartitionedCache<>(100, 1, 60_000);
+        }
+    }
+
+    @Autowired
+    private ApiKeyService apiKeyService;
+
+    @Autowired
+    private ApiKeyRepository apiKeyRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private PermissionRepository permissionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private UserPrincipal owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = transactionTemplate.execute(status -> {
+            Role role = new Role("SERVICE_ADMIN");
+            for (String name : List.of("READ_USER", "CREATE_USER")) {
+                Permission permission = permissionRepository.save(new Permission(name));
+                role.getPermissions().add(permission);
+                role.getEffectivePermissions().add(permission);
+            }
+            roleRepository.save(role);
+
+            User user = new User();
+            user.setUsername("service-admin");
+            user.setEmail("service-admin@example.com");
+            user.setPassword("hash");
+            user.getRoles().add(role);
+            return UserPrincipal.create(userRepository.save(user));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        apiKeyRepository.deleteAll();
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+        permissionRepository.deleteAll();
+    }
+
+    @Test
+    void keyAuthenticatesWithItsScopesOnly() {
+        String key = createKey(Set.of("READ_USER"));
+
+        ApiKeyPrincipal principal = apiKeyService.authenticate(key).orElseThrow();
+
+        assertEquals(owner.getId(), principal.ownerId());
+        assertEquals(TenantContext.DEFAULT_TENANT, principal.tenantId());
+        assertEquals(List.of(new SimpleGrantedAuthority("READ_USER")), principal.authorities());
+
+        // Only the keyed hash of the secret is stored
+        ApiKey stored = apiKeyRepository.findByPrefix(principal.prefix()).orElseThrow();
+        assertFalse(key.contains(stored.getSecretHash()));
+        assertEquals(64, stored.getSecretHash().length());
+    }
+
+    @Test
+    void rejectsWrongSecretsAndMalformedKeys() {
+        String key = createKey(Set.of("READ_USER"));
+        String tampered = key.substring(0, key.length() - 1) + (key.endsWith("A") ? "B" : "A");
+
+        assertTrue(apiKeyService.authenticate(tampered).isEmpty());
+        assertTrue(apiKeyService.authenticate("ak_0011_secret").isEmpty());
+        assertTrue(apiKeyService.authenticate("not-a-key").isEmpty());
+        assertTrue(apiKeyService.authenticate(null).isEmpty());
+    }
+
+    @Test
+    void scopesAreLimitedToTheOwnersPermissions() {
+        assertThrows(RuntimeException.class, () -> createKey(Set.of("DELETE_USER")));
+        assertThrows(RuntimeException.class, () -> createKey(Set.of("ROLE_ADMIN")));
+        assertThrows(RuntimeException.class, () -> createKey(Set.of()));
+    }
+
+    @Test
+    void keyNeverGrantsMoreThanItsOwnerHolds() {
+        String key = createKey(Set.of("READ_USER", "CREATE_USER"));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Role role = roleRepository.findAll().get(0);
+            role.getEffectivePermissions().removeIf(permission -> permission.getName().equals("CREATE_USER"));
+            role.getPermissions().removeIf(permission -> permission.getName().equals("CREATE_USER"));
+        });
+        apiKeyService.evictAll();
+
+        assertEquals(List.of(new SimpleGrantedAuthority("READ_USER")),
+                apiKeyService.authenticate(key).orElseThrow().authorities());
+    }
+
+    @Test
+    void keysOfDisabledOrDeletedOwnersAreRejected() {
+        String key = createKey(Set.of("READ_USER"));
+
+        transactionTemplate.executeWithoutResult(status ->
+                userRepository.updateEnabled(owner.getId(), TenantContext.DEFAULT_TENANT, false));
+        apiKeyService.evictOwner(owner.getId());
+        assertTrue(apiKeyService.authenticate(key).isEmpty());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            apiKeyService.deleteOwnerKeys(owner.getId());
+            userRepository.deleteById(owner.getId());
+        });
+        assertTrue(apiKeyRepository.findAll().isEmpty());
+        assertTrue(apiKeyService.authenticate(key).isEmpty());
+    }
+
+    @Test
+    void pepperMustBeSeparateFromTheSigningKey() {
+        String secret = "0123456789abcdef0123456789abcdef";
+
+        assertThrows(IllegalStateException.class,
+                () -> new ApiKeyService(null, null, null, null, null, secret, secret, 365));
+        assertThrows(IllegalStateException.class,
+                () -> new ApiKeyService(null, null, null, null, null, "short", secret, 365));
+    }
+
+    @Test
+    void revokedKeyIsRejectedImmediately() {
+        String key = createKey(Set.of("READ_USER"));
+        ApiKeyPrincipal principal = apiKeyService.authenticate(key).orElseThrow();
+
+        apiKeyService.revoke(principal.keyId());
+
+        assertTrue(apiKeyService.authenticate(key).isEmpty());
+    }
+
+    @Test
+    void usageIsCountedInMemoryAndFlushedInBatches() {
+        String first = createKey(Set.of("READ_USER"));
+        String second = createKey(Set.of("CREATE_USER"));
+        UUID firstId = apiKeyService.authenticate(first).orElseThrow().keyId();
+        apiKeyService.authenticate(first);
+        apiKeyService.authenticate(first);
+        UUID secondId = apiKeyService.authenticate(second).orElseThrow().keyId();
+
+        assertEquals(0L, apiKeyRepository.findById(firstId).orElseThrow().getUsageCount());
+
+        apiKeyService.flushUsage();
+        apiKeyService.flushUsage();
+
+        ApiKey firstKey = apiKeyRepository.findById(firstId).orElseThrow();
+        assertEquals(3L, firstKey.getUsageCount());
+        assertNotNull(firstKey.getLastUsedAt());
+        assertEquals(1L, apiKeyRepository.findById(secondId).orElseThrow().getUsageCount());
+        assertNotEquals(firstId, secondId);
+    }
+
+    private String createKey(Set<String> scopes) {
+        return (String) apiKeyService.create(owner, "billing-service", scopes, 30).get("key");
+    }
+}
@@ -0,0 +1,172 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.AuditRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class AuditLogTests {
+
+    private static final Instant EPOCH = Instant.parse("2026-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final AtomicLong clock = new AtomicLong(EPOCH.toEpochMilli());
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+    private AuditLog auditLog;
+
+    @AfterEach
+    void tearDown() {
+        if (auditLog != null) {
+            auditLog.close();
+        }
+    }
+
+    @Test
+    void findsOneUsersRecordsInATimeRange() {
+        auditLog = open(Duration.ofHours(1));
+        append(AuditRecord.Type.LOGIN, alice, 0);
+        append(AuditRecord.Type.LOGIN, bob, 1);
+        append(AuditRecord.Type.ACCESS, alice, 2);
+        append(AuditRecord.Type.LOGOUT, alice, 3);
+
+        List<AuditRecord> records = auditLog.query(null, alice, null,
+                EPOCH.plusSeconds(1), EPOCH.plusSeconds(3), 10);
+
+        assertEquals(List.of(AuditRecord.Type.ACCESS, AuditRecord.Type.LOGOUT),
+                records.stream().map(AuditRecord::type).toList());
+        assertEquals("tenant-a", records.get(0).tenantId());
+        assertEquals("GET /users", records.get(0).detail());
+    }
+
+    @Test
+    void failedLoginsAreFoundByUsername() {
+        auditLog = open(Duration.ofHours(1));
+        auditLog.append(new AuditRecord(EPOCH, AuditRecord.Type.LOGIN, false, "default", null, "mallory", null), true);
+
+        List<AuditRecord> records = auditLog.query(null, null, "mallory", EPOCH, EPOCH, 10);
+
+        assertEquals(1, records.size());
+        assertNull(records.get(0).userId());
+        assertNull(records.get(0).detail());
+    }
+
+    @Test
+    void rollsOverByTimeAndScansAcrossSegments() throws IOException {
+        auditLog = open(Duration.ofMinutes(10));
+        for (int minute = 0; minute < 30; minute += 5) {
+            clock.set(EPOCH.plusSeconds(minute * 60L).toEpochMilli());
+            append(AuditRecord.Type.ACCESS, alice, minute * 60L);
+        }
+
+        assertEquals(3, segments().size());
+        assertEquals(6, auditLog.query(null, alice, null, EPOCH, EPOCH.plusSeconds(3600), 100).size());
+        assertEquals(2, auditLog.query(null, alice, null,
+                EPOCH.plusSeconds(600), EPOCH.plusSeconds(900), 100).size());
+    }
+
+    @Test
+    void durableAppendsFromManyThreadsSurviveFrequentRollovers() throws Exception {
+        // Room for a handful of records per segment, so appenders keep rolling over each other
+        auditLog = new AuditLog(directory, 512, Duration.ofHours(1), Duration.ofDays(30),
+                Duration.ofMillis(5), clock::get);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            assertTimeoutPreemptively(Duration.ofSeconds(30), () -> {
+                List<Future<?>> appenders = new ArrayList<>();
+                for (int thread = 0; thread < 8; thread++) {
+                    appenders.add(executor.submit(() -> {
+                        for (int i = 0; i < 50; i++) {
+                            append(AuditRecord.Type.ACCESS, alice, 0);
+                        }
+                    }));
+                }
+                for (Future<?> appender : appenders) {
+                    appender.get();
+                }
+            });
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(400, auditLog.query(null, alice, null, EPOCH, EPOCH, 1000).size());
+    }
+
+    @Test
+    void deletesSegmentsOlderThanRetention() throws IOException {
+        auditLog = new AuditLog(directory, 1 << 16, Duration.ofMinutes(10), Duration.ofMinutes(15),
+                Duration.ofMillis(5), clock::get);
+        for (int minute = 0; minute < 30; minute += 10) {
+            clock.set(EPOCH.plusSeconds(minute * 60L).toEpochMilli());
+            append(AuditRecord.Type.ACCESS, alice, minute * 60L);
+        }
+
+        clock.set(EPOCH.plusSeconds(26 * 60L).toEpochMilli());
+        auditLog.purgeExpired();
+
+        assertEquals(2, segments().size());
+        assertEquals(2, auditLog.query(null, alice, null, EPOCH, EPOCH.plusSeconds(3600), 100).size());
+    }
+
+    @Test
+    void stopsAtATornRecord() throws IOException {
+        auditLog = open(Duration.ofHours(1));
+        append(AuditRecord.Type.LOGIN, alice, 0);
+        append(AuditRecord.Type.ACCESS, alice, 1);
+        auditLog.close();
+        auditLog = null;
+
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int firstLength = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4).getInt(0);
+            // Flip one payload byte of the second record
+            long offset = 8 + firstLength + 8 + 20;
+            ByteBuffer oneByte = ByteBuffer.allocate(1);
+            channel.read(oneByte, offset);
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) (oneByte.get(0) ^ 0x7f)}), offset);
+        }
+
+        auditLog = open(Duration.ofHours(1));
+        assertEquals(1, auditLog.query(null, alice, null, EPOCH, EPOCH.plusSeconds(60), 10).size());
+    }
+
+    private AuditLog open(Duration rollover) {
+        return new AuditLog(directory, 1 << 16, rollover, Duration.ofDays(30), Duration.ofMillis(5), clock::get);
+    }
+
+    private void append(AuditRecord.Type type, UUID userId, long secondsAfterEpoch) {
+        auditLog.append(new AuditRecord(EPOCH.plusSeconds(secondsAfterEpoch), type, true, "tenant-a",
+                userId, null, "GET /users"), true);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(AuditLog.SEGMENT_SUFFIX)).sorted().toList();
+        }
+    }
+}
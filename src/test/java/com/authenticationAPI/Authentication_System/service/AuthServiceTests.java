@@ -0,0 +1,243 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.dto.LoginResult;
+import com.authenticationAPI.Authentication_System.dto.TokenPair;
+import com.authenticationAPI.Authentication_System.dto.TokenValidation;
+import com.authenticationAPI.Authentication_System.exceptionHandling.TooManyRequestsException;
+import com.authenticationAPI.Authentication_System.exceptionHandling.UnauthorizedException;
+import com.authenticationAPI.Authentication_System.model.RefreshTokenDocument;
+import com.authenticationAPI.Authentication_System.repo.RefreshTokenRepository;
+import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import com.authenticationAPI.Authentication_System.repo.TokenRepository;
+import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.JwtTokenProvider;
+import com.authenticationAPI.Authentication_System.securityComponent.LoginRateLimiter;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import org.bson.Document;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Refresh and validation paths, with Mongo, the repositories and the
+ * session store mocked out. Token signing and hashing are real.
+ */
+class AuthServiceTests {
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final SessionService sessionService = mock(SessionService.class);
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final DeviceFingerprintService deviceFingerprintService = mock(DeviceFingerprintService.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final LoginAttemptService loginAttemptService = new LoginAttemptService();
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
+    private final UserPrincipal alice = new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "alice",
+            "alice@example.com", null, true, Set.of(2L), 0L, true, false,
+            Set.of(new SimpleGrantedAuthority("READ_USER")));
+    private final UserPrincipal bob = new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "bob",
+            "bob@example.com", null, true, Set.of(2L), 0L, true, true,
+            Set.of(new SimpleGrantedAuthority("READ_USER")));
+
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.setField(tokenProvider, "refreshExpiration", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        ReflectionTestUtils.setField(loginAttemptService, "threshold", 3);
+        ReflectionTestUtils.setField(loginAttemptService, "baseDurationSeconds", 30L);
+        ReflectionTestUtils.setField(loginAttemptService, "maxDurationSeconds", 3600L);
+        ReflectionTestUtils.setField(loginAttemptService, "maxKeys", 100);
+
+        authService = new AuthService(authenticationManager, mock(UserRepository.class),
+                mock(RoleRepository.class), tokenRepository, refreshTokenRepository, mongoTemplate,
+                userDetailsService, sessionService, mock(LoginRateLimiter.class), loginAttemptService,
+                mock(PasswordEncoder.class), tokenProvider, mock(SecurityEventService.class), mock(AuditLog.class),
+                deviceFingerprintService, mock(MfaService.class), transactionTemplate);
+
+        when(userDetailsService.loadUserById(alice.getId(), TenantContext.DEFAULT_TENANT)).thenReturn(alice);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void refreshRotatesOnlyUnexpiredTokens() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshTokenDocument.class)))
+                .thenReturn(stored(false, LocalDateTime.now().plusHours(1)));
+
+        TokenPair tokens = authService.refresh("current", request);
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).findAndModify(query.capture(), any(Update.class), eq(RefreshTokenDocument.class));
+        Document criteria = query.getValue().getQueryObject();
+        assertEquals(tokenProvider.hashRefreshToken("current"), criteria.get("tokenHash"));
+        assertTrue(criteria.get("expiresAt", Document.class).containsKey("$gt"));
+
+        assertNotEquals("current", tokens.getRefreshToken());
+        verify(refreshTokenRepository).save(any(RefreshTokenDocument.class));
+        verify(sessionService).touchSession(eq(alice.getId()), eq("family"), any());
+    }
+
+    @Test
+    void expiredTokenRetryIsNotTreatedAsReuse() {
+        when(refreshTokenRepository.findByTokenHash(tokenProvider.hashRefreshToken("expired")))
+                .thenReturn(Optional.of(stored(true, LocalDateTime.now().minusMinutes(1))));
+
+        UnauthorizedException ex = assertThrows(UnauthorizedException.class,
+                () -> authService.refresh("expired", request));
+
+        assertEquals("Refresh token has expired", ex.getMessage());
+        verify(sessionService, never()).revokeSession(any(), anyString());
+    }
+
+    @Test
+    void reusedTokenRevokesItsFamily() {
+        when(refreshTokenRepository.findByTokenHash(tokenProvider.hashRefreshToken("reused")))
+                .thenReturn(Optional.of(stored(true, LocalDateTime.now().plusHours(1))));
+
+        assertThrows(UnauthorizedException.class, () -> authService.refresh("reused", request));
+
+        verify(sessionService).revokeSession(alice.getId(), "family");
+    }
+
+    @Test
+    void lockedAccountCannotRefreshButKeepsItsToken() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(RefreshTokenDocument.class)))
+                .thenReturn(stored(false, LocalDateTime.now().plusHours(1)));
+        for (int i = 0; i < 3; i++) {
+            loginAttemptService.loginFailed(CustomUserDetailsService.lockoutKey(TenantContext.DEFAULT_TENANT, "alice"));
+        }
+
+        TooManyRequestsException ex = assertThrows(TooManyRequestsException.class,
+                () -> authService.refresh("current", request));
+
+        assertTrue(ex.getRetryAfterSeconds() > 0);
+        // The rotation is undone so the same token works once the lockout ends
+        verify(mongoTemplate).updateFirst(any(Query.class), any(Update.class), eq(RefreshTokenDocument.class));
+        verify(refreshTokenRepository, never()).save(any());
+        verify(sessionService, never()).revokeSession(any(), anyString());
+    }
+
+    @Test
+    void mfaUsersAreChallengedOnEveryLoginByDefault() {
+        passwordAccepted(bob);
+
+        LoginResult result = authService.login("bob", "secret", request);
+
+        assertTrue(result.isMfaRequired());
+        verify(deviceFingerprintService, never()).isKnown(any(), any(), any(), any());
+        verify(deviceFingerprintService, never()).assess(any(), any(), any(), any());
+    }
+
+    @Test
+    void knownDeviceSkipsTheChallengeWhenEnabled() {
+        ReflectionTestUtils.setField(authService, "skipMfaOnKnownDevice", true);
+        passwordAccepted(bob);
+        when(deviceFingerprintService.isKnown(eq(TenantContext.DEFAULT_TENANT), eq(bob.getId()), any(), any()))
+                .thenReturn(true);
+        when(deviceFingerprintService.assess(any(), any(), any(), any()))
+                .thenReturn(new DeviceFingerprintService.Assessment("fingerprint", true, false));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+
+        LoginResult result = authService.login("bob", "secret", request);
+
+        assertFalse(result.isMfaRequired());
+        assertFalse(result.getTokens().isStepUpRequired());
+    }
+
+    @Test
+    void unknownDeviceIsChallengedWithoutBeingRecorded() {
+        ReflectionTestUtils.setField(authService, "skipMfaOnKnownDevice", true);
+        passwordAccepted(bob);
+
+        LoginResult result = authService.login("bob", "secret", request);
+
+        assertTrue(result.isMfaRequired());
+        // Only a completed login makes the device known
+        verify(deviceFingerprintService, never()).assess(any(), any(), any(), any());
+    }
+
+    @Test
+    void validationRejectsMalformedTokensWithoutALookup() {
+        TokenValidation result = authService.validateToken("not.a-token!");
+
+        assertFalse(result.isValid());
+        assertEquals("Malformed token", result.getMessage());
+        verifyNoInteractions(tokenRepository);
+    }
+
+    @Test
+    void validationChecksRevocationLast() {
+        String token = tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(alice, null, alice.getAuthorities()));
+
+        assertEquals("Token has been revoked", authService.validateToken(token).getMessage());
+
+        when(tokenRepository.existsByTokenAndRevokedFalse(token)).thenReturn(true);
+        TokenValidation valid = authService.validateToken(token);
+        assertTrue(valid.isValid());
+        assertTrue(valid.getExpiresIn() > 0 && valid.getExpiresIn() <= 60);
+    }
+
+    private void passwordAccepted(UserPrincipal principal) {
+        when(authenticationManager.authenticate(any()))
+                .thenReturn(new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private RefreshTokenDocument stored(boolean rotated, LocalDateTime expiresAt) {
+        RefreshTokenDocument document = new RefreshTokenDocument();
+        document.setTenantId(TenantContext.DEFAULT_TENANT);
+        document.setUserId(alice.getId());
+        document.setFamilyId("family");
+        document.setExpiresAt(expiresAt);
+        document.setRotated(rotated);
+        document.setRevoked(false);
+        return document;
+    }
+}
@@ -0,0 +1,167 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.KnownDeviceDocument;
+import com.authenticationAPI.Authentication_System.model.KnownDeviceDocument.DeviceEntry;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantPartitionedCache;
+import com.authenticationAPI.Authentication_System.service.DeviceFingerprintService.KnownDevices;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeviceFingerprintServiceTests {
+
+    private static final String CHROME_120 =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/120.0.6099.109 Safari/537.36";
+    private static final String CHROME_121 =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 Chrome/121.0.6167.85 Safari/537.36";
+    private static final String FIREFOX =
+            "Mozilla/5.0 (Windows NT 10.0; Win64; x64; rv:121.0) Gecko/20100101 Firefox/121.0";
+
+    private static final long DAY = Duration.ofDays(1).toMillis();
+
+    @Test
+    void browserUpdateAndNewLeaseOnTheSameNetworkKeepTheFingerprint() {
+        String before = DeviceFingerprintService.fingerprint(CHROME_120, "203.0.113.7");
+
+        assertEquals(before, DeviceFingerprintService.fingerprint(CHROME_121, "203.0.113.200"));
+        assertNotEquals(before, DeviceFingerprintService.fingerprint(FIREFOX, "203.0.113.7"));
+        assertNotEquals(before, DeviceFingerprintService.fingerprint(CHROME_120, "198.51.100.7"));
+    }
+
+    @Test
+    void networkPrefixKeepsSlash24AndSlash48() {
+        assertEquals("cb0071", DeviceFingerprintService.networkPrefix("203.0.113.7"));
+        assertEquals(DeviceFingerprintService.networkPrefix("2001:db8:1234::1"),
+                DeviceFingerprintService.networkPrefix("2001:db8:1234:ffff::2"));
+        assertNotEquals(DeviceFingerprintService.networkPrefix("2001:db8:1234::1"),
+                DeviceFingerprintService.networkPrefix("2001:db8:1235::1"));
+    }
+
+    @Test
+    void knownDevicesEvictTheLeastRecentlyUsed() {
+        KnownDevices devices = new KnownDevices(2);
+        assertEquals(KnownDevices.Seen.NEW, devices.see("a", CHROME_120, DAY));
+        assertEquals(KnownDevices.Seen.NEW, devices.see("b", FIREFOX, DAY));
+        assertEquals(KnownDevices.Seen.KNOWN, devices.see("a", CHROME_120, DAY));
+
+        assertEquals(KnownDevices.Seen.NEW, devices.see("c", FIREFOX, DAY));
+
+        assertEquals(List.of("a", "c"), devices.snapshot().stream().map(DeviceEntry::getFingerprint).toList());
+        assertEquals(KnownDevices.Seen.NEW, devices.see("b", FIREFOX, DAY));
+    }
+
+    @Test
+    void writesTouchOnlyTheDeviceSeen() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        DeviceFingerprintService service = service(mongoTemplate, 10);
+        UUID userId = UUID.randomUUID();
+
+        service.assess(TenantContext.DEFAULT_TENANT, userId, CHROME_120, "203.0.113.7");
+        service.shutdown();
+        assertTrue(writer(service).awaitTermination(5, TimeUnit.SECONDS));
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).upsert(any(Query.class), update.capture(), eq(KnownDeviceDocument.class));
+        Document written = update.getValue().getUpdateObject();
+        String path = "entries." + DeviceFingerprintService.fingerprint(CHROME_120, "203.0.113.7");
+        assertTrue(written.get("$max", Document.class).containsKey(path + ".lastSeenAt"));
+        assertTrue(written.get("$min", Document.class).containsKey(path + ".firstSeenAt"));
+        assertFalse(written.get("$set", Document.class).containsKey("entries"));
+        assertFalse(written.get("$set", Document.class).containsKey("devices"));
+    }
+
+    @Test
+    void devicesLearnedElsewhereAreLoadedAndTrimmedToTheCap() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        UUID userId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        KnownDeviceDocument document = new KnownDeviceDocument();
+        document.getDevices().add(new DeviceEntry("legacy", FIREFOX, now.minusDays(9), now.minusDays(9)));
+        for (int i = 0; i < 3; i++) {
+            document.getEntries().put("d" + i, new DeviceEntry(null, CHROME_120, now.minusDays(i), now.minusDays(i)));
+        }
+        when(mongoTemplate.findById(userId.toString(), KnownDeviceDocument.class)).thenReturn(document);
+        DeviceFingerprintService service = service(mongoTemplate, 2);
+
+        service.assess(TenantContext.DEFAULT_TENANT, userId, CHROME_120, "203.0.113.7");
+        service.shutdown();
+        assertTrue(writer(service).awaitTermination(5, TimeUnit.SECONDS));
+
+        ArgumentCaptor<Update> trim = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), trim.capture(), eq(KnownDeviceDocument.class));
+        assertEquals(Set.of("entries.d2"), trim.getValue().getUpdateObject().get("$unset", Document.class).keySet());
+    }
+
+    @Test
+    void writeQueueIsBounded() throws Exception {
+        MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mongoTemplate.upsert(any(Query.class), any(Update.class), eq(KnownDeviceDocument.class)))
+                .thenAnswer(invocation -> {
+                    release.await();
+                    return null;
+                });
+        DeviceFingerprintService service = service(mongoTemplate, 10);
+
+        // One write in flight, one queued, the rest dropped without blocking logins
+        for (int i = 0; i < 50; i++) {
+            service.assess(TenantContext.DEFAULT_TENANT, UUID.randomUUID(), CHROME_120, "203.0.113.7");
+        }
+        ThreadPoolExecutor writer = writer(service);
+        assertTrue(writer.getQueue().size() <= 1);
+
+        release.countDown();
+        service.shutdown();
+        assertTrue(writer.awaitTermination(5, TimeUnit.SECONDS));
+        verify(mongoTemplate, atMost(2)).upsert(any(Query.class), any(Update.class), eq(KnownDeviceDocument.class));
+    }
+
+    @Test
+    void staleLastSeenIsReportedForWriting() {
+        KnownDevices devices = new KnownDevices(2);
+        LocalDateTime lastWeek = LocalDateTime.now().minusDays(7);
+        devices.restore(new DeviceEntry("a", CHROME_120, lastWeek, lastWeek));
+
+        assertEquals(KnownDevices.Seen.TOUCHED, devices.see("a", CHROME_120, DAY));
+        assertEquals(KnownDevices.Seen.KNOWN, devices.see("a", CHROME_120, DAY));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static DeviceFingerprintService service(MongoTemplate mongoTemplate, int maxDevicesPerUser) {
+        ObjectProvider<NewDeviceListener> listeners = mock(ObjectProvider.class);
+        when(listeners.orderedStream()).thenAnswer(invocation -> Stream.empty());
+        return new DeviceFingerprintService(mongoTemplate, new TenantPartitionedCache<>(100, 1, 60_000),
+                listeners, maxDevicesPerUser, 24, false, 1);
+    }
+
+    private static ThreadPoolExecutor writer(DeviceFingerprintService service) {
+        return (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "writer");
+    }
+}
@@ -0,0 +1,87 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginAttemptServiceTests {
+
+    private final LoginAttemptService service = new LoginAttemptService();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(service, "threshold", 3);
+        ReflectionTestUtils.setField(service, "baseDurationSeconds", 30L);
+        ReflectionTestUtils.setField(service, "maxDurationSeconds", 3600L);
+        ReflectionTestUtils.setField(service, "maxKeys", 100);
+    }
+
+    @Test
+    void locksAfterTheThreshold() {
+        service.loginFailed("acme:alice");
+        service.loginFailed("acme:alice");
+        assertFalse(service.isLocked("acme:alice"));
+
+        service.loginFailed("acme:alice");
+        assertTrue(service.isLocked("acme:alice"));
+
+        service.loginSucceeded("acme:alice");
+        assertFalse(service.isLocked("acme:alice"));
+    }
+
+    @Test
+    void staysWithinMaxKeysUnderAUsernameSpray() {
+        for (int i = 0; i < 10_000; i++) {
+            service.loginFailed("acme:sprayed-" + i);
+            assertTrue(service.trackedCount() <= 100);
+        }
+    }
+
+    @Test
+    void sprayEvictsUnlockedEntriesBeforeLockedOnes() {
+        for (int i = 0; i < 3; i++) {
+            service.loginFailed("acme:victim");
+        }
+        assertTrue(service.isLocked("acme:victim"));
+
+        for (int i = 0; i < 1_000; i++) {
+            service.loginFailed("acme:sprayed-" + i);
+        }
+
+        assertTrue(service.isLocked("acme:victim"));
+    }
+
+    @Test
+    void concurrentFailuresAreAllCounted() throws Exception {
+        ReflectionTestUtils.setField(service, "threshold", 1_000);
+        ReflectionTestUtils.setField(service, "maxKeys", 100_000);
+
+        try (ExecutorService callers = Executors.newFixedThreadPool(8)) {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 9; thread++) {
+                results.add(callers.submit(() -> {
+                    for (int i = 0; i < 111; i++) {
+                        service.loginFailed("acme:alice");
+                        service.loginFailed("acme:other-" + i);
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        }
+
+        assertFalse(service.isLocked("acme:alice"));
+        service.loginFailed("acme:alice");
+        assertTrue(service.isLocked("acme:alice"));
+    }
+}
@@ -0,0 +1,190 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.OutboxEvent;
+import com.authenticationAPI.Authentication_System.repo.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against real commits (no test transaction) so that rollbacks of
+ * failed deliveries behave as in production.
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({SecurityEventService.class, OutboxRelayTests.Config.class})
+class OutboxRelayTests {
+
+    static class Config {
+        @Bean
+        JsonMapper jsonMapper() {
+            return JsonMapper.builder().build();
+        }
+
+        @Bean
+        TransactionTemplate transactionTemplate(PlatformTransactionManager transactionManager) {
+            return new TransactionTemplate(transactionManager);
+        }
+    }
+
+    @Autowired
+    private SecurityEventService securityEventService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final InMemorySecurityEventSink sink = new InMemorySecurityEventSink(100);
+    private final AtomicBoolean failNext = new AtomicBoolean();
+    private OutboxRelay relay;
+
+    private final UUID alice = UUID.randomUUID();
+    private final UUID bob = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        SecurityEventSink failing = events -> {
+            if (failNext.getAndSet(false)) {
+                throw new IllegalStateException("sink unavailable");
+            }
+            sink.publish(events);
+        };
+        relay = new OutboxRelay(outboxEventRepository, failing, transactionTemplate, 2, 10, Duration.ofDays(7));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            securityEventService.userEvent("USER_CREATED", alice, Map.of("username", "alice"));
+            securityEventService.userEvent("USER_CREATED", bob, Map.of("username", "bob"));
+            securityEventService.userEvent("USER_DISABLED", alice, Map.of());
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        outboxEventRepository.deleteAll();
+    }
+
+    @Test
+    void deliversEveryEventOnceInIdOrder() {
+        relay.relay();
+        relay.relay();
+
+        List<OutboxEvent> delivered = sink.events();
+        assertEquals(List.of("USER_CREATED", "USER_CREATED", "USER_DISABLED"),
+                delivered.stream().map(OutboxEvent::getEventType).toList());
+        assertTrue(delivered.get(0).getId() < delivered.get(1).getId());
+        assertTrue(delivered.get(1).getId() < delivered.get(2).getId());
+        outboxEventRepository.findAll().forEach(event -> assertNotNull(event.getPublishedAt()));
+    }
+
+    @Test
+    void failedBatchIsDeliveredAgainBeforeAnythingNewer() {
+        failNext.set(true);
+        relay.relay();
+        assertEquals(0, sink.events().size());
+
+        relay.relay();
+
+        assertEquals(3, sink.events().size());
+        assertEquals(alice.toString(), sink.events().get(0).getAggregateId());
+    }
+
+    @Test
+    void replayRedeliversFromTheGivenOffset() {
+        relay.relay();
+        Long secondId = sink.events().get(1).getId();
+        sink.clear();
+
+        assertEquals(2, securityEventService.replayFrom(secondId));
+        relay.relay();
+
+        assertEquals(List.of(bob.toString(), alice.toString()),
+                sink.events().stream().map(OutboxEvent::getAggregateId).toList());
+    }
+
+    @Test
+    void readsOneUsersStreamFromAnOffset() {
+        assertTrue(securityEventService.eventsAfter(0, alice.toString(), 10).isEmpty());
+        relay.relay();
+
+        List<OutboxEvent> aliceEvents = securityEventService.eventsAfter(0, alice.toString(), 10);
+
+        assertEquals(2, aliceEvents.size());
+        assertEquals(1, securityEventService.eventsAfter(aliceEvents.get(0).getPublishedSeq(), alice.toString(), 10).size());
+    }
+
+    @Test
+    void lateCommitIsNotSkippedByAReaderCursor() throws Exception {
+        CountDownLatch inserted = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        UUID carol = UUID.randomUUID();
+
+        // Takes its id first but commits last
+        Thread slow = new Thread(() -> transactionTemplate.executeWithoutResult(status -> {
+            securityEventService.userEvent("USER_CREATED", carol, Map.of("username", "carol"));
+            outboxEventRepository.flush();
+            inserted.countDown();
+            await(commit);
+        }));
+        slow.start();
+        await(inserted);
+
+        transactionTemplate.executeWithoutResult(status ->
+                securityEventService.userEvent("USER_DISABLED", bob, Map.of()));
+        relay.relay();
+        List<OutboxEvent> firstRead = securityEventService.eventsAfter(0, null, 10);
+        long cursor = firstRead.get(firstRead.size() - 1).getPublishedSeq();
+
+        commit.countDown();
+        slow.join();
+        relay.relay();
+
+        List<OutboxEvent> secondRead = securityEventService.eventsAfter(cursor, null, 10);
+        assertEquals(List.of(carol.toString()), secondRead.stream().map(OutboxEvent::getAggregateId).toList());
+        assertTrue(secondRead.get(0).getId() < firstRead.get(firstRead.size() - 1).getId());
+    }
+
+    @Test
+    void replayKeepsTheReadPosition() {
+        relay.relay();
+        List<Long> before = securityEventService.eventsAfter(0, null, 10).stream()
+                .map(OutboxEvent::getPublishedSeq).toList();
+
+        securityEventService.replayFrom(0);
+        relay.relay();
+
+        assertEquals(before, securityEventService.eventsAfter(0, null, 10).stream()
+                .map(OutboxEvent::getPublishedSeq).toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.Permission;
+import com.authenticationAPI.Authentication_System.model.Role;
+import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(RoleHierarchyService.class)
+class RoleHierarchyServiceTests {
+
+    private static final int DEPTH = 6;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @Autowired
+    private RoleHierarchyService roleHierarchyService;
+
+    // level0 <- level1 <- ... <- level5, each level granting one permission of its own
+    private final List<Role> levels = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Role parent = null;
+        for (int i = 0; i < DEPTH; i++) {
+            Role role = new Role("LEVEL_" + i);
+            role.getPermissions().add(entityManager.persist(new Permission("P" + i)));
+            if (parent != null) {
+                role.getParents().add(parent);
+            }
+            levels.add(entityManager.persist(role));
+            parent = role;
+        }
+        roleHierarchyService.rebuildAll();
+        entityManager.flush();
+    }
+
+    @Test
+    void deepestRoleInheritsTheWholeChain() {
+        assertEquals(Set.of("P0", "P1", "P2", "P3", "P4", "P5"), effective(levels.get(DEPTH - 1)));
+        assertEquals(Set.of("P0"), effective(levels.get(0)));
+    }
+
+    @Test
+    void permissionAddedAtTheRootReachesEveryDescendant() {
+        Role root = levels.get(0);
+        root.getPermissions().add(entityManager.persist(new Permission("NEW")));
+
+        roleHierarchyService.recompute(List.of(root));
+
+        levels.forEach(role -> assertTrue(effective(role).contains("NEW"), role.getName()));
+    }
+
+    @Test
+    void removingAnEdgeDropsOnlyWhatWasInherited() {
+        Role middle = levels.get(3);
+        middle.getParents().clear();
+
+        roleHierarchyService.recompute(List.of(middle));
+
+        assertEquals(Set.of("P3"), effective(middle));
+        assertEquals(Set.of("P3", "P4", "P5"), effective(levels.get(DEPTH - 1)));
+        assertEquals(Set.of("P0", "P1", "P2"), effective(levels.get(2)));
+    }
+
+    @Test
+    void rejectsEdgesThatCloseACycle() {
+        Role root = levels.get(0);
+
+        assertThrows(RuntimeException.class,
+                () -> roleHierarchyService.checkNoCycle(root, List.of(levels.get(DEPTH - 1))));
+        assertThrows(RuntimeException.class,
+                () -> roleHierarchyService.checkNoCycle(root, List.of(root)));
+        roleHierarchyService.checkNoCycle(levels.get(DEPTH - 1), List.of(root));
+    }
+
+    private Set<String> effective(Role role) {
+        return role.getEffectivePermissions().stream().map(Permission::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,144 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.RefreshTokenDocument;
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument;
+import com.authenticationAPI.Authentication_System.model.SessionIndexDocument.SessionEntry;
+import com.authenticationAPI.Authentication_System.model.TokenDocument;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Session index bookkeeping against a mocked MongoTemplate.
+ */
+class SessionServiceTests {
+
+    private static final Duration LIFETIME = Duration.ofDays(7);
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final SessionService sessionService = new SessionService(mongoTemplate);
+    private final UUID userId = UUID.randomUUID();
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(sessionService, "maxSessionsPerUser", 2);
+        ReflectionTestUtils.setField(sessionService, "refreshExpiration", LIFETIME.toMillis());
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(SessionIndexDocument.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+    }
+
+    @Test
+    void newSessionExpiresWithItsFamily() {
+        returnOnRegister(index(session("new", now, now.plus(LIFETIME))));
+
+        sessionService.registerSession("tenant-a", userId, "new", "10.0.0.1", "curl");
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).findAndModify(any(Query.class), update.capture(),
+                any(FindAndModifyOptions.class), eq(SessionIndexDocument.class));
+        Document object = update.getValue().getUpdateObject();
+        SessionEntry pushed = (SessionEntry) object.get("$push", Document.class).get("sessions");
+        LocalDateTime documentExpiry = (LocalDateTime) object.get("$max", Document.class).get("expiresAt");
+
+        assertEquals(pushed.getExpiresAt(), documentExpiry);
+        assertFalse(pushed.getExpiresAt().isBefore(now.plus(LIFETIME)));
+        // Nothing had expired, so nothing is pulled
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), eq(SessionIndexDocument.class));
+    }
+
+    @Test
+    void expiredSessionsDoNotCountTowardsTheCap() {
+        returnOnRegister(index(
+                session("stale-1", now.minusDays(20), now.minusDays(13)),
+                session("stale-2", now.minusDays(10), now.minusDays(3)),
+                session("live", now.minusDays(1), now.plusDays(6)),
+                session("new", now, now.plus(LIFETIME))));
+
+        sessionService.registerSession("tenant-a", userId, "new", "10.0.0.1", "curl");
+
+        // The expired entries are pulled, but not revoked as evictions
+        ArgumentCaptor<Update> pull = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), pull.capture(), eq(SessionIndexDocument.class));
+        assertTrue(pull.getValue().getUpdateObject().containsKey("$pull"));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(Update.class), eq(RefreshTokenDocument.class));
+    }
+
+    @Test
+    void oldestLiveSessionIsEvictedOverTheCap() {
+        returnOnRegister(index(
+                session("oldest", now.minusDays(2), now.plusDays(5)),
+                session("live", now.minusDays(1), now.plusDays(6)),
+                session("new", now, now.plus(LIFETIME))));
+
+        sessionService.registerSession("tenant-a", userId, "new", "10.0.0.1", "curl");
+
+        ArgumentCaptor<Query> family = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(family.capture(), any(Update.class), eq(RefreshTokenDocument.class));
+        verify(mongoTemplate).updateMulti(any(Query.class), any(Update.class), eq(TokenDocument.class));
+        assertEquals("oldest", family.getValue().getQueryObject().get("familyId"));
+    }
+
+    @Test
+    void touchMovesTheExpiryForward() {
+        sessionService.touchSession(userId, "family", "10.0.0.2");
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(1)).updateFirst(any(Query.class), update.capture(), eq(SessionIndexDocument.class));
+        Document object = update.getValue().getUpdateObject();
+        LocalDateTime entryExpiry = (LocalDateTime) object.get("$set", Document.class).get("sessions.$.expiresAt");
+
+        assertFalse(entryExpiry.isBefore(now.plus(LIFETIME)));
+        assertEquals(entryExpiry, object.get("$max", Document.class).get("expiresAt"));
+    }
+
+    @Test
+    void listingSkipsExpiredSessions() {
+        when(mongoTemplate.findById(userId.toString(), SessionIndexDocument.class)).thenReturn(index(
+                session("expired", now.minusDays(9), now.minusDays(2)),
+                session("legacy-expired", now.minusDays(9), null),
+                session("older", now.minusDays(3), now.plusDays(4)),
+                session("newer", now.minusDays(1), now.plusDays(6))));
+
+        List<SessionEntry> sessions = sessionService.listSessions(userId);
+
+        assertEquals(List.of("newer", "older"), sessions.stream().map(SessionEntry::getSessionId).toList());
+    }
+
+    private void returnOnRegister(SessionIndexDocument index) {
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(SessionIndexDocument.class))).thenReturn(index);
+    }
+
+    private SessionIndexDocument index(SessionEntry... sessions) {
+        return new SessionIndexDocument(userId.toString(), "tenant-a", new ArrayList<>(List.of(sessions)), null);
+    }
+
+    private SessionEntry session(String id, LocalDateTime issuedAt, LocalDateTime expiresAt) {
+        return new SessionEntry(id, "curl", "10.0.0.1", issuedAt, issuedAt, expiresAt);
+    }
+}
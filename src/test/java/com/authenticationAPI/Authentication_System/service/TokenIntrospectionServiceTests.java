@@ -0,0 +1,109 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.TokenDocument;
+import com.authenticationAPI.Authentication_System.repo.TokenRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.JwtTokenProvider;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import com.authenticationAPI.Authentication_System.securityComponent.UserPrincipal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenIntrospectionServiceTests {
+
+    private final TokenRepository tokenRepository = mock(TokenRepository.class);
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider();
+    private final Map<UUID, UserPrincipal> users = new HashMap<>();
+    private TokenIntrospectionService service;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "0123456789abcdef0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 60_000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        service = new TokenIntrospectionService(tokenProvider, tokenRepository, userDetailsService);
+        ReflectionTestUtils.setField(service, "maxBatch", 100);
+
+        when(userDetailsService.loadUserById(any(UUID.class), any(String.class))).thenAnswer(invocation -> {
+            UserPrincipal user = users.get(invocation.<UUID>getArgument(0));
+            if (user == null) {
+                throw new UsernameNotFoundException("no such user");
+            }
+            return user;
+        });
+        // Every well-formed token passed in is stored and not revoked unless a test says otherwise
+        when(tokenRepository.findActiveByTokenIn(anyCollection())).thenAnswer(invocation ->
+                invocation.<Collection<String>>getArgument(0).stream()
+                        .map(token -> {
+                            TokenDocument document = new TokenDocument();
+                            document.setToken(token);
+                            return document;
+                        })
+                        .toList());
+    }
+
+    @Test
+    void activeTokenReportsCurrentAuthorities() {
+        UserPrincipal user = principal(true, 3L);
+        String token = issue(user);
+
+        Map<String, Object> result = service.introspect(List.of(token)).get(0);
+
+        assertEquals(true, result.get("active"));
+        assertEquals(user.getId().toString(), result.get("sub"));
+        assertEquals(TenantContext.DEFAULT_TENANT, result.get("tid"));
+        assertEquals(Set.of("READ_USER"), result.get("authorities"));
+    }
+
+    @Test
+    void tokensTheFilterWouldRejectAreInactive() {
+        UserPrincipal disabled = principal(false, 3L);
+        String disabledToken = issue(disabled);
+
+        UserPrincipal promoted = principal(true, 3L);
+        String staleToken = issue(promoted);
+        promoted.setAuthoritiesVersion(4L);
+
+        List<Map<String, Object>> results = service.introspect(List.of(disabledToken, staleToken, "not.a.token"));
+
+        results.forEach(result -> assertEquals(Map.of("active", false), result));
+    }
+
+    @Test
+    void revokedTokenIsInactive() {
+        String token = issue(principal(true, 1L));
+        when(tokenRepository.findActiveByTokenIn(anyCollection())).thenReturn(List.of());
+
+        assertEquals(Map.of("active", false), service.introspect(List.of(token)).get(0));
+    }
+
+    private String issue(UserPrincipal principal) {
+        users.put(principal.getId(), principal);
+        return tokenProvider.generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private static UserPrincipal principal(boolean enabled, long authoritiesVersion) {
+        return new UserPrincipal(UUID.randomUUID(), TenantContext.DEFAULT_TENANT, "user", "user@example.com", "hash",
+                enabled, Set.of(1L), authoritiesVersion, true, false, Set.of(new SimpleGrantedAuthority("READ_USER")));
+    }
+}
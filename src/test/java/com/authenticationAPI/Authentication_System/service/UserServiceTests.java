@@ -0,0 +1,72 @@
+package com.authenticationAPI.Authentication_System.service;
+
+import com.authenticationAPI.Authentication_System.model.User;
+import com.authenticationAPI.Authentication_System.repo.RoleRepository;
+import com.authenticationAPI.Authentication_System.repo.UserRepository;
+import com.authenticationAPI.Authentication_System.securityComponent.CustomUserDetailsService;
+import com.authenticationAPI.Authentication_System.securityComponent.PolicyEngine;
+import com.authenticationAPI.Authentication_System.securityComponent.TenantContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserServiceTests {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final PolicyEngine policyEngine = mock(PolicyEngine.class);
+    private final User target = new User();
+
+    private UserService userService;
+
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(userRepository, mock(RoleRepository.class), mock(PasswordEncoder.class),
+                policyEngine, mock(CustomUserDetailsService.class), mock(SecurityEventService.class),
+                mock(ApiKeyService.class));
+
+        target.setId(UUID.randomUUID());
+        target.setUsername("bob");
+        target.setEmail("bob@example.com");
+        when(userRepository.findWithAuthoritiesByIdAndTenantId(target.getId(), TenantContext.DEFAULT_TENANT))
+                .thenReturn(Optional.of(target));
+        when(userRepository.save(target)).thenReturn(target);
+    }
+
+    @Test
+    void updateCannotDisableWithoutTheDisablePolicy() {
+        doThrow(new AccessDeniedException("denied")).when(policyEngine).check(eq("DISABLE_USER"), eq("user"), any());
+        User changes = new User();
+        changes.setEnabled(false);
+
+        assertThrows(AccessDeniedException.class, () -> userService.updateUser(target.getId(), changes));
+
+        verify(policyEngine).check(eq("UPDATE_USER"), eq("user"), any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void updateLeavingEnabledUnchangedNeedsOnlyTheUpdatePolicy() {
+        User changes = new User();
+        changes.setEnabled(true);
+        changes.setEmail("robert@example.com");
+
+        userService.updateUser(target.getId(), changes);
+
+        verify(policyEngine, never()).check(eq("ENABLE_USER"), any(), any());
+        verify(policyEngine, never()).check(eq("DISABLE_USER"), any(), any());
+        verify(userRepository).save(target);
+    }
+}